@@ -0,0 +1,70 @@
+/**
+ * The ApiRequestBenchmark class measures the CPU work done to build requests to the Twitter and Twitch.tv Apis.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiRequestBenchmark {
+
+    private final String STATUS_TO_POST = "(6137)\nBlue Side: \n    @player0handle\n    Team 0 Academy Player1\n"
+            + "    @player2handle\nRed Side: \n    @player6handle\n    @player8handle\n"
+            + "Watch here: https://www.twitch.tv/player0stream";
+
+    private TwitterApiHandler twitterApiHandler;
+    private TwitchApiHandler twitchApiHandler;
+    private ArrayList<Player> blockOfPlayers;
+
+    @Setup
+    public void setup() throws Exception {
+        File directory = Files.createTempDirectory("api-request-benchmark").toFile();
+        Properties configs = BenchmarkData.createConfigs(directory);
+        Logger logger = Logger.getLogger("Benchmark");
+
+        this.twitterApiHandler = new TwitterApiHandler(configs, logger, new BotMetrics());
+        this.twitchApiHandler = new TwitchApiHandler(configs, logger, new BotMetrics());
+
+        // a full block of players for a single users call
+        League league = BenchmarkData.createLeague(directory, 100);
+        this.blockOfPlayers = new ArrayList<>(league.getPlayers());
+    }
+
+    @Benchmark
+    public String generateSignature() throws InvalidKeyException, NoSuchAlgorithmException {
+        return this.twitterApiHandler.generateSignature("kYjzVBB8Y0ZFabxSWbWovY3uYSQ2pTgmZeNu2VS4cg", 1318622958L,
+                STATUS_TO_POST);
+    }
+
+    @Benchmark
+    public String createGetUserURI() {
+        return this.twitchApiHandler.createGetUserURI(this.blockOfPlayers);
+    }
+
+}
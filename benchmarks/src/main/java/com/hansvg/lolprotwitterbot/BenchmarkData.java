@@ -0,0 +1,159 @@
+/**
+ * The BenchmarkData class creates the configs, rosters, and api payloads used by the benchmarks.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+class BenchmarkData {
+
+    private static final String[] POSITIONS = { "TOP", "JUNGLE", "MID", "ADC", "SUPPORT" };
+
+    /**
+     * Reads the recorded spectator response of an active ranked solo game.
+     *
+     * @return The bytes of the spectator response
+     * @throws IOException If the payload could not be read
+     */
+    protected static byte[] loadSpectatorPayload() throws IOException {
+        try (InputStream payload = BenchmarkData.class.getResourceAsStream("/spectator-active-game.json")) {
+            return payload.readAllBytes();
+        }
+    }
+
+    /**
+     * Creates the configs for a LoLProTwitterBot with every key filled in with
+     * placeholder values.
+     *
+     * @param directory The directory to put the log file and roster file in
+     * @return The configs
+     */
+    protected static Properties createConfigs(File directory) {
+        Properties configs = new Properties();
+        configs.setProperty("LOCATION_FOR_LOG_FILE", new File(directory, "benchmark.log").getAbsolutePath());
+        configs.setProperty("PLAYER_ROSTER_FILE_LOCATION", new File(directory, "roster.csv").getAbsolutePath());
+        configs.setProperty("RIOT_API_KEY", "RGAPI-00000000-0000-0000-0000-000000000000");
+        configs.setProperty("RIOT_API_REGION", "na1");
+        configs.setProperty("TWITCH_CLIENT_ID", "benchmarkclientid0000000000000");
+        configs.setProperty("TWITCH_CLIENT_SECRET", "benchmarkclientsecret000000000");
+        configs.setProperty("TWITTER_CONSUMER_KEY", "xvz1evFS4wEEPTGEFPHBog");
+        configs.setProperty("TWITTER_CONSUMER_SECRET", "kAcSOqF21Fu85e7zjz7ZN2U4ZRhfV3WpwPAoE3Z7kBw");
+        configs.setProperty("TWITTER_ACCESS_TOKEN", "370773112-GmHxMAgYyLbNEtIKZeRNFsMKPR9EyMZeS9weJAEb");
+        configs.setProperty("TWITTER_ACCESS_TOKEN_SECRET", "LswwdoUaIvS8ltyTt5jkRh4J50vUPVVHtR2YPi5kE");
+        configs.setProperty("MINIMUM_GAMESCORE_TO_TWEET", "3500");
+        configs.setProperty("INTERVAL_TO_SCAN_ACTIVE_GAMES_IN_SECONDS", "480");
+        configs.setProperty("SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED_RIOT_API", "30");
+        configs.setProperty("SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED_TWITCH_API", "30");
+        configs.setProperty("SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED_TWITTER_API", "30");
+        return configs;
+    }
+
+    /**
+     * Writes the passed in configs to a config file.
+     *
+     * @param configs    The configs to write
+     * @param configFile The file to write them to
+     * @throws IOException If the file could not be written
+     */
+    protected static void writeConfigs(Properties configs, File configFile) throws IOException {
+        try (PrintWriter writer = new PrintWriter(configFile, StandardCharsets.UTF_8)) {
+            configs.store(writer, "benchmark configs");
+        }
+    }
+
+    /**
+     * Writes a synthetic roster file where the first players own the pro accounts
+     * in the recorded spectator payload and the rest are generated. Every player
+     * has two accounts, a twitter handle, and a twitch name.
+     *
+     * @param rosterFile The file to write the roster to
+     * @param rosterSize How many players to write
+     * @throws IOException If the roster could not be written
+     */
+    protected static void writeRoster(File rosterFile, int rosterSize) throws IOException {
+        JSONArray participants = new JSONObject(new String(loadSpectatorPayload(), StandardCharsets.UTF_8))
+                .getJSONArray("participants");
+
+        try (PrintWriter writer = new PrintWriter(rosterFile, StandardCharsets.UTF_8)) {
+            writer.println("Player Name,Position,Team,Twitter Handle,Twitch Name,League Accounts,,");
+            for (int i = 0; i < rosterSize; i++) {
+                String team = (i % 2 == 0) ? "Team " + (i / 10) : "Team " + (i / 10) + " Academy";
+                String firstAccount = (i < participants.length())
+                        ? participants.getJSONObject(i).getString("summonerName")
+                        : "Summoner " + i;
+                writer.println("Player" + i + "," + POSITIONS[i % POSITIONS.length] + "," + team + ",player" + i
+                        + "handle,player" + i + "stream," + firstAccount + ",Smurf " + i + ",");
+            }
+        }
+    }
+
+    /**
+     * Creates a League from a synthetic roster and gives every account a summoner
+     * id and every player a twitch user id. The accounts in the recorded spectator
+     * payload get the summoner ids used in the payload.
+     *
+     * @param directory  The directory to write the roster file to
+     * @param rosterSize How many players the League has
+     * @return The loaded League
+     * @throws IOException If the roster could not be written
+     */
+    protected static League createLeague(File directory, int rosterSize) throws IOException {
+        File rosterFile = new File(directory, "roster-" + rosterSize + ".csv");
+        writeRoster(rosterFile, rosterSize);
+
+        League league = new League(Logger.getLogger("Benchmark"), "na1", 25);
+        league.loadPlayers(rosterFile);
+
+        JSONArray participants = new JSONObject(new String(loadSpectatorPayload(), StandardCharsets.UTF_8))
+                .getJSONArray("participants");
+        for (int i = 0; i < participants.length(); i++) {
+            JSONObject participant = participants.getJSONObject(i);
+            Player player = league.getPlayerFromSummonerName(null, participant.getString("summonerName"));
+            if (player != null) {
+                league.setSummonerId(player, 0, participant.getString("summonerId"));
+            }
+        }
+
+        for (int playerIndex = 0; playerIndex < league.getPlayers().size(); playerIndex++) {
+            Player player = league.getPlayers().get(playerIndex);
+            for (int summonerIndex = 0; summonerIndex < player.getSummonerIds().length; summonerIndex++) {
+                if (player.getSummonerIds()[summonerIndex] == null) {
+                    league.setSummonerId(player, summonerIndex,
+                            summonerIdFor(player.getName() + "/" + player.getSummonerNames()[summonerIndex]));
+                }
+            }
+            league.setTwitchUserId(player, Integer.toString(100000000 + playerIndex));
+        }
+        return league;
+    }
+
+    /**
+     * Creates a summoner id that looks like an encrypted Riot Games summoner id.
+     *
+     * @param account A string unique to the account to create the id for
+     * @return A 47 character summoner id
+     */
+    protected static String summonerIdFor(String account) {
+        StringBuilder summonerId = new StringBuilder();
+        int seed = account.hashCode();
+        while (summonerId.length() < 47) {
+            seed = (seed * 1103515245) + 12345;
+            summonerId.append(Integer.toString((seed >>> 16) & 0x7fff, 36));
+        }
+        summonerId.setLength(47);
+        return summonerId.toString();
+    }
+
+}
@@ -0,0 +1,31 @@
+/**
+ * The BenchmarkRunner class runs the JMH benchmarks with the GC profiler so both the time and the allocation per operation are reported.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public class BenchmarkRunner {
+
+    /**
+     * Runs the benchmarks. Takes the same command line arguments as the JMH runner,
+     * for example a regex to pick which benchmarks to run.
+     *
+     * @param args JMH command line arguments
+     * @throws RunnerException            If a benchmark failed to run
+     * @throws CommandLineOptionException If the arguments could not be read
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder().parent(commandLineOptions).addProfiler(GCProfiler.class).build()).run();
+    }
+
+}
@@ -0,0 +1,436 @@
+/**
+ * The FakeApiServer class is a local stand in for the Riot Games, Twitch.tv, and Twitter Apis so full scan cycles can be run without using real Api quota.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+class FakeApiServer {
+
+    private final String SUMMONER_BY_NAME_PATH = "/lol/summoner/v4/summoners/by-name/";
+    private final String ACTIVE_GAME_BY_SUMMONER_PATH = "/lol/spectator/v4/active-games/by-summoner/";
+
+    private HttpServer httpServer;
+    private ExecutorService serverExecutorService;
+
+    private int latencyMillis;
+    private double rateLimitedResponseChance;
+    private String riotRateLimit;
+
+    private AtomicLong requestCount;
+    private AtomicLong rateLimitedResponseCount;
+
+    private ConcurrentHashMap<String, byte[]> activeGamesBySummonerId;
+    private ConcurrentHashMap<Long, String[]> summonerIdsByGameId;
+    private ConcurrentHashMap<String, String> twitchIdsByLogin;
+    private ConcurrentHashMap<String, Integer> viewerCountsByTwitchId;
+    private AtomicLong nextTwitchId;
+
+    private ConcurrentLinkedQueue<ReceivedTweet> receivedTweets;
+    private AtomicLong nextTweetId;
+
+    /**
+     * FakeApiServer class constructor.
+     *
+     * @param latencyMillis             How long each request takes to be answered
+     * @param rateLimitedResponseChance The chance from 0 to 1 that a request is
+     *                                  answered with a 429
+     * @param riotRateLimit             The rate limit sent in the X-App-Rate-Limit
+     *                                  and X-Method-Rate-Limit headers, or null to
+     *                                  not send them
+     * @param serverThreads             How many requests can be answered at once
+     */
+    protected FakeApiServer(int latencyMillis, double rateLimitedResponseChance, String riotRateLimit,
+            int serverThreads) {
+        this.latencyMillis = latencyMillis;
+        this.rateLimitedResponseChance = rateLimitedResponseChance;
+        this.riotRateLimit = riotRateLimit;
+
+        this.requestCount = new AtomicLong();
+        this.rateLimitedResponseCount = new AtomicLong();
+
+        this.activeGamesBySummonerId = new ConcurrentHashMap<>();
+        this.summonerIdsByGameId = new ConcurrentHashMap<>();
+        this.twitchIdsByLogin = new ConcurrentHashMap<>();
+        this.viewerCountsByTwitchId = new ConcurrentHashMap<>();
+        this.nextTwitchId = new AtomicLong(100000000);
+
+        this.receivedTweets = new ConcurrentLinkedQueue<>();
+        this.nextTweetId = new AtomicLong(1294000000000000000L);
+
+        this.serverExecutorService = Executors.newFixedThreadPool(serverThreads, runnable -> {
+            Thread serverThread = new Thread(runnable, "FakeApiServer");
+            serverThread.setDaemon(true);
+            return serverThread;
+        });
+    }
+
+    /**
+     * Starts the server on a free port of the loopback address.
+     *
+     * @throws IOException If the server could not be started
+     */
+    protected void start() throws IOException {
+        // without TCP_NODELAY the headers and body of each response wait on the
+        // client's delayed ack, adding about 40ms to every request
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        this.httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.httpServer.createContext("/", this::handle);
+        this.httpServer.setExecutor(this.serverExecutorService);
+        this.httpServer.start();
+    }
+
+    /**
+     * Stops the server.
+     */
+    protected void stop() {
+        this.httpServer.stop(0);
+        this.serverExecutorService.shutdownNow();
+    }
+
+    /**
+     * Gets the url to use in place of the hosts of all three Apis.
+     *
+     * @return The base url of the server
+     */
+    protected String getBaseUrl() {
+        return "http://" + this.httpServer.getAddress().getHostString() + ":" + this.httpServer.getAddress().getPort();
+    }
+
+    /**
+     * Gets the summoner id the server gives to a summoner name. Names are matched
+     * the way Riot Games matches them, ignoring spaces and case.
+     *
+     * @param summonerName The summoner name
+     * @return The summoner id for the name
+     */
+    protected static String summonerIdFor(String summonerName) {
+        return BenchmarkData.summonerIdFor(summonerName.replaceAll(" ", "").toLowerCase());
+    }
+
+    /**
+     * Starts a ranked solo game that the spectator endpoint returns for every
+     * participant until the game is ended. The first five summoners are on blue
+     * side and the rest are on red side.
+     *
+     * @param gameId        The id of the game
+     * @param platformId    The platform id of the region the game is played on
+     * @param summonerNames The summoner names of the participants
+     */
+    protected void startGame(long gameId, String platformId, String[] summonerNames) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String[] summonerIds = new String[summonerNames.length];
+
+        JSONArray participants = new JSONArray();
+        for (int i = 0; i < summonerNames.length; i++) {
+            summonerIds[i] = summonerIdFor(summonerNames[i]);
+
+            JSONObject perks = new JSONObject();
+            perks.put("perkIds", new JSONArray(new int[] { 8005, 9111, 9104, 8299, 8345, 8347, 5005, 5008, 5002 }));
+            perks.put("perkStyle", 8000);
+            perks.put("perkSubStyle", 8300);
+
+            JSONObject participant = new JSONObject();
+            participant.put("teamId", (i < summonerNames.length / 2) ? 100 : 200);
+            participant.put("spell1Id", 4);
+            participant.put("spell2Id", 14);
+            participant.put("championId", random.nextInt(1, 900));
+            participant.put("profileIconId", random.nextInt(1, 5000));
+            participant.put("summonerName", summonerNames[i]);
+            participant.put("bot", false);
+            participant.put("summonerId", summonerIds[i]);
+            participant.put("gameCustomizationObjects", new JSONArray());
+            participant.put("perks", perks);
+            participants.put(participant);
+        }
+
+        JSONObject game = new JSONObject();
+        game.put("gameId", gameId);
+        game.put("mapId", 11);
+        game.put("gameMode", "CLASSIC");
+        game.put("gameType", "MATCHED_GAME");
+        game.put("gameQueueConfigId", 420);
+        game.put("participants", participants);
+        game.put("observers", new JSONObject().put("encryptionKey", "nAR7TnNp0l9ghTKDeRy0WUtbS9Mm4bGS"));
+        game.put("platformId", platformId);
+        game.put("bannedChampions", new JSONArray());
+        game.put("gameStartTime", System.currentTimeMillis());
+        game.put("gameLength", 0);
+
+        byte[] gamePayload = game.toString().getBytes(StandardCharsets.UTF_8);
+        for (String summonerId : summonerIds) {
+            this.activeGamesBySummonerId.put(summonerId, gamePayload);
+        }
+        this.summonerIdsByGameId.put(gameId, summonerIds);
+    }
+
+    /**
+     * Ends a game started by startGame().
+     *
+     * @param gameId The id of the game to end
+     */
+    protected void endGame(long gameId) {
+        String[] summonerIds = this.summonerIdsByGameId.remove(gameId);
+        if (summonerIds != null) {
+            for (String summonerId : summonerIds) {
+                this.activeGamesBySummonerId.remove(summonerId);
+            }
+        }
+    }
+
+    /**
+     * Sets a Twitch.tv user as live, or offline if the view count is negative.
+     *
+     * @param twitchLogin The login name of the Twitch.tv user
+     * @param viewCount   The view count of the stream
+     */
+    protected void setLive(String twitchLogin, int viewCount) {
+        String twitchId = twitchIdFor(twitchLogin);
+        if (viewCount < 0) {
+            this.viewerCountsByTwitchId.remove(twitchId);
+        } else {
+            this.viewerCountsByTwitchId.put(twitchId, viewCount);
+        }
+    }
+
+    /**
+     * Gets how many requests the server has received.
+     *
+     * @return The request count
+     */
+    protected long getRequestCount() {
+        return this.requestCount.get();
+    }
+
+    /**
+     * Gets how many requests were answered with an injected 429.
+     *
+     * @return The rate limited response count
+     */
+    protected long getRateLimitedResponseCount() {
+        return this.rateLimitedResponseCount.get();
+    }
+
+    /**
+     * Removes and returns the tweets received since the last call.
+     *
+     * @return The received tweets in the order they were received
+     */
+    protected ArrayList<ReceivedTweet> takeReceivedTweets() {
+        ArrayList<ReceivedTweet> tweets = new ArrayList<>();
+        ReceivedTweet tweet;
+        while ((tweet = this.receivedTweets.poll()) != null) {
+            tweets.add(tweet);
+        }
+        return tweets;
+    }
+
+    /**
+     * Answers a request to any of the three Apis.
+     *
+     * @param exchange The request and its response
+     * @throws IOException If the response could not be sent
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream requestBody = exchange.getRequestBody()) {
+            requestBody.transferTo(OutputStream.nullOutputStream());
+            this.requestCount.incrementAndGet();
+
+            if (this.latencyMillis > 0) {
+                TimeUnit.MILLISECONDS.sleep(this.latencyMillis);
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            boolean riotRequest = path.startsWith("/lol/");
+            if (riotRequest && this.riotRateLimit != null) {
+                exchange.getResponseHeaders().add("X-App-Rate-Limit", this.riotRateLimit);
+                exchange.getResponseHeaders().add("X-Method-Rate-Limit", this.riotRateLimit);
+            }
+
+            if (!path.startsWith("/oauth2/") && this.rateLimitedResponseChance > 0
+                    && ThreadLocalRandom.current().nextDouble() < this.rateLimitedResponseChance) {
+                this.rateLimitedResponseCount.incrementAndGet();
+                if (riotRequest) {
+                    exchange.getResponseHeaders().add("Retry-After", "1");
+                    exchange.getResponseHeaders().add("X-Rate-Limit-Type", "method");
+                }
+                sendJSON(exchange, 429, statusJSON("Rate limit exceeded", 429));
+            } else if (path.startsWith(SUMMONER_BY_NAME_PATH)) {
+                handleSummonerByName(exchange, path.substring(SUMMONER_BY_NAME_PATH.length()));
+            } else if (path.startsWith(ACTIVE_GAME_BY_SUMMONER_PATH)) {
+                handleActiveGame(exchange, path.substring(ACTIVE_GAME_BY_SUMMONER_PATH.length()));
+            } else if (path.equals("/oauth2/token")) {
+                sendJSON(exchange, 200, new JSONObject().put("access_token", "fakeapiserveraccesstoken")
+                        .put("expires_in", 5184000).put("token_type", "bearer").toString());
+            } else if (path.equals("/oauth2/revoke")) {
+                sendJSON(exchange, 200, "");
+            } else if (path.equals("/helix/users")) {
+                handleTwitchUsers(exchange, getQueryValues(exchange, "login"));
+            } else if (path.equals("/helix/streams")) {
+                handleTwitchStreams(exchange, getQueryValues(exchange, "user_id"));
+            } else if (path.equals("/1.1/statuses/update.json")) {
+                handleStatusUpdate(exchange, getQueryValues(exchange, "status"));
+            } else {
+                sendJSON(exchange, 404, statusJSON("Not found", 404));
+            }
+        } catch (InterruptedException e) {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Answers a Riot Games summoner by name request. Every summoner name exists.
+     */
+    private void handleSummonerByName(HttpExchange exchange, String summonerName) throws IOException {
+        JSONObject summoner = new JSONObject();
+        summoner.put("id", summonerIdFor(summonerName));
+        summoner.put("accountId", BenchmarkData.summonerIdFor("account/" + summonerName));
+        summoner.put("puuid", BenchmarkData.summonerIdFor("puuid/" + summonerName));
+        summoner.put("name", summonerName);
+        summoner.put("profileIconId", 4568);
+        summoner.put("revisionDate", System.currentTimeMillis());
+        summoner.put("summonerLevel", 312);
+        sendJSON(exchange, 200, summoner.toString());
+    }
+
+    /**
+     * Answers a Riot Games spectator request with the game the summoner is in or a
+     * 404 if they are not in one.
+     */
+    private void handleActiveGame(HttpExchange exchange, String summonerId) throws IOException {
+        byte[] gamePayload = this.activeGamesBySummonerId.get(summonerId);
+        if (gamePayload == null) {
+            sendJSON(exchange, 404, statusJSON("Data not found", 404));
+        } else {
+            sendJSON(exchange, 200, gamePayload);
+        }
+    }
+
+    /**
+     * Answers a Helix users request. Every login exists.
+     */
+    private void handleTwitchUsers(HttpExchange exchange, ArrayList<String> logins) throws IOException {
+        JSONArray users = new JSONArray();
+        for (String login : logins) {
+            users.put(new JSONObject().put("id", twitchIdFor(login)).put("login", login).put("display_name", login)
+                    .put("type", "").put("broadcaster_type", "partner"));
+        }
+        sendJSON(exchange, 200, new JSONObject().put("data", users).toString());
+    }
+
+    /**
+     * Answers a Helix streams request with the streams of the users that are live.
+     */
+    private void handleTwitchStreams(HttpExchange exchange, ArrayList<String> userIds) throws IOException {
+        JSONArray streams = new JSONArray();
+        for (String userId : userIds) {
+            Integer viewCount = this.viewerCountsByTwitchId.get(userId);
+            if (viewCount != null) {
+                streams.put(new JSONObject().put("id", "4" + userId).put("user_id", userId).put("game_id", "21779")
+                        .put("type", "live").put("title", "high elo solo queue").put("viewer_count", viewCount)
+                        .put("language", "en"));
+            }
+        }
+        sendJSON(exchange, 200,
+                new JSONObject().put("data", streams).put("pagination", new JSONObject()).toString());
+    }
+
+    /**
+     * Answers a Twitter status update and records the tweet.
+     */
+    private void handleStatusUpdate(HttpExchange exchange, ArrayList<String> statuses) throws IOException {
+        if (!exchange.getRequestHeaders().containsKey("authorization") || statuses.isEmpty()) {
+            sendJSON(exchange, 401, new JSONObject()
+                    .put("errors", new JSONArray().put(new JSONObject().put("code", 32)
+                            .put("message", "Could not authenticate you.")))
+                    .toString());
+            return;
+        }
+
+        long tweetId = this.nextTweetId.incrementAndGet();
+        this.receivedTweets.add(new ReceivedTweet(statuses.get(0), System.currentTimeMillis()));
+        sendJSON(exchange, 200, new JSONObject().put("id", tweetId).put("id_str", Long.toString(tweetId))
+                .put("text", statuses.get(0)).toString());
+    }
+
+    /**
+     * Gets the Twitch.tv user id the server gives to a login name, giving the
+     * login the next id if it does not have one yet.
+     */
+    private String twitchIdFor(String twitchLogin) {
+        return this.twitchIdsByLogin.computeIfAbsent(twitchLogin.toLowerCase(),
+                login -> Long.toString(this.nextTwitchId.getAndIncrement()));
+    }
+
+    /**
+     * Gets every value of a query parameter of the request.
+     */
+    private ArrayList<String> getQueryValues(HttpExchange exchange, String parameter) {
+        ArrayList<String> values = new ArrayList<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int equalsIndex = pair.indexOf('=');
+                if (equalsIndex > 0 && pair.substring(0, equalsIndex).equals(parameter)) {
+                    values.add(URLDecoder.decode(pair.substring(equalsIndex + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return values;
+    }
+
+    private String statusJSON(String message, int statusCode) {
+        return new JSONObject()
+                .put("status", new JSONObject().put("message", message).put("status_code", statusCode)).toString();
+    }
+
+    private void sendJSON(HttpExchange exchange, int statusCode, String body) throws IOException {
+        sendJSON(exchange, statusCode, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void sendJSON(HttpExchange exchange, int statusCode, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
+        exchange.sendResponseHeaders(statusCode, (body.length == 0) ? -1 : body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+
+    /**
+     * A tweet the server received and when it was received.
+     */
+    protected static class ReceivedTweet {
+
+        protected final String status;
+        protected final long receivedAtMillis;
+
+        private ReceivedTweet(String status, long receivedAtMillis) {
+            this.status = status;
+            this.receivedAtMillis = receivedAtMillis;
+        }
+    }
+
+}
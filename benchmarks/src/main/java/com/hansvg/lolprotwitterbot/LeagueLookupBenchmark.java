@@ -0,0 +1,94 @@
+/**
+ * The LeagueLookupBenchmark class measures the League.getPlayerFrom* lookups at different roster sizes.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeagueLookupBenchmark {
+
+    private final int KEYS_TO_LOOK_UP = 1024;
+
+    @Param({ "100", "1000", "10000", "50000" })
+    public int rosterSize;
+
+    private League league;
+    private String[] summonerNames;
+    private String[] summonerIds;
+    private String[] twitchNames;
+    private String[] twitchIds;
+    private int keyIndex;
+
+    @Setup
+    public void setup() throws IOException {
+        this.league = BenchmarkData.createLeague(Files.createTempDirectory("lookup-benchmark").toFile(),
+                this.rosterSize);
+
+        // look up players from all over the roster so the lookups are not always
+        // for the first players
+        Random random = new Random(this.rosterSize);
+        ArrayList<Player> players = this.league.getPlayers();
+        this.summonerNames = new String[KEYS_TO_LOOK_UP];
+        this.summonerIds = new String[KEYS_TO_LOOK_UP];
+        this.twitchNames = new String[KEYS_TO_LOOK_UP];
+        this.twitchIds = new String[KEYS_TO_LOOK_UP];
+        for (int i = 0; i < KEYS_TO_LOOK_UP; i++) {
+            Player player = players.get(random.nextInt(players.size()));
+            this.summonerNames[i] = player.getSummonerNames()[0];
+            this.summonerIds[i] = player.getSummonerIds()[0];
+            this.twitchNames[i] = player.getTwitchName();
+            this.twitchIds[i] = player.getTwitchUserId();
+        }
+    }
+
+    @Benchmark
+    public Player getPlayerFromSummonerName() {
+        return this.league.getPlayerFromSummonerName(null, this.summonerNames[nextKeyIndex()]);
+    }
+
+    @Benchmark
+    public Player getPlayerFromSummonerId() {
+        return this.league.getPlayerFromSummonerId(this.summonerIds[nextKeyIndex()]);
+    }
+
+    @Benchmark
+    public Player getPlayerFromTwitchName() {
+        return this.league.getPlayerFromTwitchName(this.twitchNames[nextKeyIndex()]);
+    }
+
+    @Benchmark
+    public Player getPlayerFromTwitchId() {
+        return this.league.getPlayerFromTwitchId(this.twitchIds[nextKeyIndex()]);
+    }
+
+    private int nextKeyIndex() {
+        this.keyIndex = (this.keyIndex + 1) & (KEYS_TO_LOOK_UP - 1);
+        return this.keyIndex;
+    }
+
+}
@@ -0,0 +1,55 @@
+/**
+ * The RosterLoadBenchmark class measures reading the player roster file into a League at different roster sizes.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RosterLoadBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int rosterSize;
+
+    private File rosterFile;
+    private Logger logger;
+
+    @Setup
+    public void setup() throws IOException {
+        this.rosterFile = new File(Files.createTempDirectory("roster-benchmark").toFile(),
+                "roster-" + this.rosterSize + ".csv");
+        BenchmarkData.writeRoster(this.rosterFile, this.rosterSize);
+        this.logger = Logger.getLogger("Benchmark");
+    }
+
+    @Benchmark
+    public League loadPlayers() {
+        League league = new League(this.logger, "na1", 25);
+        league.loadPlayers(this.rosterFile);
+        return league;
+    }
+}
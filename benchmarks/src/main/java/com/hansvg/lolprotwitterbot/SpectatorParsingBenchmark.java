@@ -0,0 +1,64 @@
+/**
+ * The SpectatorParsingBenchmark class measures building a SoloQueueGame and its SoloQueueTeams from a recorded spectator response.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpectatorParsingBenchmark {
+
+    private byte[] spectatorPayload;
+    private League league;
+    private SpectatorGameParser spectatorGameParser;
+
+    @Setup
+    public void setup() throws IOException {
+        this.spectatorPayload = BenchmarkData.loadSpectatorPayload();
+        this.league = BenchmarkData.createLeague(Files.createTempDirectory("spectator-benchmark").toFile(), 1000);
+        this.spectatorGameParser = new SpectatorGameParser();
+    }
+
+    /**
+     * The response body read as a String and parsed into a whole JSONObject tree.
+     */
+    @Benchmark
+    public SoloQueueGame jsonObject() {
+        return new SoloQueueGame(new JSONObject(new String(this.spectatorPayload, StandardCharsets.UTF_8)),
+                this.league);
+    }
+
+    /**
+     * The response body streamed through a SpectatorGameParser that is reused for
+     * every response, as each scanner thread does.
+     */
+    @Benchmark
+    public SoloQueueGame spectatorGameParser() throws IOException {
+        return this.spectatorGameParser.parseGame(new ByteArrayInputStream(this.spectatorPayload), this.league);
+    }
+
+}
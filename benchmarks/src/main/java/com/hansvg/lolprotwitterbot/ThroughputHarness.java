@@ -0,0 +1,327 @@
+/**
+ * The ThroughputHarness class runs full scan cycles of a LoLProTwitterBot against a FakeApiServer and reports the cycle time, requests per second, and time-to-tweet for different roster sizes.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.logging.Handler;
+import java.util.logging.Logger;
+
+public class ThroughputHarness {
+
+    private static final int PLAYERS_PER_GAME = 10;
+
+    private static PrintStream report = System.out;
+
+    /**
+     * Runs the harness. Options are passed as "--name value":
+     *
+     * --accounts      Comma separated roster sizes in League accounts (default
+     *                 1000,10000,100000)
+     * --cycles        Scan cycles to run for each roster size (default 5)
+     * --games         New games started before each cycle (default 10)
+     * --game-cycles   How many cycles each game lasts (default 4)
+     * --latency-ms    How long the server takes to answer (default 5)
+     * --rate-limited  Chance from 0 to 1 of a 429 response (default 0)
+     * --riot-limit    Riot Games rate limit for the bot and server (default
+     *                 100000:1)
+     * --concurrency   MAX_CONCURRENT_RIOT_API_REQUESTS of the bot (default 8)
+     * --regions       Comma separated regions to spread the roster over (default
+     *                 na1)
+     * --api-keys      How many Riot Games api keys to split the roster over, each
+     *                 with its own --riot-limit (default 1)
+     * --cold-start    true to resolve summoner ids from the server instead of a
+     *                 warm SUMMONER_ID_CACHE_FILE_LOCATION (default false)
+     * --leagues       How many LEAGUES to split the roster over, each with its own
+     *                 roster file, where every other player is in all of them
+     *                 (default 1)
+     * --config        KEY=VALUE to override any other config of the bot, can be
+     *                 repeated
+     * --verbose       true to show the bot's own output (default false)
+     *
+     * @param args The options
+     * @throws Exception If the harness could not be run
+     */
+    public static void main(String[] args) throws Exception {
+        HashMap<String, String> options = new HashMap<>();
+        Properties configOverrides = new Properties();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--config")) {
+                String[] keyAndValue = args[i + 1].split("=", 2);
+                configOverrides.setProperty(keyAndValue[0], (keyAndValue.length == 2) ? keyAndValue[1] : "");
+            } else {
+                options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+            }
+        }
+
+        int cycles = Integer.parseInt(options.getOrDefault("cycles", "5"));
+        int gamesPerCycle = Integer.parseInt(options.getOrDefault("games", "10"));
+        int gameLengthInCycles = Integer.parseInt(options.getOrDefault("game-cycles", "4"));
+        int latencyMillis = Integer.parseInt(options.getOrDefault("latency-ms", "5"));
+        double rateLimitedResponseChance = Double.parseDouble(options.getOrDefault("rate-limited", "0"));
+        String riotRateLimit = options.getOrDefault("riot-limit", "100000:1");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "8"));
+        boolean coldStart = Boolean.parseBoolean(options.getOrDefault("cold-start", "false"));
+        boolean verbose = Boolean.parseBoolean(options.getOrDefault("verbose", "false"));
+        String regions = options.getOrDefault("regions", "na1");
+        int apiKeys = Integer.parseInt(options.getOrDefault("api-keys", "1"));
+        int leagues = Integer.parseInt(options.getOrDefault("leagues", "1"));
+        StringBuilder riotApiKeys = new StringBuilder("fake-riot-api-key-1");
+        for (int apiKey = 2; apiKey <= apiKeys; apiKey++) {
+            riotApiKeys.append(",fake-riot-api-key-").append(apiKey);
+        }
+
+        if (!verbose) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+
+        for (String accounts : options.getOrDefault("accounts", "1000,10000,100000").split(",")) {
+            FakeApiServer fakeApiServer = new FakeApiServer(latencyMillis, rateLimitedResponseChance, riotRateLimit,
+                    Math.max(64, concurrency * 4));
+            fakeApiServer.start();
+            try {
+                Properties configs = BenchmarkData.createConfigs(Files.createTempDirectory("throughput").toFile());
+                configs.setProperty("RIOT_API_BASE_URL", fakeApiServer.getBaseUrl());
+                configs.setProperty("TWITCH_API_BASE_URL", fakeApiServer.getBaseUrl());
+                configs.setProperty("TWITCH_AUTH_BASE_URL", fakeApiServer.getBaseUrl());
+                configs.setProperty("TWITTER_API_BASE_URL", fakeApiServer.getBaseUrl());
+                configs.setProperty("RIOT_API_REGION", regions);
+                configs.setProperty("RIOT_API_KEY", riotApiKeys.toString());
+                configs.setProperty("RIOT_API_APP_RATE_LIMIT", riotRateLimit);
+                configs.setProperty("MAX_CONCURRENT_RIOT_API_REQUESTS", Integer.toString(concurrency));
+                // look the streams up in the scan cycle so they are part of the cycle time
+                configs.setProperty("INTERVAL_TO_REFRESH_LIVE_STREAMERS_IN_SECONDS", "0");
+                configs.putAll(configOverrides);
+
+                runRosterSize(fakeApiServer, configs, Integer.parseInt(accounts.trim()), cycles, gamesPerCycle,
+                        gameLengthInCycles, coldStart, leagues);
+            } finally {
+                fakeApiServer.stop();
+            }
+        }
+    }
+
+    /**
+     * Sets up a LoLProTwitterBot with a synthetic roster of the passed in size and
+     * runs the scan cycles, starting new games on the server before each one.
+     */
+    private static void runRosterSize(FakeApiServer fakeApiServer, Properties configs, int accounts, int cycles,
+            int gamesPerCycle, int gameLengthInCycles, boolean coldStart, int leagues) throws Exception {
+        // every synthetic player has two accounts
+        int rosterSize = Math.max(PLAYERS_PER_GAME, accounts / 2);
+        File rosterFile = new File(configs.getProperty("PLAYER_ROSTER_FILE_LOCATION"));
+        BenchmarkData.writeRoster(rosterFile, rosterSize);
+
+        // spread the players over the regions by tagging their accounts
+        String[] regions = configs.getProperty("RIOT_API_REGION").split(",");
+        ArrayList<String[]> rosterAccounts = new ArrayList<>();
+        ArrayList<String> rosterRegions = new ArrayList<>();
+        ArrayList<String> rosterTwitchNames = new ArrayList<>();
+        List<String> rosterLines = Files.readAllLines(rosterFile.toPath());
+        for (int i = 1; i < rosterLines.size(); i++) {
+            String[] playerInfo = rosterLines.get(i).split(",", 6);
+            String region = regions[(i - 1) % regions.length].trim();
+            String[] summonerNames = playerInfo[5].split(",");
+            rosterAccounts.add(summonerNames);
+            rosterRegions.add(region);
+            rosterTwitchNames.add(playerInfo[4]);
+            if (regions.length > 1) {
+                rosterLines.set(i, String.join(",", playerInfo[0], playerInfo[1], playerInfo[2], playerInfo[3],
+                        playerInfo[4], region + ":" + String.join("," + region + ":", summonerNames)) + ",");
+            }
+        }
+        Files.write(rosterFile.toPath(), rosterLines);
+
+        if (leagues > 1) {
+            // the players on even lines are in every league, the rest in one of them
+            StringBuilder leagueNames = new StringBuilder();
+            for (int league = 0; league < leagues; league++) {
+                String leagueName = "L" + (league + 1);
+                ArrayList<String> leagueRosterLines = new ArrayList<>();
+                leagueRosterLines.add(rosterLines.get(0));
+                for (int i = 1; i < rosterLines.size(); i++) {
+                    if ((i - 1) % 2 == 0 || (i - 1) % leagues == league) {
+                        leagueRosterLines.add(rosterLines.get(i));
+                    }
+                }
+                File leagueRosterFile = new File(rosterFile.getParentFile(), "roster-" + leagueName + ".csv");
+                Files.write(leagueRosterFile.toPath(), leagueRosterLines);
+                configs.setProperty(leagueName + ".PLAYER_ROSTER_FILE_LOCATION", leagueRosterFile.getAbsolutePath());
+                leagueNames.append((league == 0) ? "" : ",").append(leagueName);
+            }
+            configs.setProperty("LEAGUES", leagueNames.toString());
+        }
+
+        if (!coldStart) {
+            File cacheFile = new File(rosterFile.getParentFile(), "summoner-ids.json");
+            SummonerIdCache summonerIdCache = new SummonerIdCache(cacheFile, 168, Logger.getLogger("Benchmark"));
+            // the summoner ids are cached with the fingerprint of the api key each account
+            // is assigned to, which the bot's RiotApiHandler works out
+            HashMap<String, RiotApiHandler> riotApiHandlersByRegion = new HashMap<>();
+            for (int i = 0; i < rosterAccounts.size(); i++) {
+                RiotApiHandler riotApiHandler = riotApiHandlersByRegion.get(rosterRegions.get(i));
+                if (riotApiHandler == null) {
+                    riotApiHandler = new RiotApiHandler(configs, Logger.getLogger("Benchmark"), rosterRegions.get(i),
+                            true, null, new BotMetrics());
+                    riotApiHandlersByRegion.put(rosterRegions.get(i), riotApiHandler);
+                }
+                for (String summonerName : rosterAccounts.get(i)) {
+                    summonerIdCache.putSummonerId(rosterRegions.get(i),
+                            riotApiHandler.getApiKeyFingerprint(summonerName), summonerName,
+                            FakeApiServer.summonerIdFor(summonerName));
+                }
+            }
+            summonerIdCache.save();
+            configs.setProperty("SUMMONER_ID_CACHE_FILE_LOCATION", cacheFile.getAbsolutePath());
+        }
+
+        File configFile = new File(rosterFile.getParentFile(), "config.properties");
+        BenchmarkData.writeConfigs(configs, configFile);
+
+        // the bot logs to the "Logger" Logger, keep it out of the report
+        Logger botLogger = Logger.getLogger("Logger");
+        botLogger.setUseParentHandlers(false);
+
+        LoLProTwitterBot lolProTwitterBot = new LoLProTwitterBot(configFile.getAbsolutePath());
+
+        report.println();
+        report.println("Roster: " + rosterSize + " players, " + (rosterSize * 2) + " accounts"
+                + ((leagues > 1) ? ", split over " + leagues + " leagues" : ""));
+
+        long setupStart = System.nanoTime();
+        long setupRequestsStart = fakeApiServer.getRequestCount();
+        if (!lolProTwitterBot.preformSetupTasks()) {
+            report.println("  Setup failed, see " + configs.getProperty("LOCATION_FOR_LOG_FILE"));
+            closeBot(lolProTwitterBot, botLogger);
+            return;
+        }
+        report.println(String.format("  setup: %,d ms, %,d requests%s", (System.nanoTime() - setupStart) / 1000000,
+                fakeApiServer.getRequestCount() - setupRequestsStart, coldStart ? "" : " (warm summoner id cache)"));
+
+        Random random = new Random(rosterSize);
+        ArrayList<Integer> playerIndexes = new ArrayList<>();
+        for (int i = 0; i < rosterSize; i++) {
+            playerIndexes.add(i);
+        }
+        int maxGamesAtOnce = rosterSize / PLAYERS_PER_GAME;
+        gamesPerCycle = Math.min(gamesPerCycle, Math.max(1, maxGamesAtOnce / Math.max(1, gameLengthInCycles)));
+
+        HashMap<String, Long> gameStartTimesByStreamer = new HashMap<>();
+        HashMap<Long, Integer> gameEndCycles = new HashMap<>();
+        HashMap<Long, String> gameStreamers = new HashMap<>();
+        HashSet<Integer> playersInGames = new HashSet<>();
+        HashMap<Long, List<Integer>> gamePlayers = new HashMap<>();
+        ArrayList<Long> timesToTweet = new ArrayList<>();
+        // with more than one league a game can be tweeted by each of them
+        HashSet<String> tweetedGames = new HashSet<>();
+        long nextGameId = 4000000000L;
+        int gamesStarted = 0;
+
+        long totalCycleNanos = 0;
+        long totalCycleRequests = 0;
+        for (int cycle = 1; cycle <= cycles; cycle++) {
+            // end the games that are over and start new ones with players not in a game
+            for (Long gameId : new ArrayList<>(gameEndCycles.keySet())) {
+                if (gameEndCycles.get(gameId) <= cycle) {
+                    fakeApiServer.endGame(gameId);
+                    fakeApiServer.setLive(gameStreamers.get(gameId), -1);
+                    gameStartTimesByStreamer.remove(gameStreamers.get(gameId));
+                    playersInGames.removeAll(gamePlayers.remove(gameId));
+                    gameEndCycles.remove(gameId);
+                    gameStreamers.remove(gameId);
+                }
+            }
+            Collections.shuffle(playerIndexes, random);
+            ArrayList<Integer> freePlayers = new ArrayList<>(playerIndexes);
+            freePlayers.removeAll(playersInGames);
+            for (int game = 0; game < gamesPerCycle && freePlayers.size() >= PLAYERS_PER_GAME; game++) {
+                List<Integer> players = new ArrayList<>(freePlayers.subList(0, PLAYERS_PER_GAME));
+                freePlayers.subList(0, PLAYERS_PER_GAME).clear();
+
+                String[] summonerNames = new String[PLAYERS_PER_GAME];
+                for (int i = 0; i < PLAYERS_PER_GAME; i++) {
+                    String[] accountsOfPlayer = rosterAccounts.get(players.get(i));
+                    summonerNames[i] = accountsOfPlayer[random.nextInt(accountsOfPlayer.length)];
+                }
+
+                long gameId = nextGameId++;
+                String streamer = rosterTwitchNames.get(players.get(0));
+                fakeApiServer.setLive(streamer, 500 + random.nextInt(20000));
+                fakeApiServer.startGame(gameId, rosterRegions.get(players.get(0)).toUpperCase(), summonerNames);
+                gameStartTimesByStreamer.put(streamer, System.currentTimeMillis());
+                gameEndCycles.put(gameId, cycle + gameLengthInCycles);
+                gameStreamers.put(gameId, streamer);
+                gamePlayers.put(gameId, players);
+                playersInGames.addAll(players);
+                gamesStarted++;
+            }
+
+            long requestsStart = fakeApiServer.getRequestCount();
+            long rateLimitedStart = fakeApiServer.getRateLimitedResponseCount();
+            long cycleStart = System.nanoTime();
+            lolProTwitterBot.scanActiveGames();
+            long cycleNanos = System.nanoTime() - cycleStart;
+            long cycleRequests = fakeApiServer.getRequestCount() - requestsStart;
+            // tweets are posted from the bot's TweetQueue, wait for them outside the cycle time
+            lolProTwitterBot.awaitPendingTweets(10000);
+
+            int tweets = 0;
+            for (FakeApiServer.ReceivedTweet tweet : fakeApiServer.takeReceivedTweets()) {
+                String streamer = tweet.status.substring(tweet.status.lastIndexOf("twitch.tv/") + 10);
+                Long gameStartTime = gameStartTimesByStreamer.get(streamer);
+                if (gameStartTime != null) {
+                    timesToTweet.add(tweet.receivedAtMillis - gameStartTime);
+                    tweetedGames.add(streamer + "@" + gameStartTime);
+                }
+                tweets++;
+            }
+
+            totalCycleNanos += cycleNanos;
+            totalCycleRequests += cycleRequests;
+            report.println(String.format("  cycle %d: %,d ms, %,d requests, %,.0f requests/s, %d 429s, %d tweets",
+                    cycle, cycleNanos / 1000000, cycleRequests, cycleRequests / (cycleNanos / 1e9),
+                    fakeApiServer.getRateLimitedResponseCount() - rateLimitedStart, tweets));
+        }
+
+        report.println(String.format("  average cycle: %,d ms, %,.0f requests/s", totalCycleNanos / cycles / 1000000,
+                totalCycleRequests / (totalCycleNanos / 1e9)));
+        if (timesToTweet.isEmpty()) {
+            report.println("  time-to-tweet: no games tweeted out of " + gamesStarted + " started");
+        } else {
+            Collections.sort(timesToTweet);
+            report.println(String.format("  time-to-tweet: p50 %,d ms, p95 %,d ms, max %,d ms (%d of %d games tweeted)",
+                    percentile(timesToTweet, 0.50), percentile(timesToTweet, 0.95),
+                    timesToTweet.get(timesToTweet.size() - 1), tweetedGames.size(), gamesStarted));
+        }
+
+        closeBot(lolProTwitterBot, botLogger);
+    }
+
+    private static long percentile(ArrayList<Long> sortedValues, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedValues.size()) - 1;
+        return sortedValues.get(Math.max(0, Math.min(index, sortedValues.size() - 1)));
+    }
+
+    private static void closeBot(LoLProTwitterBot lolProTwitterBot, Logger botLogger) {
+        lolProTwitterBot.preformClosingTasks();
+        // the next bot adds its own log file handler
+        for (Handler handler : botLogger.getHandlers()) {
+            botLogger.removeHandler(handler);
+        }
+    }
+
+}
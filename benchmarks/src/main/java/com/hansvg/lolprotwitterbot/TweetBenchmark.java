@@ -0,0 +1,79 @@
+/**
+ * The TweetBenchmark class measures scoring a game and creating the tweet for it.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TweetBenchmark {
+
+    private LoLProTwitterBot lolProTwitterBot;
+    private SoloQueueGame game;
+    private HashMap<Player, Integer> blueTeamStreamers;
+    private HashMap<Player, Integer> redTeamStreamers;
+    private int gameScore;
+
+    @Setup
+    public void setup() throws Exception {
+        File directory = Files.createTempDirectory("tweet-benchmark").toFile();
+        File configFile = new File(directory, "config.properties");
+        BenchmarkData.writeConfigs(BenchmarkData.createConfigs(directory), configFile);
+        this.lolProTwitterBot = new LoLProTwitterBot(configFile.getAbsolutePath());
+
+        League league = BenchmarkData.createLeague(directory, 1000);
+        this.game = new SpectatorGameParser()
+                .parseGame(new ByteArrayInputStream(BenchmarkData.loadSpectatorPayload()), league);
+
+        // every pro in the game has a stream, two of them are live
+        this.blueTeamStreamers = new HashMap<>();
+        this.redTeamStreamers = new HashMap<>();
+        int viewCount = 4200;
+        for (Player player : this.game.getBlueTeam().getPlayers().keySet()) {
+            this.blueTeamStreamers.put(player, viewCount);
+            viewCount = 0;
+        }
+        viewCount = 870;
+        for (Player player : this.game.getRedTeam().getPlayers().keySet()) {
+            this.redTeamStreamers.put(player, viewCount);
+            viewCount = 0;
+        }
+        this.gameScore = this.lolProTwitterBot.calculateGameScore(this.game, this.blueTeamStreamers,
+                this.redTeamStreamers);
+    }
+
+    @Benchmark
+    public int calculateGameScore() {
+        return this.lolProTwitterBot.calculateGameScore(this.game, this.blueTeamStreamers, this.redTeamStreamers);
+    }
+
+    @Benchmark
+    public String createTweet() {
+        return this.lolProTwitterBot.createTweet(this.game, this.blueTeamStreamers, this.redTeamStreamers,
+                this.gameScore);
+    }
+
+}
@@ -0,0 +1,200 @@
+/**
+ * The RiotRateLimiterTest class checks that the RiotRateLimiter learns the rate limits from the response headers and holds requests back until they can be sent.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.http.HttpHeaders;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+
+class RiotRateLimiterTest {
+
+    // how long a request that should be let through may take to be let through
+    private static final long ALLOWED_MILLIS = 1000;
+    // how long a request that should be held back is watched for
+    private static final long HELD_BACK_MILLIS = 300;
+
+    /**
+     * The method limits from the first response replace the single request
+     * allowed while they were unknown, and only apply to that method.
+     */
+    @Test
+    void learnsMethodLimitsFromTheFirstResponse() throws Exception {
+        RiotRateLimiter rateLimiter = new RiotRateLimiter("100:1", 1);
+
+        rateLimiter.acquire("spectator");
+        rateLimiter.update("spectator", headers("X-Method-Rate-Limit", "2:10"), 200);
+
+        assertTrue(acquiresWithin(rateLimiter, "spectator", ALLOWED_MILLIS));
+        assertTrue(acquiresWithin(rateLimiter, "spectator", ALLOWED_MILLIS));
+        assertFalse(acquiresWithin(rateLimiter, "spectator", HELD_BACK_MILLIS));
+        assertTrue(acquiresWithin(rateLimiter, "summoner", ALLOWED_MILLIS));
+    }
+
+    /**
+     * The application limits from a response replace the default ones.
+     */
+    @Test
+    void learnsApplicationLimitsFromTheHeaders() throws Exception {
+        RiotRateLimiter rateLimiter = new RiotRateLimiter("1:10", 1);
+
+        rateLimiter.acquire("spectator");
+        rateLimiter.update("spectator",
+                headers("X-App-Rate-Limit", "20:10", "X-App-Rate-Limit-Count", "1:10"), 200);
+
+        assertTrue(acquiresWithin(rateLimiter, "summoner", ALLOWED_MILLIS));
+    }
+
+    /**
+     * Requests counted by Riot Games but not sent through the RiotRateLimiter,
+     * like ones made with the same api key somewhere else, count against the
+     * limits.
+     */
+    @Test
+    void syncsCountsFromTheHeaders() throws Exception {
+        RiotRateLimiter rateLimiter = new RiotRateLimiter("20:10", 1);
+
+        rateLimiter.acquire("spectator");
+        rateLimiter.update("spectator",
+                headers("X-App-Rate-Limit", "20:10", "X-App-Rate-Limit-Count", "20:10"), 200);
+
+        assertFalse(acquiresWithin(rateLimiter, "summoner", HELD_BACK_MILLIS));
+    }
+
+    /**
+     * A 429 for a method holds back that method until Retry-After has passed and
+     * leaves the other methods alone.
+     */
+    @Test
+    void waitsForRetryAfterOnAMethodLimit() throws Exception {
+        RiotRateLimiter rateLimiter = new RiotRateLimiter("100:1", 1);
+
+        rateLimiter.acquire("spectator");
+        rateLimiter.update("spectator", headers("X-Method-Rate-Limit", "100:1", "Retry-After", "1",
+                "X-Rate-Limit-Type", "method"), 429);
+        long blockedAt = System.currentTimeMillis();
+
+        assertTrue(acquiresWithin(rateLimiter, "summoner", ALLOWED_MILLIS));
+        assertFalse(acquiresWithin(rateLimiter, "spectator", HELD_BACK_MILLIS));
+        assertTrue(acquiresWithin(rateLimiter, "spectator", 1000 + ALLOWED_MILLIS));
+        assertTrue(System.currentTimeMillis() - blockedAt >= 1000);
+    }
+
+    /**
+     * A 429 for the application limit holds back every method.
+     */
+    @Test
+    void waitsForRetryAfterOnTheApplicationLimit() throws Exception {
+        RiotRateLimiter rateLimiter = new RiotRateLimiter("100:1", 1);
+
+        rateLimiter.acquire("spectator");
+        rateLimiter.update("spectator", headers("X-Method-Rate-Limit", "100:1", "Retry-After", "1",
+                "X-Rate-Limit-Type", "application"), 429);
+
+        assertFalse(acquiresWithin(rateLimiter, "summoner", HELD_BACK_MILLIS));
+    }
+
+    /**
+     * Until the first response of a method comes back only one request to it is
+     * in flight, and the next one is let through once it does.
+     */
+    @Test
+    void allowsOneRequestPerMethodUntilItsLimitsAreKnown() throws Exception {
+        RiotRateLimiter rateLimiter = new RiotRateLimiter("100:1", 1);
+
+        rateLimiter.acquire("spectator");
+        FutureTask<Void> waitingRequest = acquire(rateLimiter, "spectator");
+        Thread.sleep(HELD_BACK_MILLIS);
+        assertFalse(waitingRequest.isDone());
+        assertTrue(acquiresWithin(rateLimiter, "summoner", ALLOWED_MILLIS));
+
+        // no response was received, so the limits are still unknown
+        rateLimiter.update("spectator", null, -1);
+        waitingRequest.get(ALLOWED_MILLIS, TimeUnit.MILLISECONDS);
+        assertFalse(acquiresWithin(rateLimiter, "spectator", HELD_BACK_MILLIS));
+    }
+
+    /**
+     * Limits of 0 requests or 0 seconds can never be met, so they are ignored
+     * instead of breaking acquire.
+     */
+    @Test
+    void ignoresLimitsThatCanNeverBeMet() throws Exception {
+        RiotRateLimiter rateLimiter = new RiotRateLimiter("0:1,100:0,100:1", 1);
+
+        rateLimiter.acquire("spectator");
+        rateLimiter.update("spectator", headers("X-App-Rate-Limit", "0:10,100:1", "X-Method-Rate-Limit",
+                "0:1,5:0,-3:10,1:10"), 200);
+
+        assertTrue(acquiresWithin(rateLimiter, "spectator", ALLOWED_MILLIS));
+        assertFalse(acquiresWithin(rateLimiter, "spectator", HELD_BACK_MILLIS));
+    }
+
+    /**
+     * Checks if a request to the passed in method is let through in time. A
+     * request that is not let through in time is interrupted so it is not
+     * recorded.
+     *
+     * @param rateLimiter The RiotRateLimiter to acquire from
+     * @param method      The method of the request
+     * @param millis      How long to wait for the request to be let through
+     * @return True if the request was let through in time and false otherwise
+     * @throws Exception If acquire failed
+     */
+    private static boolean acquiresWithin(RiotRateLimiter rateLimiter, String method, long millis)
+            throws Exception {
+        FutureTask<Void> request = acquire(rateLimiter, method);
+        try {
+            request.get(millis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            request.cancel(true);
+            return false;
+        }
+    }
+
+    /**
+     * Starts acquiring a request to the passed in method on its own thread.
+     *
+     * @param rateLimiter The RiotRateLimiter to acquire from
+     * @param method      The method of the request
+     * @return The FutureTask that is done once the request is let through
+     */
+    private static FutureTask<Void> acquire(RiotRateLimiter rateLimiter, String method) {
+        FutureTask<Void> request = new FutureTask<>(() -> {
+            rateLimiter.acquire(method);
+            return null;
+        });
+        Thread requestThread = new Thread(request);
+        requestThread.setDaemon(true);
+        requestThread.start();
+        return request;
+    }
+
+    /**
+     * Builds response headers from pairs of names and values.
+     *
+     * @param namesAndValues The header names each followed by its value
+     * @return The HttpHeaders
+     */
+    private static HttpHeaders headers(String... namesAndValues) {
+        Map<String, List<String>> headers = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            headers.put(namesAndValues[i], List.of(namesAndValues[i + 1]));
+        }
+        return HttpHeaders.of(headers, (name, value) -> true);
+    }
+
+}
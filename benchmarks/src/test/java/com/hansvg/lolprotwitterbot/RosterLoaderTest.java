@@ -0,0 +1,139 @@
+/**
+ * The RosterLoaderTest class checks that the RosterLoader splits a player roster file into the same rows and cells however it is quoted, ended, or read.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RosterLoaderTest {
+
+    private static final String HEADER = "Player Name,Position,Team,Twitter Handle,Twitch Name,League Accounts,,\n";
+    // the size of the RosterLoader's read buffer, which the smaller reads of the
+    // file also line up with
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final RosterLoader rosterLoader = new RosterLoader(Logger.getAnonymousLogger());
+
+    @TempDir
+    File rosterDirectory;
+
+    /**
+     * Quoted fields keep their commas, and quotes written twice inside them are
+     * read as one quote.
+     */
+    @Test
+    void readsQuotedFieldsAndEscapedQuotes() throws IOException {
+        ArrayList<String[]> rows = readRows(HEADER
+                + "\"Faker \"\"The GOAT\"\"\",MID,\"T1, Korea\",faker,fakerstream,\"Hide, on bush\",\"\"\"\",\n"
+                + "\"\",TOP,T1,zeus,zeusstream,Zeus,,\n");
+
+        assertEquals(2, rows.size());
+        assertArrayEquals(new String[] { "Faker \"The GOAT\"", "MID", "T1, Korea", "faker", "fakerstream",
+                "Hide, on bush", "\"" }, rows.get(0));
+        assertArrayEquals(new String[] { "", "TOP", "T1", "zeus", "zeusstream", "Zeus" }, rows.get(1));
+    }
+
+    /**
+     * Rows ended with CRLF are read the same as rows ended with LF, and a line
+     * break inside a quoted field stays in the field.
+     */
+    @Test
+    void readsCrlfLineEndings() throws IOException {
+        ArrayList<String[]> rows = readRows(HEADER.replace("\n", "\r\n")
+                + "Faker,MID,T1,faker,fakerstream,Hide on bush,,\r\n"
+                + "\r\n"
+                + "\"Two\r\nLines\",TOP,T1,zeus,zeusstream,Zeus,Zeus Smurf\r\n"
+                + "Keria,SUPPORT,T1,keria,keriastream,Keria");
+
+        assertEquals(3, rows.size());
+        assertArrayEquals(new String[] { "Faker", "MID", "T1", "faker", "fakerstream", "Hide on bush" },
+                rows.get(0));
+        assertArrayEquals(new String[] { "Two\r\nLines", "TOP", "T1", "zeus", "zeusstream", "Zeus", "Zeus Smurf" },
+                rows.get(1));
+        assertArrayEquals(new String[] { "Keria", "SUPPORT", "T1", "keria", "keriastream", "Keria" }, rows.get(2));
+    }
+
+    /**
+     * A row is read the same wherever the end of a read splits it, including
+     * between the two quotes of an escaped quote and between CR and LF.
+     */
+    @Test
+    void readsRowsSplitAcrossTheBufferBoundary() throws IOException {
+        String splitRow = "\"Player \"\"Quoted\"\", Name\",TOP,\"Team, A\",handle,stream,\"Account \"\"One\"\"\","
+                + "Account Two\r\n";
+        String[] splitRowValues = { "Player \"Quoted\", Name", "TOP", "Team, A", "handle", "stream",
+                "Account \"One\"", "Account Two" };
+        String paddingRowEnd = ",MID,Team,handle,stream,Account\n";
+
+        for (int splitAt = 0; splitAt <= splitRow.length(); splitAt++) {
+            int nameLength = BUFFER_SIZE - splitAt - HEADER.length() - paddingRowEnd.length();
+            ArrayList<String[]> rows = readRows(HEADER + "x".repeat(nameLength) + paddingRowEnd + splitRow
+                    + "Last,ADC,Team,handle,stream,Account\n");
+
+            assertEquals(3, rows.size());
+            assertEquals(nameLength, rows.get(0)[0].length());
+            assertArrayEquals(splitRowValues, rows.get(1));
+            assertEquals("Last", rows.get(2)[0]);
+        }
+    }
+
+    /**
+     * Rows whose account cells are all empty or blank are skipped, and empty
+     * account cells before an account are left out.
+     */
+    @Test
+    void skipsRowsWithoutAccounts() throws IOException {
+        ArrayList<String[]> rows = readRows(HEADER
+                + "No Accounts,MID,T1,handle,stream,,,\n"
+                + "Blank Accounts,MID,T1,handle,stream, ,\"  \",\n"
+                + "Too Short,MID,T1\n"
+                + "Late Account,MID,T1,handle,stream,,,Account\n");
+
+        assertEquals(1, rows.size());
+        assertArrayEquals(new String[] { "Late Account", "MID", "T1", "handle", "stream", "Account" }, rows.get(0));
+    }
+
+    /**
+     * The rows with the same position or team share one String object for it.
+     */
+    @Test
+    void sharesPositionsAndTeams() throws IOException {
+        ArrayList<String[]> rows = readRows(HEADER
+                + "Faker,MID,T1,faker,fakerstream,Hide on bush\n"
+                + "Chovy,MID,GEN,chovy,chovystream,Chovy\n"
+                + "Zeus,TOP,T1,zeus,zeusstream,Zeus\n");
+
+        assertSame(rows.get(0)[1], rows.get(1)[1]);
+        assertSame(rows.get(0)[2], rows.get(2)[2]);
+    }
+
+    /**
+     * Writes the passed in text to a roster file and reads it with the
+     * RosterLoader.
+     *
+     * @param roster The contents of the roster file
+     * @return The rows read from the file
+     * @throws IOException If the file could not be written or read
+     */
+    private ArrayList<String[]> readRows(String roster) throws IOException {
+        File rosterFile = new File(this.rosterDirectory, "roster.csv");
+        Files.write(rosterFile.toPath(), roster.getBytes(StandardCharsets.UTF_8));
+        return this.rosterLoader.readRows(rosterFile);
+    }
+
+}
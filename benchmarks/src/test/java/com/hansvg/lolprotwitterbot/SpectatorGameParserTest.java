@@ -0,0 +1,203 @@
+/**
+ * The SpectatorGameParserTest class checks that the SpectatorGameParser reads the same game out of a spectator response as parsing it into a JSONObject does.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SpectatorGameParserTest {
+
+    // 240 bytes of UTF-8, longer than the parser's starting token
+    private static final String LONG_SUMMONER_NAME = "ｌｏｎｇ".repeat(20);
+    private static final String LONG_KEY = "unusedField".repeat(15);
+
+    // as they appear in the response body, escapes included
+    private static final String[] SUMMONER_NAMES = { "Fak\\uD83D\\uDE00er", "Plain Name", LONG_SUMMONER_NAME,
+            "Lone \\uD800 Surrogate", "Raw 😀 Emoji", "Escapes \\\"quoted\\\" \\\\ \\/ \\t",
+            "\\uD83D\\uDE00\\uD83D", "\\uDE00 Low First", "\\u00e9t\\u00E9", "Summoner Nine" };
+
+    private League league;
+
+    @TempDir
+    File rosterDirectory;
+
+    /**
+     * Creates a League with players whose accounts are in the test responses.
+     */
+    @BeforeEach
+    void createLeague() throws IOException {
+        File rosterFile = new File(this.rosterDirectory, "roster.csv");
+        try (PrintWriter writer = new PrintWriter(rosterFile, StandardCharsets.UTF_8)) {
+            writer.println("Player Name,Position,Team,Twitter Handle,Twitch Name,League Accounts,,");
+            writer.println("Emoji,MID,Team A,emojihandle,emojistream,Fak😀er,,");
+            writer.println("Plain,ADC,Team A,plainhandle,plainstream,Plain Name,,");
+            writer.println("Long,TOP,Team B,longhandle,longstream," + LONG_SUMMONER_NAME + ",,");
+            writer.println("Accents,SUPPORT,Team B,accentshandle,accentsstream,été,,");
+        }
+        this.league = new League(Logger.getAnonymousLogger(), "na1", 25);
+        assertTrue(this.league.loadPlayers(rosterFile));
+    }
+
+    /**
+     * Escaped and raw UTF-8 characters, surrogate pairs, lone surrogates, and
+     * tokens longer than the parser's buffers are read as the JSONObject reads
+     * them.
+     */
+    @Test
+    void readsTheSameGameAsTheJsonPath() throws IOException {
+        byte[] response = gameJson("").getBytes(StandardCharsets.UTF_8);
+
+        SoloQueueGame parsedGame = new SpectatorGameParser().parseGame(new ByteArrayInputStream(response),
+                this.league);
+
+        assertSameGame(jsonGame(response), parsedGame);
+        assertEquals(3, parsedGame.getBlueTeam().getPlayers().size());
+        assertEquals(1, parsedGame.getRedTeam().getPlayers().size());
+    }
+
+    /**
+     * Every part of the participants is read the same when it is split between
+     * two 8192 byte reads, with one parser reused for every response.
+     */
+    @Test
+    void readsTheSameGameAcrossBufferBoundaries() throws IOException {
+        SpectatorGameParser spectatorGameParser = new SpectatorGameParser();
+        int participantsLength = gameJson("").length();
+        for (int paddingLength = 8192 - participantsLength; paddingLength <= 8192; paddingLength++) {
+            byte[] response = gameJson("x".repeat(paddingLength)).getBytes(StandardCharsets.UTF_8);
+
+            assertSameGame(jsonGame(response),
+                    spectatorGameParser.parseGame(new ByteArrayInputStream(response), this.league));
+        }
+    }
+
+    /**
+     * The game is read the same when the body arrives a few bytes at a time.
+     */
+    @Test
+    void readsTheSameGameFromShortReads() throws IOException {
+        byte[] response = gameJson("").getBytes(StandardCharsets.UTF_8);
+
+        for (int maxReadLength = 1; maxReadLength <= 7; maxReadLength++) {
+            final int readLength = maxReadLength;
+            ByteArrayInputStream trickle = new ByteArrayInputStream(response) {
+                @Override
+                public synchronized int read(byte[] bytes, int offset, int length) {
+                    return super.read(bytes, offset, Math.min(length, readLength));
+                }
+            };
+
+            assertSameGame(jsonGame(response), new SpectatorGameParser().parseGame(trickle, this.league));
+        }
+    }
+
+    /**
+     * Each League finds its players by summoner name and gets its own summoner ids
+     * for them, without changing the participants the games share.
+     */
+    @Test
+    void keepsTheSummonerIdsOfEachLeagueApart() throws IOException {
+        League otherLeague = new League(Logger.getAnonymousLogger(), "na1", 25);
+        File rosterFile = new File(this.rosterDirectory, "other-roster.csv");
+        try (PrintWriter writer = new PrintWriter(rosterFile, StandardCharsets.UTF_8)) {
+            writer.println("Player Name,Position,Team,Twitter Handle,Twitch Name,League Accounts,,");
+            writer.println("Plain,ADC,Team C,plainhandle,plainstream,Plain Name,,");
+        }
+        assertTrue(otherLeague.loadPlayers(rosterFile));
+        this.league.setSummonerId(this.league.getPlayerFromSummonerName("na1", "Plain Name"), 0, "first-key-id");
+        otherLeague.setSummonerId(otherLeague.getPlayerFromSummonerName("na1", "Plain Name"), 0, "second-key-id");
+        byte[] response = gameJson("").getBytes(StandardCharsets.UTF_8);
+
+        List<SoloQueueGame> games = new SpectatorGameParser().parseGames(new ByteArrayInputStream(response),
+                List.of(this.league, otherLeague));
+
+        assertEquals(2, games.size());
+        assertTrue(games.get(0).getAllPlayersIds().contains("first-key-id"));
+        assertEquals(List.of("second-key-id"), games.get(1).getAllPlayersIds());
+        for (SoloQueueGame game : games) {
+            assertEquals("summoner-id-1", game.getParticipants().get(1)[1]);
+        }
+    }
+
+    /**
+     * Parses the passed in response the way the bot did before the
+     * SpectatorGameParser.
+     *
+     * @param response The body of the spectator response
+     * @return The SoloQueueGame read through a JSONObject
+     */
+    private SoloQueueGame jsonGame(byte[] response) {
+        return new SoloQueueGame(new JSONObject(new String(response, StandardCharsets.UTF_8)), this.league);
+    }
+
+    /**
+     * Checks that two SoloQueueGames hold the same game.
+     *
+     * @param expected The SoloQueueGame read through a JSONObject
+     * @param actual   The SoloQueueGame read by the SpectatorGameParser
+     */
+    private static void assertSameGame(SoloQueueGame expected, SoloQueueGame actual) {
+        assertEquals(expected.getGameId(), actual.getGameId());
+        assertEquals(expected.getGameType(), actual.getGameType());
+        assertEquals(expected.getGameStartTime(), actual.getGameStartTime());
+        assertEquals(expected.getMapId(), actual.getMapId());
+        assertEquals(expected.getGameLength(), actual.getGameLength());
+        assertEquals(expected.getPlatformId(), actual.getPlatformId());
+        assertEquals(expected.getGameMode(), actual.getGameMode());
+        assertEquals(expected.getGameQueueConfigId(), actual.getGameQueueConfigId());
+        assertEquals(expected.getParticipants().size(), actual.getParticipants().size());
+        for (int i = 0; i < expected.getParticipants().size(); i++) {
+            assertArrayEquals(expected.getParticipants().get(i), actual.getParticipants().get(i));
+        }
+        assertEquals(expected.getBlueTeam().getPlayers().keySet(), actual.getBlueTeam().getPlayers().keySet());
+        assertEquals(expected.getRedTeam().getPlayers().keySet(), actual.getRedTeam().getPlayers().keySet());
+    }
+
+    /**
+     * Builds a spectator response with the participants in SUMMONER_NAMES and the
+     * fields the parser skips.
+     *
+     * @param padding A string put in a skipped field before the participants, to
+     *                move them through the response
+     * @return The body of the spectator response
+     */
+    private static String gameJson(String padding) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"gameId\":4200000001,\"mapId\":11,\"gameMode\":\"CLASSIC\",\"gameType\":\"MATCHED_GAME\",")
+                .append("\"gameQueueConfigId\":420,\"padding\":\"").append(padding).append("\",\"")
+                .append(LONG_KEY).append("\":null,\"participants\":[");
+        for (int i = 0; i < SUMMONER_NAMES.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"teamId\":").append((i < 5) ? 100 : 200).append(",\"spell1Id\":4,\"championId\":")
+                    .append(i + 1).append(",\"summonerName\":\"").append(SUMMONER_NAMES[i])
+                    .append("\",\"bot\":false,\"summonerId\":\"summoner-id-").append(i)
+                    .append("\",\"gameCustomizationObjects\":[],")
+                    .append("\"perks\":{\"perkIds\":[8005,9111,9104],\"perkStyle\":8000,\"perkSubStyle\":8300}}");
+        }
+        json.append("],\"observers\":{\"encryptionKey\":\"nLkHkDtX6u+uVTwAzpx0ExcVrO4hqwyb\"},")
+                .append("\"platformId\":\"NA1\",\"bannedChampions\":[],\"gameStartTime\":1700000000000,")
+                .append("\"gameLength\":125}");
+        return json.toString();
+    }
+
+}
@@ -0,0 +1,162 @@
+/**
+ * The TweetedGamesJournalTest class checks that the TweetedGamesJournal brings back every tweeted game after a crash, a compaction, or both.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TweetedGamesJournalTest {
+
+    private static final int RECORD_SIZE_IN_BYTES = 3 * Long.BYTES;
+    // older than any game the TweetedGamesStore still remembers
+    private static final long EXPIRED_MILLIS_AGO = 3 * 3600000L;
+
+    private final Logger logger = Logger.getAnonymousLogger();
+
+    @TempDir
+    File journalDirectory;
+
+    /**
+     * A record cut short by a crash is dropped, and the next append starts where
+     * the last whole record ended.
+     */
+    @Test
+    void dropsATornLastRecord() throws Exception {
+        File journalFile = new File(this.journalDirectory, "tweeted-games.journal");
+        long now = System.currentTimeMillis();
+        ByteBuffer journalBuffer = ByteBuffer.allocate(2 * RECORD_SIZE_IN_BYTES + 10);
+        journalBuffer.putLong(1).putLong(101).putLong(now);
+        journalBuffer.putLong(2).putLong(102).putLong(now);
+        journalBuffer.putLong(3).putShort((short) 103);
+        Files.write(journalFile.toPath(), journalBuffer.array());
+
+        TweetedGamesJournal journal = new TweetedGamesJournal(journalFile, this.logger);
+        TweetedGamesStore tweetedGames = new TweetedGamesStore(null);
+        assertTrue(journal.replay(tweetedGames));
+        assertEquals(2, tweetedGames.size());
+        assertEquals(2 * RECORD_SIZE_IN_BYTES, journalFile.length());
+
+        journal.append(4, 104, now);
+        journal.close();
+
+        ArrayList<long[]> replayedGames = replay(journalFile).getTweetedGames();
+        assertEquals(3, replayedGames.size());
+        assertArrayEquals(new long[] { 1, 101, now }, replayedGames.get(0));
+        assertArrayEquals(new long[] { 2, 102, now }, replayedGames.get(1));
+        assertArrayEquals(new long[] { 4, 104, now }, replayedGames.get(2));
+    }
+
+    /**
+     * Compacting drops the expired games, and games appended after it are replayed
+     * along with the ones it kept.
+     */
+    @Test
+    void replaysAfterCompaction() throws Exception {
+        File journalFile = new File(this.journalDirectory, "tweeted-games.journal");
+        TweetedGamesJournal journal = new TweetedGamesJournal(journalFile, this.logger);
+        TweetedGamesStore tweetedGames = new TweetedGamesStore(journal);
+        assertTrue(journal.replay(tweetedGames));
+
+        long expiredAtMillis = System.currentTimeMillis() - EXPIRED_MILLIS_AGO;
+        for (long gameId = 1; gameId <= 5; gameId++) {
+            journal.append(gameId, 100 + gameId, expiredAtMillis);
+        }
+        tweetedGames.add(6, new JSONObject().put("id", 106));
+        tweetedGames.add(7, null);
+
+        journal.compact(tweetedGames);
+        assertEquals(2 * RECORD_SIZE_IN_BYTES, journalFile.length());
+
+        tweetedGames.add(8, new JSONObject().put("id", 108));
+        journal.close();
+
+        TweetedGamesStore replayedGames = replay(journalFile);
+        assertEquals(3, replayedGames.size());
+        ArrayList<long[]> replayedGamesInfo = replayedGames.getTweetedGames();
+        assertEquals(6, replayedGamesInfo.get(0)[0]);
+        assertEquals(106, replayedGamesInfo.get(0)[1]);
+        assertEquals(7, replayedGamesInfo.get(1)[0]);
+        assertEquals(-1, replayedGamesInfo.get(1)[1]);
+        assertEquals(8, replayedGamesInfo.get(2)[0]);
+        assertEquals(108, replayedGamesInfo.get(2)[1]);
+    }
+
+    /**
+     * No game appended while the journal is being compacted over and over is
+     * lost.
+     */
+    @Test
+    void keepsGamesAppendedWhileCompacting() throws Exception {
+        File journalFile = new File(this.journalDirectory, "tweeted-games.journal");
+        TweetedGamesJournal journal = new TweetedGamesJournal(journalFile, this.logger);
+        TweetedGamesStore tweetedGames = new TweetedGamesStore(journal);
+        assertTrue(journal.replay(tweetedGames));
+
+        long expiredAtMillis = System.currentTimeMillis() - EXPIRED_MILLIS_AGO;
+        for (long gameId = 1; gameId <= 200; gameId++) {
+            journal.append(gameId, gameId, expiredAtMillis);
+        }
+
+        AtomicBoolean appending = new AtomicBoolean(true);
+        Thread compactorThread = new Thread(() -> {
+            while (appending.get()) {
+                journal.compact(tweetedGames);
+            }
+        });
+        compactorThread.start();
+        for (long gameId = 1001; gameId <= 1500; gameId++) {
+            tweetedGames.add(gameId, new JSONObject().put("id", gameId));
+            if (gameId % 50 == 0) {
+                // lets the compactor catch up so some compactions are not skipped
+                Thread.sleep(5);
+            }
+        }
+        appending.set(false);
+        compactorThread.join();
+        journal.close();
+
+        HashSet<Long> replayedGameIds = new HashSet<>();
+        for (long[] replayedGame : replay(journalFile).getTweetedGames()) {
+            replayedGameIds.add(replayedGame[0]);
+            assertEquals(replayedGame[0], replayedGame[1]);
+        }
+        assertEquals(500, replayedGameIds.size());
+        for (long gameId = 1001; gameId <= 1500; gameId++) {
+            assertTrue(replayedGameIds.contains(gameId));
+        }
+        assertTrue(journalFile.length() < 700 * RECORD_SIZE_IN_BYTES);
+    }
+
+    /**
+     * Replays the passed in journal file into a new TweetedGamesStore and closes
+     * it again.
+     *
+     * @param journalFile The journal file to replay
+     * @return The TweetedGamesStore holding the replayed games
+     */
+    private TweetedGamesStore replay(File journalFile) {
+        TweetedGamesJournal journal = new TweetedGamesJournal(journalFile, this.logger);
+        TweetedGamesStore tweetedGames = new TweetedGamesStore(null);
+        assertTrue(journal.replay(tweetedGames));
+        journal.close();
+        return tweetedGames;
+    }
+
+}
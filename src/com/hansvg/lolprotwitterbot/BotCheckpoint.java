@@ -0,0 +1,599 @@
+/**
+ * The BotCheckpoint class writes what the bot has learned while running to a compact binary file on shutdown and periodically, and restores it on startup so the first scan after a restart is as cheap as the scans before it.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.io.UTFDataFormatException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+class BotCheckpoint {
+
+    // "LPTB", written first so a file that is not a checkpoint is not read as one
+    private final int MAGIC_NUMBER = 0x4C505442;
+    private final int FORMAT_VERSION = 2;
+
+    private File checkpointFile;
+    private long checkpointFileLength;
+    private long summonerIdExpiryMillis;
+    private SummonerIdCache summonerIdCache;
+    private ArrayList<RiotApiHandler> riotApiHandlers;
+    private ArrayList<CheckpointedLeague> leagues;
+    private ScheduledExecutorService checkpointerExecutorService;
+    private Thread shutdownHook;
+    private Logger logger;
+
+    // the summoner ids in the last checkpoint written or restored, by account, so
+    // each keeps the time it was resolved at from one checkpoint to the next
+    private HashMap<String, CheckpointedSummonerId> checkpointedSummonerIds;
+
+    // what was read from the checkpoint file, kept until it is restored
+    private HashMap<String, CheckpointedSummonerId> summonerIds;
+    private HashMap<String, String> twitchUserIds;
+    private HashMap<String, ArrayList<CheckpointedGame>> trackedGamesByLeague;
+    private HashMap<String, ArrayList<long[]>> tweetedGamesByLeague;
+    private HashMap<String, Long> scanNumbersByRegion;
+    private HashMap<String, HashMap<String, long[]>> summonerActivitiesByRegion;
+
+    /**
+     * BotCheckpoint Class Constructor.
+     *
+     * @param checkpointFile        The file the checkpoint is written to
+     * @param summonerIdExpiryHours How many hours a summoner id in the checkpoint
+     *                              can be used for after it was resolved
+     * @param summonerIdCache       The summoner id cache the summoner ids may have
+     *                              come from or null if there is none
+     * @param riotApiHandlers       The RiotApiHandler objects of each region
+     * @param logger                The Logger object to log the processes
+     */
+    protected BotCheckpoint(File checkpointFile, int summonerIdExpiryHours, SummonerIdCache summonerIdCache,
+            ArrayList<RiotApiHandler> riotApiHandlers, Logger logger) {
+        this.checkpointFile = checkpointFile;
+        this.summonerIdExpiryMillis = 3600000L * summonerIdExpiryHours;
+        this.summonerIdCache = summonerIdCache;
+        this.riotApiHandlers = riotApiHandlers;
+        this.leagues = new ArrayList<>();
+        this.checkpointedSummonerIds = new HashMap<>();
+        this.logger = logger;
+        clearRestoredState();
+    }
+
+    /**
+     * Adds a League whose state is written to the checkpoint.
+     *
+     * @param leagueName   The name of the League or null if the bot runs one
+     *                     League without a name
+     * @param league       The League
+     * @param tweetedGames The TweetedGamesStore of the League
+     */
+    protected void addLeague(String leagueName, League league, TweetedGamesStore tweetedGames) {
+        this.leagues.add(new CheckpointedLeague((leagueName != null) ? leagueName : "", league, tweetedGames));
+    }
+
+    /**
+     * Reads the checkpoint file. A checkpoint file that does not exist yet is
+     * treated as an empty checkpoint, and one that is cut off, corrupt, or not a
+     * checkpoint is ignored.
+     *
+     * @return True if the checkpoint was read or could be ignored and false if the
+     *         checkpoint file could not be read
+     */
+    protected synchronized boolean load() {
+        if (!this.checkpointFile.exists()) {
+            this.logger.info("No checkpoint found at \"" + this.checkpointFile.getAbsolutePath() + "\"");
+            return true;
+        }
+        this.checkpointFileLength = this.checkpointFile.length();
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(this.checkpointFile)))) {
+            if (input.readInt() != MAGIC_NUMBER || input.readInt() != FORMAT_VERSION) {
+                this.logger.warning("Checkpoint could not be read. Starting without it");
+                return true;
+            }
+
+            int summonerIdCount = readCount(input);
+            for (int i = 0; i < summonerIdCount; i++) {
+                this.summonerIds.put(input.readUTF(), new CheckpointedSummonerId(input.readUTF(), input.readLong()));
+            }
+            int twitchUserIdCount = readCount(input);
+            for (int i = 0; i < twitchUserIdCount; i++) {
+                this.twitchUserIds.put(input.readUTF(), input.readUTF());
+            }
+
+            int leagueCount = readCount(input);
+            for (int leagueIndex = 0; leagueIndex < leagueCount; leagueIndex++) {
+                String leagueName = input.readUTF();
+                ArrayList<CheckpointedGame> trackedGames = new ArrayList<>();
+                int trackedGameCount = readCount(input);
+                for (int i = 0; i < trackedGameCount; i++) {
+                    trackedGames.add(readGame(input));
+                }
+                ArrayList<long[]> tweetedGames = new ArrayList<>();
+                int tweetedGameCount = readCount(input);
+                for (int i = 0; i < tweetedGameCount; i++) {
+                    tweetedGames.add(new long[] { input.readLong(), input.readLong(), input.readLong() });
+                }
+                this.trackedGamesByLeague.put(leagueName, trackedGames);
+                this.tweetedGamesByLeague.put(leagueName, tweetedGames);
+            }
+
+            int regionCount = readCount(input);
+            for (int regionIndex = 0; regionIndex < regionCount; regionIndex++) {
+                String region = input.readUTF();
+                this.scanNumbersByRegion.put(region, input.readLong());
+                HashMap<String, long[]> summonerActivities = new HashMap<>();
+                int summonerActivityCount = readCount(input);
+                for (int i = 0; i < summonerActivityCount; i++) {
+                    summonerActivities.put(input.readUTF(),
+                            new long[] { input.readLong(), input.readInt(), input.readLong() });
+                }
+                this.summonerActivitiesByRegion.put(region, summonerActivities);
+            }
+
+            this.logger.info("Checkpoint loaded with " + this.summonerIds.size() + " summoner ids");
+            return true;
+        } catch (EOFException | UTFDataFormatException | StreamCorruptedException | RuntimeException e) {
+            // a corrupt checkpoint is only a slower startup, so it does not stop the bot
+            this.logger.warning("Checkpoint could not be read. Starting without it");
+            clearRestoredState();
+            return true;
+        } catch (IOException e) {
+            this.logger.severe("IOException");
+            clearRestoredState();
+            return false;
+        }
+    }
+
+    /**
+     * Gives the Players of each League the summoner ids and twitch user ids from
+     * the checkpoint, so they do not have to be loaded from the Apis again. Called
+     * before the ids are loaded, which then only loads the ids that are missing.
+     * Summoner ids are not restored if they were resolved longer ago than the
+     * summoner id expiry, or if they were resolved with a different api key than
+     * the one the account is assigned to now.
+     */
+    protected synchronized void restoreIds() {
+        long now = System.currentTimeMillis();
+        for (RiotApiHandler riotApiHandler : this.riotApiHandlers) {
+            for (CheckpointedLeague checkpointedLeague : this.leagues) {
+                for (Player player : checkpointedLeague.league.getPlayers()) {
+                    for (int summonerIndex = 0; summonerIndex < player.getSummonerNames().length; summonerIndex++) {
+                        if (player.getSummonerIds()[summonerIndex] != null
+                                || !riotApiHandler.isInRegion(player, summonerIndex)) {
+                            continue;
+                        }
+                        String accountKey = getAccountKey(riotApiHandler, player.getSummonerNames()[summonerIndex]);
+                        CheckpointedSummonerId summonerId = this.summonerIds.get(accountKey);
+                        if (summonerId != null && now - summonerId.resolvedAtMillis < this.summonerIdExpiryMillis) {
+                            checkpointedLeague.league.setSummonerId(player, summonerIndex, summonerId.summonerId);
+                            // only the restored ids keep their time, as an expired id resolved again
+                            // is new even if Riot Games gives back the same id
+                            this.checkpointedSummonerIds.put(accountKey, summonerId);
+                        }
+                    }
+                }
+            }
+        }
+
+        for (CheckpointedLeague checkpointedLeague : this.leagues) {
+            for (Player player : checkpointedLeague.league.getPlayers()) {
+                if (player.getTwitchName() != null && player.getTwitchUserId() == null
+                        && this.twitchUserIds.containsKey(player.getTwitchName())) {
+                    checkpointedLeague.league.setTwitchUserId(player, this.twitchUserIds.get(player.getTwitchName()));
+                }
+            }
+        }
+        this.summonerIds.clear();
+        this.twitchUserIds.clear();
+    }
+
+    /**
+     * Gives each League back the games that were going on and the games that were
+     * tweeted, and each region back how active its summoner ids were. Called once
+     * the ids are loaded, as the games are rebuilt from the Players in them. Games
+     * that are expected to have ended are not restored.
+     */
+    protected synchronized void restoreGames() {
+        long now = System.currentTimeMillis();
+        int restoredGames = 0;
+        for (CheckpointedLeague checkpointedLeague : this.leagues) {
+            ArrayList<CheckpointedGame> trackedGames = this.trackedGamesByLeague.get(checkpointedLeague.name);
+            if (trackedGames != null) {
+                // restored in the order they are expected to end rather than the order they were written
+                trackedGames.sort(Comparator.comparingLong(trackedGame -> trackedGame.estimatedEndMillis));
+                for (CheckpointedGame trackedGame : trackedGames) {
+                    if (trackedGame.estimatedEndMillis > now) {
+                        checkpointedLeague.league.restoreActiveSoloQueueGame(
+                                new SoloQueueGame(trackedGame.gameId, trackedGame.gameType, trackedGame.gameStartTime,
+                                        trackedGame.mapId, trackedGame.gameLength, trackedGame.platformId,
+                                        trackedGame.gameMode, trackedGame.gameQueueConfigId,
+                                        trackedGame.participants, checkpointedLeague.league),
+                                trackedGame.estimatedEndMillis);
+                        restoredGames++;
+                    }
+                }
+            }
+            ArrayList<long[]> tweetedGames = this.tweetedGamesByLeague.get(checkpointedLeague.name);
+            if (tweetedGames != null) {
+                checkpointedLeague.tweetedGames.restore(tweetedGames);
+            }
+        }
+
+        for (RiotApiHandler riotApiHandler : this.riotApiHandlers) {
+            HashMap<String, long[]> summonerActivities = this.summonerActivitiesByRegion
+                    .get(riotApiHandler.getRegion());
+            if (summonerActivities == null) {
+                continue;
+            }
+            long scanNumber = this.scanNumbersByRegion.get(riotApiHandler.getRegion());
+            for (Entry<String, long[]> entry : summonerActivities.entrySet()) {
+                riotApiHandler.getActivityScheduler().restoreSummonerActivity(scanNumber, entry.getKey(),
+                        entry.getValue()[0], (int) entry.getValue()[1], entry.getValue()[2]);
+            }
+        }
+
+        // LOG
+        this.logger.info(restoredGames + " active games restored from the checkpoint");
+        clearRestoredState();
+    }
+
+    /**
+     * Starts writing the checkpoint in the background every intervalInMinutes
+     * minutes, if intervalInMinutes is positive, and when the JVM shuts down.
+     *
+     * @param intervalInMinutes How often the checkpoint is written in minutes or 0
+     *                          or a negative value to only write it on shutdown
+     */
+    protected void start(int intervalInMinutes) {
+        if (intervalInMinutes > 0) {
+            this.checkpointerExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread checkpointerThread = new Thread(runnable, "Checkpointer");
+                checkpointerThread.setDaemon(true);
+                return checkpointerThread;
+            });
+            this.checkpointerExecutorService.scheduleWithFixedDelay(this::write, intervalInMinutes,
+                    intervalInMinutes, TimeUnit.MINUTES);
+        }
+        this.shutdownHook = new Thread(this::write, "CheckpointShutdownHook");
+        Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+    }
+
+    /**
+     * Stops writing the checkpoint in the background and on shutdown, and writes
+     * it one last time. Nothing is written if the checkpoint was never started, so
+     * a bot that failed to start does not overwrite the last checkpoint.
+     */
+    protected void stop() {
+        if (this.checkpointerExecutorService != null) {
+            this.checkpointerExecutorService.shutdownNow();
+        }
+        if (this.shutdownHook == null) {
+            return;
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(this.shutdownHook);
+        } catch (IllegalStateException e) {
+            // the JVM is already shutting down and the hook writes the checkpoint
+            return;
+        }
+        this.shutdownHook = null;
+        write();
+    }
+
+    /**
+     * Writes the checkpoint. The checkpoint is written to a temporary file first
+     * and moved over the old one so a crash while writing does not corrupt it.
+     *
+     * @return True if the checkpoint was written and false otherwise
+     */
+    protected synchronized boolean write() {
+        try {
+            File temporaryFile = new File(this.checkpointFile.getAbsolutePath() + ".tmp");
+            int summonerIdCount;
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+                output.writeInt(MAGIC_NUMBER);
+                output.writeInt(FORMAT_VERSION);
+
+                long now = System.currentTimeMillis();
+                LinkedHashMap<String, CheckpointedSummonerId> summonerIds = new LinkedHashMap<>();
+                LinkedHashMap<String, String> twitchUserIds = new LinkedHashMap<>();
+                for (CheckpointedLeague checkpointedLeague : this.leagues) {
+                    for (Player player : checkpointedLeague.league.getPlayers()) {
+                        String[] playerSummonerIds = player.getSummonerIds();
+                        for (int summonerIndex = 0; summonerIndex < playerSummonerIds.length; summonerIndex++) {
+                            if (playerSummonerIds[summonerIndex] == null) {
+                                continue;
+                            }
+                            for (RiotApiHandler riotApiHandler : this.riotApiHandlers) {
+                                if (riotApiHandler.isInRegion(player, summonerIndex)) {
+                                    String accountKey = getAccountKey(riotApiHandler,
+                                            player.getSummonerNames()[summonerIndex]);
+                                    summonerIds.put(accountKey, getCheckpointedSummonerId(riotApiHandler, accountKey,
+                                            player.getSummonerNames()[summonerIndex],
+                                            playerSummonerIds[summonerIndex], now));
+                                }
+                            }
+                        }
+                        if (player.getTwitchName() != null && player.getTwitchUserId() != null) {
+                            twitchUserIds.put(player.getTwitchName(), player.getTwitchUserId());
+                        }
+                    }
+                }
+                summonerIdCount = summonerIds.size();
+                output.writeInt(summonerIds.size());
+                for (Entry<String, CheckpointedSummonerId> entry : summonerIds.entrySet()) {
+                    output.writeUTF(entry.getKey());
+                    output.writeUTF(entry.getValue().summonerId);
+                    output.writeLong(entry.getValue().resolvedAtMillis);
+                }
+                // accounts no longer tracked are dropped from the next checkpoint
+                this.checkpointedSummonerIds = new HashMap<>(summonerIds);
+                writeStrings(output, twitchUserIds);
+
+                output.writeInt(this.leagues.size());
+                for (CheckpointedLeague checkpointedLeague : this.leagues) {
+                    output.writeUTF(checkpointedLeague.name);
+                    LinkedHashMap<SoloQueueGame, Long> trackedGames = checkpointedLeague.league.getGameTracker()
+                            .getTrackedGames();
+                    output.writeInt(trackedGames.size());
+                    for (Entry<SoloQueueGame, Long> entry : trackedGames.entrySet()) {
+                        writeGame(output, entry.getKey(), entry.getValue());
+                    }
+                    ArrayList<long[]> tweetedGames = checkpointedLeague.tweetedGames.getTweetedGames();
+                    output.writeInt(tweetedGames.size());
+                    for (long[] tweetedGame : tweetedGames) {
+                        output.writeLong(tweetedGame[0]);
+                        output.writeLong(tweetedGame[1]);
+                        output.writeLong(tweetedGame[2]);
+                    }
+                }
+
+                output.writeInt(this.riotApiHandlers.size());
+                for (RiotApiHandler riotApiHandler : this.riotApiHandlers) {
+                    SummonerActivityScheduler activityScheduler = riotApiHandler.getActivityScheduler();
+                    output.writeUTF(riotApiHandler.getRegion());
+                    output.writeLong(activityScheduler.getScanNumber());
+                    HashMap<String, long[]> summonerActivities = activityScheduler.getSummonerActivities();
+                    output.writeInt(summonerActivities.size());
+                    for (Entry<String, long[]> entry : summonerActivities.entrySet()) {
+                        output.writeUTF(entry.getKey());
+                        output.writeLong(entry.getValue()[0]);
+                        output.writeInt((int) entry.getValue()[1]);
+                        output.writeLong(entry.getValue()[2]);
+                    }
+                }
+            }
+            Files.move(temporaryFile.toPath(), this.checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            this.logger.info("Checkpoint written with " + summonerIdCount + " summoner ids");
+            return true;
+        } catch (IOException e) {
+            this.logger.severe("IOException");
+            return false;
+        }
+    }
+
+    /**
+     * Gets a summoner id to write to the checkpoint with the time it was resolved
+     * at. A summoner id that was in the last checkpoint keeps its time, one from
+     * the summoner id cache gets the time it was cached at, and any other was
+     * resolved since the last checkpoint and gets the current time.
+     *
+     * @param riotApiHandler The RiotApiHandler of the region the account is on
+     * @param accountKey     The key for the account
+     * @param summonerName   The summoner name of the account
+     * @param summonerId     The summoner id of the account
+     * @param now            The current time in milliseconds
+     * @return The summoner id and when it was resolved
+     */
+    private CheckpointedSummonerId getCheckpointedSummonerId(RiotApiHandler riotApiHandler, String accountKey,
+            String summonerName, String summonerId, long now) {
+        CheckpointedSummonerId checkpointedSummonerId = this.checkpointedSummonerIds.get(accountKey);
+        if (checkpointedSummonerId != null && checkpointedSummonerId.summonerId.equals(summonerId)) {
+            return checkpointedSummonerId;
+        }
+        long resolvedAtMillis = -1;
+        if (this.summonerIdCache != null) {
+            resolvedAtMillis = this.summonerIdCache.getResolvedAtMillis(riotApiHandler.getRegion(),
+                    riotApiHandler.getApiKeyFingerprint(summonerName), summonerName, summonerId);
+        }
+        return new CheckpointedSummonerId(summonerId, (resolvedAtMillis >= 0) ? resolvedAtMillis : now);
+    }
+
+    /**
+     * Writes a tracked game and when it is expected to end.
+     *
+     * @param output             The stream to write to
+     * @param game               The game to write
+     * @param estimatedEndMillis When the game is expected to end in milliseconds
+     * @throws IOException If an input or output exception occurred
+     */
+    private void writeGame(DataOutputStream output, SoloQueueGame game, long estimatedEndMillis) throws IOException {
+        output.writeLong(game.getGameId());
+        output.writeUTF(game.getGameType());
+        output.writeLong(game.getGameStartTime());
+        output.writeLong(game.getMapId());
+        output.writeLong(game.getGameLength());
+        output.writeUTF(game.getPlatformId());
+        output.writeUTF(game.getGameMode());
+        output.writeBoolean(game.getGameQueueConfigId() != null);
+        if (game.getGameQueueConfigId() != null) {
+            output.writeLong(game.getGameQueueConfigId());
+        }
+        output.writeLong(estimatedEndMillis);
+        output.writeInt(game.getParticipants().size());
+        for (String[] participant : game.getParticipants()) {
+            output.writeInt(participant.length);
+            for (String participantInfo : participant) {
+                output.writeBoolean(participantInfo != null);
+                if (participantInfo != null) {
+                    output.writeUTF(participantInfo);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the amount of entries that follow. Every entry takes at least one
+     * byte, so an amount that is negative or larger than the checkpoint file is
+     * corrupt and is not used to allocate anything.
+     *
+     * @param input The stream the checkpoint is read from
+     * @return The amount of entries that follow
+     * @throws IOException If the amount could not be read or is corrupt
+     */
+    private int readCount(DataInputStream input) throws IOException {
+        int count = input.readInt();
+        if (count < 0 || count > this.checkpointFileLength) {
+            throw new StreamCorruptedException("Invalid count " + count + " in checkpoint");
+        }
+        return count;
+    }
+
+    /**
+     * Reads a tracked game written by writeGame.
+     *
+     * @param input The stream to read from
+     * @return The game that was read
+     * @throws IOException If an input or output exception occurred
+     */
+    private CheckpointedGame readGame(DataInputStream input) throws IOException {
+        CheckpointedGame game = new CheckpointedGame();
+        game.gameId = input.readLong();
+        game.gameType = input.readUTF();
+        game.gameStartTime = input.readLong();
+        game.mapId = input.readLong();
+        game.gameLength = input.readLong();
+        game.platformId = input.readUTF();
+        game.gameMode = input.readUTF();
+        if (input.readBoolean()) {
+            game.gameQueueConfigId = input.readLong();
+        }
+        game.estimatedEndMillis = input.readLong();
+        int participantCount = readCount(input);
+        game.participants = new ArrayList<>(participantCount);
+        for (int i = 0; i < participantCount; i++) {
+            String[] participant = new String[readCount(input)];
+            for (int infoIndex = 0; infoIndex < participant.length; infoIndex++) {
+                if (input.readBoolean()) {
+                    participant[infoIndex] = input.readUTF();
+                }
+            }
+            game.participants.add(participant);
+        }
+        return game;
+    }
+
+    /**
+     * Writes a map of strings preceded by its size.
+     *
+     * @param output  The stream to write to
+     * @param strings The map to write
+     * @throws IOException If an input or output exception occurred
+     */
+    private void writeStrings(DataOutputStream output, LinkedHashMap<String, String> strings) throws IOException {
+        output.writeInt(strings.size());
+        for (Entry<String, String> entry : strings.entrySet()) {
+            output.writeUTF(entry.getKey());
+            output.writeUTF(entry.getValue());
+        }
+    }
+
+    /**
+     * Forgets what was read from the checkpoint file.
+     */
+    private void clearRestoredState() {
+        this.summonerIds = new HashMap<>();
+        this.twitchUserIds = new HashMap<>();
+        this.trackedGamesByLeague = new HashMap<>();
+        this.tweetedGamesByLeague = new HashMap<>();
+        this.scanNumbersByRegion = new HashMap<>();
+        this.summonerActivitiesByRegion = new HashMap<>();
+    }
+
+    /**
+     * Gets the key used in the checkpoint for an account, the same key the
+     * summoner id cache uses. It holds the fingerprint of the api key the account
+     * is assigned to, so summoner ids resolved with a different api key are not
+     * restored.
+     *
+     * @param riotApiHandler The RiotApiHandler of the region the account is on
+     * @param summonerName   The summoner name of the account
+     * @return The key for the account
+     */
+    private String getAccountKey(RiotApiHandler riotApiHandler, String summonerName) {
+        return SummonerIdCache.getKey(riotApiHandler.getRegion(), riotApiHandler.getApiKeyFingerprint(summonerName),
+                summonerName);
+    }
+
+    /**
+     * A League whose state is written to the checkpoint.
+     */
+    private static class CheckpointedLeague {
+
+        private String name;
+        private League league;
+        private TweetedGamesStore tweetedGames;
+
+        private CheckpointedLeague(String name, League league, TweetedGamesStore tweetedGames) {
+            this.name = name;
+            this.league = league;
+            this.tweetedGames = tweetedGames;
+        }
+    }
+
+    /**
+     * A summoner id in the checkpoint and when it was resolved.
+     */
+    private static class CheckpointedSummonerId {
+
+        private String summonerId;
+        private long resolvedAtMillis;
+
+        private CheckpointedSummonerId(String summonerId, long resolvedAtMillis) {
+            this.summonerId = summonerId;
+            this.resolvedAtMillis = resolvedAtMillis;
+        }
+    }
+
+    /**
+     * A game that was being tracked when the checkpoint was written.
+     */
+    private static class CheckpointedGame {
+
+        private long gameId;
+        private String gameType;
+        private long gameStartTime;
+        private long mapId;
+        private long gameLength;
+        private String platformId;
+        private String gameMode;
+        private Long gameQueueConfigId;
+        private long estimatedEndMillis;
+        private ArrayList<String[]> participants;
+    }
+
+}
@@ -0,0 +1,249 @@
+/**
+ * The BotMetrics class counts the calls made to every upstream Api and how long they took, along with how long each scan cycle took and what it found, so they can be read in the Prometheus text format.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+class BotMetrics {
+
+    protected static final String RIOT_SUMMONER = "riot_summoner";
+    protected static final String RIOT_SPECTATOR = "riot_spectator";
+    protected static final String TWITCH_TOKEN = "twitch_token";
+    protected static final String TWITCH_USERS = "twitch_users";
+    protected static final String TWITCH_STREAMS = "twitch_streams";
+    protected static final String TWITTER_UPDATE = "twitter_update";
+
+    // upper bounds of the histogram buckets in seconds
+    private static final double[] REQUEST_BUCKETS = { 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10 };
+    private static final double[] CYCLE_BUCKETS = { 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 120, 300 };
+
+    private LinkedHashMap<String, EndpointMetrics> endpoints;
+    private Histogram cycleDurations;
+    private LongAdder successfulCycles;
+    private LongAdder failedCycles;
+    private LongAdder gamesFound;
+    private LongAdder tweetsSent;
+    private AtomicLong activeGames;
+
+    /**
+     * BotMetrics Class Constructor. Every endpoint is registered up front so they
+     * are all shown, even before they are called.
+     */
+    protected BotMetrics() {
+        // not changed after this, so it can be read from any thread without locking
+        this.endpoints = new LinkedHashMap<>();
+        for (String endpoint : new String[] { RIOT_SUMMONER, RIOT_SPECTATOR, TWITCH_TOKEN, TWITCH_USERS,
+                TWITCH_STREAMS, TWITTER_UPDATE }) {
+            this.endpoints.put(endpoint, new EndpointMetrics());
+        }
+        this.cycleDurations = new Histogram(CYCLE_BUCKETS);
+        this.successfulCycles = new LongAdder();
+        this.failedCycles = new LongAdder();
+        this.gamesFound = new LongAdder();
+        this.tweetsSent = new LongAdder();
+        this.activeGames = new AtomicLong();
+    }
+
+    /**
+     * Records a call to one of the upstream Apis.
+     *
+     * @param endpoint      The name of the endpoint that was called
+     * @param statusCode    The status code of the response or -1 if no response
+     *                      was received
+     * @param durationNanos How long the call took in nanoseconds
+     */
+    protected void recordRequest(String endpoint, int statusCode, long durationNanos) {
+        EndpointMetrics endpointMetrics = this.endpoints.get(endpoint);
+        if (endpointMetrics == null) {
+            return;
+        }
+        // status codes are counted in a fixed array so recording does not allocate
+        endpointMetrics.statusCodes.incrementAndGet((statusCode >= 100 && statusCode < 600) ? statusCode : 0);
+        if (statusCode == 429) {
+            endpointMetrics.rateLimited.increment();
+        }
+        endpointMetrics.durations.observe(durationNanos);
+    }
+
+    /**
+     * Records that a call to one of the upstream Apis is being retried.
+     *
+     * @param endpoint The name of the endpoint being retried
+     */
+    protected void recordRetry(String endpoint) {
+        EndpointMetrics endpointMetrics = this.endpoints.get(endpoint);
+        if (endpointMetrics != null) {
+            endpointMetrics.retries.increment();
+        }
+    }
+
+    /**
+     * Records a finished scan cycle.
+     *
+     * @param durationNanos How long the cycle took in nanoseconds
+     * @param successful    True if the active games were loaded successfully
+     * @param gamesFound    The amount of active games found
+     * @param tweetsSent    The amount of tweets posted
+     */
+    protected void recordCycle(long durationNanos, boolean successful, int gamesFound, int tweetsSent) {
+        this.cycleDurations.observe(durationNanos);
+        if (successful) {
+            this.successfulCycles.increment();
+            this.activeGames.set(gamesFound);
+        } else {
+            this.failedCycles.increment();
+        }
+        this.gamesFound.add(gamesFound);
+        this.tweetsSent.add(tweetsSent);
+    }
+
+    /**
+     * Writes all of the metrics in the Prometheus text exposition format.
+     *
+     * @return The metrics as Prometheus text
+     */
+    protected String toPrometheusText() {
+        StringBuilder text = new StringBuilder();
+
+        text.append("# HELP lolbot_upstream_requests_total Calls made to the upstream Apis by status code.\n");
+        text.append("# TYPE lolbot_upstream_requests_total counter\n");
+        for (String endpoint : this.endpoints.keySet()) {
+            AtomicLongArray statusCodes = this.endpoints.get(endpoint).statusCodes;
+            for (int statusCode = 0; statusCode < statusCodes.length(); statusCode++) {
+                long count = statusCodes.get(statusCode);
+                if (count > 0) {
+                    text.append("lolbot_upstream_requests_total{endpoint=\"").append(endpoint)
+                            .append("\",status=\"").append((statusCode == 0) ? "error" : Integer.toString(statusCode))
+                            .append("\"} ").append(count).append('\n');
+                }
+            }
+        }
+
+        text.append("# HELP lolbot_upstream_rate_limited_total Calls to the upstream Apis answered with a 429.\n");
+        text.append("# TYPE lolbot_upstream_rate_limited_total counter\n");
+        for (String endpoint : this.endpoints.keySet()) {
+            text.append("lolbot_upstream_rate_limited_total{endpoint=\"").append(endpoint).append("\"} ")
+                    .append(this.endpoints.get(endpoint).rateLimited.sum()).append('\n');
+        }
+
+        text.append("# HELP lolbot_upstream_retries_total Calls to the upstream Apis that were retried.\n");
+        text.append("# TYPE lolbot_upstream_retries_total counter\n");
+        for (String endpoint : this.endpoints.keySet()) {
+            text.append("lolbot_upstream_retries_total{endpoint=\"").append(endpoint).append("\"} ")
+                    .append(this.endpoints.get(endpoint).retries.sum()).append('\n');
+        }
+
+        text.append("# HELP lolbot_upstream_request_duration_seconds How long calls to the upstream Apis took.\n");
+        text.append("# TYPE lolbot_upstream_request_duration_seconds histogram\n");
+        for (String endpoint : this.endpoints.keySet()) {
+            this.endpoints.get(endpoint).durations.write(text, "lolbot_upstream_request_duration_seconds",
+                    "endpoint=\"" + endpoint + "\",");
+        }
+
+        text.append("# HELP lolbot_scan_cycle_duration_seconds How long each scan for active games took.\n");
+        text.append("# TYPE lolbot_scan_cycle_duration_seconds histogram\n");
+        this.cycleDurations.write(text, "lolbot_scan_cycle_duration_seconds", "");
+
+        text.append("# HELP lolbot_scan_cycles_total Scans for active games by result.\n");
+        text.append("# TYPE lolbot_scan_cycles_total counter\n");
+        text.append("lolbot_scan_cycles_total{result=\"success\"} ").append(this.successfulCycles.sum()).append('\n');
+        text.append("lolbot_scan_cycles_total{result=\"failure\"} ").append(this.failedCycles.sum()).append('\n');
+
+        text.append("# HELP lolbot_games_found_total Active games found over all scans.\n");
+        text.append("# TYPE lolbot_games_found_total counter\n");
+        text.append("lolbot_games_found_total ").append(this.gamesFound.sum()).append('\n');
+
+        text.append("# HELP lolbot_active_games Active games found by the last successful scan.\n");
+        text.append("# TYPE lolbot_active_games gauge\n");
+        text.append("lolbot_active_games ").append(this.activeGames.get()).append('\n');
+
+        text.append("# HELP lolbot_tweets_sent_total Tweets posted about games.\n");
+        text.append("# TYPE lolbot_tweets_sent_total counter\n");
+        text.append("lolbot_tweets_sent_total ").append(this.tweetsSent.sum()).append('\n');
+
+        return text.toString();
+    }
+
+    /**
+     * The counters and call durations of one upstream endpoint.
+     */
+    private static class EndpointMetrics {
+
+        // index 0 counts the calls that got no response
+        private AtomicLongArray statusCodes = new AtomicLongArray(600);
+        private LongAdder rateLimited = new LongAdder();
+        private LongAdder retries = new LongAdder();
+        private Histogram durations = new Histogram(REQUEST_BUCKETS);
+    }
+
+    /**
+     * A histogram with fixed buckets that can be added to from any thread without
+     * locking.
+     */
+    private static class Histogram {
+
+        private double[] bucketBounds;
+        private AtomicLongArray bucketCounts;
+        private LongAdder sumNanos;
+
+        private Histogram(double[] bucketBounds) {
+            this.bucketBounds = bucketBounds;
+            // the last bucket is +Inf
+            this.bucketCounts = new AtomicLongArray(bucketBounds.length + 1);
+            this.sumNanos = new LongAdder();
+        }
+
+        /**
+         * Adds a duration to the histogram.
+         *
+         * @param durationNanos The duration in nanoseconds
+         */
+        private void observe(long durationNanos) {
+            double durationSeconds = durationNanos / 1e9;
+            int bucket = 0;
+            while (bucket < this.bucketBounds.length && durationSeconds > this.bucketBounds[bucket]) {
+                bucket++;
+            }
+            this.bucketCounts.incrementAndGet(bucket);
+            this.sumNanos.add(durationNanos);
+        }
+
+        /**
+         * Writes the histogram's buckets, sum and count with cumulative bucket counts
+         * like Prometheus expects.
+         *
+         * @param text   The StringBuilder to write to
+         * @param name   The name of the metric
+         * @param labels The labels put in front of the le label, each followed by a
+         *               comma
+         */
+        private void write(StringBuilder text, String name, String labels) {
+            long cumulativeCount = 0;
+            for (int bucket = 0; bucket < this.bucketCounts.length(); bucket++) {
+                cumulativeCount += this.bucketCounts.get(bucket);
+                text.append(name).append("_bucket{").append(labels).append("le=\"")
+                        .append((bucket < this.bucketBounds.length) ? Double.toString(this.bucketBounds[bucket])
+                                : "+Inf")
+                        .append("\"} ").append(cumulativeCount).append('\n');
+            }
+            text.append(name).append("_sum");
+            if (!labels.isEmpty()) {
+                text.append('{').append(labels, 0, labels.length() - 1).append('}');
+            }
+            text.append(' ').append(this.sumNanos.sum() / 1e9).append('\n');
+            text.append(name).append("_count");
+            if (!labels.isEmpty()) {
+                text.append('{').append(labels, 0, labels.length() - 1).append('}');
+            }
+            text.append(' ').append(cumulativeCount).append('\n');
+        }
+    }
+
+}
@@ -0,0 +1,261 @@
+/**
+ * The GamePipeline class enriches and scores SoloQueueGames on background threads connected by bounded queues and queues the tweets about them in a TweetQueue, so a game can be tweeted about while the rest of the summoner ids are still being scanned.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+class GamePipeline {
+
+    private LoLProTwitterBot lolProTwitterBot;
+    private League league;
+    private TwitchApiHandler twitchApiHandler;
+    private LiveStreamerCache liveStreamerCache;
+    private TweetQueue tweetQueue;
+    private TweetedGamesStore tweetedGames;
+    private Logger logger;
+
+    private ArrayBlockingQueue<SoloQueueGame> gamesToEnrich;
+    private ArrayBlockingQueue<EnrichedGame> gamesToScore;
+    private ExecutorService stageExecutorService;
+
+    private HashSet<Long> gameIdsSubmittedThisCycle;
+    private int gamesInPipeline;
+
+    private int MINIMUM_GAMESCORE_TO_TWEET;
+
+    /**
+     * GamePipeline Class Constructor.
+     *
+     * @param lolProTwitterBot  The LoLProTwitterBot that scores the games and
+     *                          writes the tweets
+     * @param league            The League the games' players are a part of
+     * @param twitchApiHandler  The TwitchApiHandler used to load the streams of
+     *                          the players in the games
+     * @param liveStreamerCache The LiveStreamerCache to read the live streamers
+     *                          from or null if the streams are loaded for each
+     *                          batch of games
+     * @param tweetQueue        The TweetQueue the tweets are posted from
+     * @param tweetedGames      The games that have already been tweeted about
+     * @param minimumGameScore  The lowest gamescore a game is tweeted about with
+     * @param queueCapacity     How many games can wait between two stages before
+     *                          the stage in front has to wait
+     * @param logger            The Logger object to log the processes
+     */
+    protected GamePipeline(LoLProTwitterBot lolProTwitterBot, League league, TwitchApiHandler twitchApiHandler,
+            LiveStreamerCache liveStreamerCache, TweetQueue tweetQueue, TweetedGamesStore tweetedGames,
+            int minimumGameScore, int queueCapacity, Logger logger) {
+        this.lolProTwitterBot = lolProTwitterBot;
+        this.league = league;
+        this.twitchApiHandler = twitchApiHandler;
+        this.liveStreamerCache = liveStreamerCache;
+        this.tweetQueue = tweetQueue;
+        this.tweetedGames = tweetedGames;
+        this.logger = logger;
+        this.MINIMUM_GAMESCORE_TO_TWEET = minimumGameScore;
+
+        this.gamesToEnrich = new ArrayBlockingQueue<>(queueCapacity);
+        this.gamesToScore = new ArrayBlockingQueue<>(queueCapacity);
+        this.gameIdsSubmittedThisCycle = new HashSet<>();
+    }
+
+    /**
+     * Getter for the League the games' players are a part of.
+     *
+     * @return The League of this GamePipeline
+     */
+    protected League getLeague() {
+        return this.league;
+    }
+
+    /**
+     * Starts a thread for each of the enrich and score stages.
+     */
+    protected void start() {
+        this.stageExecutorService = Executors.newFixedThreadPool(2, runnable -> {
+            Thread stageThread = new Thread(runnable, "GamePipeline");
+            stageThread.setDaemon(true);
+            return stageThread;
+        });
+        this.stageExecutorService.execute(this::runEnrichStage);
+        this.stageExecutorService.execute(this::runScoreStage);
+    }
+
+    /**
+     * Stops the stage threads. Games still in the pipeline are dropped.
+     */
+    protected void stop() {
+        if (this.stageExecutorService != null) {
+            this.stageExecutorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts a new scan cycle so every game can be submitted once again.
+     */
+    protected synchronized void beginCycle() {
+        this.gameIdsSubmittedThisCycle.clear();
+    }
+
+    /**
+     * Adds a game to the pipeline unless it was already submitted this cycle.
+     * Waits if the first stage is full.
+     *
+     * @param game The game to enrich, score, and possibly queue a tweet about
+     * @throws InterruptedException If the thread was interrupted while waiting for
+     *                              room in the pipeline
+     */
+    protected void submit(SoloQueueGame game) throws InterruptedException {
+        synchronized (this) {
+            if (!this.gameIdsSubmittedThisCycle.add(game.getGameId())) {
+                return;
+            }
+            this.gamesInPipeline++;
+        }
+        try {
+            this.gamesToEnrich.put(game);
+        } catch (InterruptedException e) {
+            gamesLeftPipeline(1);
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until every game submitted has been through the pipeline.
+     *
+     * @throws InterruptedException If the thread was interrupted while waiting
+     */
+    protected synchronized void awaitIdle() throws InterruptedException {
+        while (this.gamesInPipeline > 0) {
+            wait();
+        }
+    }
+
+    /**
+     * The enrich stage. Takes every game waiting so the streams of all their
+     * players can be loaded in one batch, then passes each game on with the
+     * streamers on each team.
+     */
+    private void runEnrichStage() {
+        ArrayList<SoloQueueGame> games = new ArrayList<>();
+        while (true) {
+            try {
+                games.add(this.gamesToEnrich.take());
+                this.twitchApiHandler.awaitTwitchUserIds();
+                this.gamesToEnrich.drainTo(games);
+
+                Map<Player, Integer> liveStreamers;
+                if (this.liveStreamerCache != null) {
+                    liveStreamers = this.liveStreamerCache.getLiveStreamers(this.league);
+                } else {
+                    ArrayList<Player> playersInGames = new ArrayList<>();
+                    for (SoloQueueGame game : games) {
+                        playersInGames.addAll(game.getBlueTeam().getPlayers().keySet());
+                        playersInGames.addAll(game.getRedTeam().getPlayers().keySet());
+                    }
+                    liveStreamers = this.twitchApiHandler.getLiveStreamers(playersInGames, this.league);
+                }
+
+                while (!games.isEmpty()) {
+                    SoloQueueGame game = games.get(0);
+                    HashMap<Player, Integer> blueTeamStreamers = new HashMap<>();
+                    HashMap<Player, Integer> redTeamStreamers = new HashMap<>();
+                    if (game.getBlueTeam().hasStreamers()) {
+                        blueTeamStreamers = this.twitchApiHandler.getStreamersOnTeam(game.getBlueTeam(), liveStreamers);
+                    }
+                    if (game.getRedTeam().hasStreamers()) {
+                        redTeamStreamers = this.twitchApiHandler.getStreamersOnTeam(game.getRedTeam(), liveStreamers);
+                    }
+                    this.gamesToScore.put(new EnrichedGame(game, blueTeamStreamers, redTeamStreamers));
+                    games.remove(0);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                // LOG
+                this.logger.severe("Exception " + e.getLocalizedMessage());
+                gamesLeftPipeline(games.size());
+                games.clear();
+            }
+        }
+    }
+
+    /**
+     * The score stage. Scores each game and queues a tweet about the games with a
+     * high enough gamescore.
+     */
+    private void runScoreStage() {
+        while (true) {
+            EnrichedGame enrichedGame;
+            try {
+                enrichedGame = this.gamesToScore.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                SoloQueueGame game = enrichedGame.game;
+                int gameScore = this.lolProTwitterBot.calculateGameScore(game, enrichedGame.blueTeamStreamers,
+                        enrichedGame.redTeamStreamers);
+                System.out.println("-----------------------GameScore: " + gameScore + "-----------------------");
+                game.printGameInfo(enrichedGame.blueTeamStreamers, enrichedGame.redTeamStreamers);
+
+                // the same game can be scored in two cycles before its tweet is posted, the
+                // TweetQueue only takes it once
+                if (gameScore >= this.MINIMUM_GAMESCORE_TO_TWEET && !this.tweetedGames.contains(game.getGameId())
+                        && !this.tweetQueue.contains(game.getGameId())) {
+                    String tweet = this.lolProTwitterBot.createTweet(game, enrichedGame.blueTeamStreamers,
+                            enrichedGame.redTeamStreamers, gameScore);
+                    if (tweet != null) {
+                        this.tweetQueue.add(game.getGameId(), tweet);
+                    }
+                }
+            } catch (RuntimeException e) {
+                // LOG
+                this.logger.severe("Exception " + e.getLocalizedMessage());
+            } finally {
+                gamesLeftPipeline(1);
+            }
+        }
+    }
+
+    /**
+     * Counts games that are done going through the pipeline and wakes up
+     * awaitIdle() once there are none left.
+     *
+     * @param amountOfGames The amount of games that are done
+     */
+    private synchronized void gamesLeftPipeline(int amountOfGames) {
+        this.gamesInPipeline -= amountOfGames;
+        if (this.gamesInPipeline <= 0) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * A game with the streamers on each team.
+     */
+    private static class EnrichedGame {
+
+        private SoloQueueGame game;
+        private HashMap<Player, Integer> blueTeamStreamers;
+        private HashMap<Player, Integer> redTeamStreamers;
+
+        private EnrichedGame(SoloQueueGame game, HashMap<Player, Integer> blueTeamStreamers,
+                HashMap<Player, Integer> redTeamStreamers) {
+            this.game = game;
+            this.blueTeamStreamers = blueTeamStreamers;
+            this.redTeamStreamers = redTeamStreamers;
+        }
+    }
+
+}
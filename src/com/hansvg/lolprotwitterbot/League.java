@@ -12,25 +12,67 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Scanner;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 class League {
 
-    private ArrayList<Player> players;
+    // replaced as a whole when the roster is reloaded so readers never see half of
+    // a reload
+    private volatile PlayerIndex playerIndex;
     private ArrayList<SoloQueueGame> activeSoloQueueGames;
+    private SoloQueueGameTracker gameTracker;
+    private RosterLoader rosterLoader;
+    private String defaultRegion;
     private Logger logger;
 
     /**
      * League Class Constructor.
      * 
-     * @param logger The Logger object to log the processes withen this League
-     *               object
+     * @param logger                       The Logger object to log the processes
+     *                                     withen this League object
+     * @param defaultRegion                The region of the accounts that are not
+     *                                     tagged with a region
+     * @param estimatedGameLengthInMinutes How long a solo queue game is expected
+     *                                     to last
      */
-    protected League(Logger logger) {
-        this.players = new ArrayList<>();
+    protected League(Logger logger, String defaultRegion, int estimatedGameLengthInMinutes) {
+        this.defaultRegion = defaultRegion.toLowerCase();
+        this.playerIndex = new PlayerIndex(0, this.defaultRegion);
+        this.rosterLoader = new RosterLoader(logger);
         this.activeSoloQueueGames = new ArrayList<>();
+        this.gameTracker = new SoloQueueGameTracker(estimatedGameLengthInMinutes);
         this.logger = logger;
+
+        this.gameTracker.addListener(new SoloQueueGameTracker.GameLifecycleListener() {
+            @Override
+            public void gameStarted(SoloQueueGame game) {
+                logger.info("Game " + game.getGameId() + " started");
+            }
+
+            @Override
+            public void gameOngoing(SoloQueueGame game) {
+                logger.fine("Game " + game.getGameId() + " ongoing");
+            }
+
+            @Override
+            public void gameEnded(SoloQueueGame game) {
+                logger.info("Game " + game.getGameId() + " ended");
+            }
+        });
+    }
+
+    /**
+     * Getter for the region of the accounts that are not tagged with a region.
+     *
+     * @return The default region
+     */
+    protected String getDefaultRegion() {
+        return this.defaultRegion;
     }
 
     /**
@@ -39,7 +81,7 @@ class League {
      * @return ArrayList of Player objects that the League object has
      */
     protected ArrayList<Player> getPlayers() {
-        return this.players;
+        return this.playerIndex.players;
     }
 
     /**
@@ -51,6 +93,16 @@ class League {
         return this.activeSoloQueueGames;
     }
 
+    /**
+     * Getter for the SoloQueueGameTracker that remembers the active games of this
+     * League between scans.
+     * 
+     * @return The SoloQueueGameTracker of this League
+     */
+    protected SoloQueueGameTracker getGameTracker() {
+        return this.gameTracker;
+    }
+
     /**
      * Reads in players from the passed in file, creates Player objects for each,
      * and adds each Player to the Player ArrayList the League has.
@@ -62,36 +114,9 @@ class League {
      */
     protected boolean loadPlayers(File playerRosterFile) {
         try {
-            Scanner playerRosterScanner = new Scanner(playerRosterFile);
-
-            if (playerRosterScanner.hasNextLine()) {
-                playerRosterScanner.nextLine();
-
-                while (playerRosterScanner.hasNextLine()) {
-
-                    String[] playerInfo = playerRosterScanner.nextLine().split(",", 6);
-
-                    try {
-                        String name = playerInfo[0];
-                        String position = playerInfo[1];
-                        String team = playerInfo[2];
-                        String twitterHandle = playerInfo[3];
-                        String twitchName = playerInfo[4];
-                        String[] summonerNames = playerInfo[5].split(",");
-
-                        Player readInPlayer = new Player(name, position, team, twitterHandle, twitchName,
-                                summonerNames);
-
-                        players.add(readInPlayer);
-                    } catch (Exception e) {
-                        // LOG
-                        this.logger.warning("Error reading in player info from \"" + playerRosterFile.getAbsolutePath()
-                                + "\". Player Name: " + playerInfo[0]);
-                    }
-                }
+            synchronized (this) {
+                this.playerIndex = readPlayerRoster(playerRosterFile, this.playerIndex, new ArrayList<>());
             }
-            playerRosterScanner.close();
-
             return true;
         } catch (FileNotFoundException e) {
             // LOG
@@ -106,19 +131,54 @@ class League {
     }
 
     /**
-     * Loads a summoner id for each summoner name each Player object in the league
-     * has.
+     * Reads the players from the passed in file again and swaps them in for the
+     * current ones all at once, so a scan that is running keeps going with the
+     * players it started with. Players whose line in the file did not change are
+     * kept as they are. Players that changed keep the ids of the accounts and
+     * twitch account they still have. Only the accounts and twitch accounts that
+     * are new get their ids loaded, after the swap.
      * 
-     * @param riotApiHandler The RiotApiHandler object to handle all the calls to
-     *                       the Riot Games API
-     * @return True if summoner ids were loaded successfully
+     * @param playerRosterFile The file containing the players to track and their
+     *                         information
+     * @param leagueScanner    The LeagueScanner used to load the new summoner ids
+     *                         from every region
+     * @param twitchApiHandler The TwitchApiHandler used to load the new twitch user
+     *                         ids
+     * @return True if the players were reloaded successfully and false otherwise
      */
-    protected boolean loadPlayerSummonerIds(RiotApiHandler riotApiHandler) {
+    protected boolean reloadPlayers(File playerRosterFile, LeagueScanner leagueScanner,
+            TwitchApiHandler twitchApiHandler) {
+        ArrayList<Player> playersToResolve = new ArrayList<>();
         try {
-            riotApiHandler.loadSummonerIds(this.players);
-            // LOG
-            this.logger.info("Players successfully loaded");
+            synchronized (this) {
+                PlayerIndex oldPlayerIndex = this.playerIndex;
+                PlayerIndex newPlayerIndex = readPlayerRoster(playerRosterFile, oldPlayerIndex, playersToResolve);
+
+                int changedPlayers = 0;
+                for (Player player : playersToResolve) {
+                    if (oldPlayerIndex.playersByName.containsKey(player.getName())) {
+                        changedPlayers++;
+                    }
+                }
+                int keptPlayers = newPlayerIndex.players.size() - playersToResolve.size();
+                this.playerIndex = newPlayerIndex;
+                // LOG
+                this.logger.info("Player roster reloaded. " + (playersToResolve.size() - changedPlayers)
+                        + " players added, " + changedPlayers + " changed, "
+                        + (oldPlayerIndex.players.size() - keptPlayers - changedPlayers) + " removed");
+            }
+
+            if (!playersToResolve.isEmpty()) {
+                leagueScanner.loadSummonerIds(this, playersToResolve);
+                if (!twitchApiHandler.loadTwitchUserIds(this, playersToResolve)) {
+                    return false;
+                }
+            }
             return true;
+        } catch (FileNotFoundException e) {
+            // LOG
+            this.logger.severe("FileNotFoundException");
+            return false;
         } catch (URISyntaxException e) {
             // LOG
             this.logger.severe("URISyntaxException");
@@ -139,17 +199,18 @@ class League {
     }
 
     /**
-     * Loads active SoloQueueGames for each summoner id for Players in the League.
+     * Loads a summoner id for each summoner name each Player object in the league
+     * has. The regions are loaded at the same time.
      * 
-     * @param riotApiHandler The RiotApiHandler object to handle all the calls to
-     *                       the Riot Games API
-     * @return True if active SoloQueueGames were loaded successfully
+     * @param leagueScanner The LeagueScanner used to load the summoner ids from
+     *                      every region
+     * @return True if summoner ids were loaded successfully
      */
-    protected boolean loadActiveSoloQueueGames(RiotApiHandler riotApiHandler) {
+    protected boolean loadPlayerSummonerIds(LeagueScanner leagueScanner) {
         try {
-            this.activeSoloQueueGames = riotApiHandler.loadActiveSoloQueueGames(this.players, this);
+            leagueScanner.loadSummonerIds(this, null);
             // LOG
-            this.logger.info("Active Solo Queue Games successfully loaded");
+            this.logger.info("Players successfully loaded");
             return true;
         } catch (URISyntaxException e) {
             // LOG
@@ -171,19 +232,102 @@ class League {
     }
 
     /**
-     * Gets a Player object that owns the passed in summoner name.
+     * Replaces the active SoloQueueGames of the League with the games that the
+     * SoloQueueGameTracker still expects to be going on after a scan.
+     * 
+     * @param foundGames         The games of this League found by the scan
+     * @param checkedSummonerIds The summoner ids the Riot Games API answered for
+     *                           during the scan
+     * @param scanStart          When the scan started in milliseconds
+     */
+    protected void updateActiveSoloQueueGames(ArrayList<SoloQueueGame> foundGames, Set<String> checkedSummonerIds,
+            long scanStart) {
+        this.activeSoloQueueGames = this.gameTracker.update(foundGames, checkedSummonerIds, scanStart);
+    }
+
+    /**
+     * Adds a game that was active before a restart back to the active
+     * SoloQueueGames of the League, so its players are not scanned again until it
+     * is expected to end.
+     * 
+     * @param game               The game to add
+     * @param estimatedEndMillis When the game was expected to end in milliseconds
+     */
+    protected void restoreActiveSoloQueueGame(SoloQueueGame game, long estimatedEndMillis) {
+        this.gameTracker.restoreGame(game, estimatedEndMillis);
+        this.activeSoloQueueGames.add(game);
+    }
+
+    /**
+     * Sets one of the passed in Player's summoner ids and updates the summoner id
+     * index of the league.
+     * 
+     * @param player        The Player whose summoner id is being set
+     * @param summonerIndex The index of the summoner name the id belongs to
+     * @param summonerId    The summoner id to set or null if it could not be found
+     */
+    protected synchronized void setSummonerId(Player player, int summonerIndex, String summonerId) {
+        PlayerIndex playerIndex = this.playerIndex;
+        String oldSummonerId = player.getSummonerIds()[summonerIndex];
+        if (oldSummonerId != null) {
+            playerIndex.playersBySummonerId.remove(oldSummonerId, player);
+        }
+        player.setSummonerId(summonerIndex, summonerId);
+        // a Player removed by a reload is not indexed again
+        if (summonerId != null && playerIndex.playerSet.contains(player)) {
+            playerIndex.playersBySummonerId.put(summonerId, player);
+        }
+    }
+
+    /**
+     * Sets the passed in Player's twitch user id and updates the twitch id index of
+     * the league.
      * 
+     * @param player       The Player whose twitch user id is being set
+     * @param twitchUserId The twitch user id to set
+     */
+    protected synchronized void setTwitchUserId(Player player, String twitchUserId) {
+        PlayerIndex playerIndex = this.playerIndex;
+        if (player.getTwitchUserId() != null) {
+            playerIndex.playersByTwitchId.remove(player.getTwitchUserId(), player);
+        }
+        player.setTwitchUserId(twitchUserId);
+        if (twitchUserId != null && playerIndex.playerSet.contains(player)) {
+            playerIndex.playersByTwitchId.put(twitchUserId, player);
+        }
+    }
+
+    /**
+     * Gets a Player object that owns the passed in summoner name on the passed in
+     * region. Summoner names are matched ignoring case and spaces like the Riot
+     * Games API does, and only on the same region as the same name can belong to
+     * different people on different regions.
+     * 
+     * @param region       The region of the account, like a game's platform id, or
+     *                     null for the default region
      * @param summonerName The summoner name that the Player object you want owns
      * @return The Player object that owns the passed in summoner name or null if no
-     *         Player in the league owns the summoner name
+     *         Player in the league owns the summoner name on the region
      */
-    protected Player getPlayerFromSummonerName(String summonerName) {
-        for (Player p : this.players) {
-            if (p.ownsSummonerName(summonerName)) {
-                return p;
-            }
+    protected Player getPlayerFromSummonerName(String region, String summonerName) {
+        if (summonerName == null) {
+            return null;
         }
-        return null;
+        return this.playerIndex.playersBySummonerName
+                .get(getSummonerNameKey((region != null) ? region.toLowerCase() : this.defaultRegion, summonerName));
+    }
+
+    /**
+     * Gets the key an account is indexed by, its region and its normalized
+     * summoner name, the same way the SummonerIdCache keys the accounts of a
+     * region.
+     *
+     * @param region       The lower case region of the account
+     * @param summonerName The summoner name of the account
+     * @return The key of the account
+     */
+    private static String getSummonerNameKey(String region, String summonerName) {
+        return region + "/" + Player.normalizeSummonerName(summonerName);
     }
 
     /**
@@ -194,12 +338,10 @@ class League {
      *         Player in the league owns the summoner id
      */
     protected Player getPlayerFromSummonerId(String summonerId) {
-        for (Player p : this.players) {
-            if (p.ownsSummonerId(summonerId)) {
-                return p;
-            }
+        if (summonerId == null) {
+            return null;
         }
-        return null;
+        return this.playerIndex.playersBySummonerId.get(summonerId);
     }
 
     /**
@@ -209,14 +351,10 @@ class League {
      * @return The player with the twitch name or null if no player owns it
      */
     protected Player getPlayerFromTwitchName(String twitchName) {
-        for (Player p : this.players) {
-            if (p.getTwitchName() != null) {
-                if (p.getTwitchName().equals(twitchName)) {
-                    return p;
-                }
-            }
+        if (twitchName == null) {
+            return null;
         }
-        return null;
+        return this.playerIndex.playersByTwitchName.get(twitchName);
     }
 
     /**
@@ -226,14 +364,10 @@ class League {
      * @return The player with the twitch user id or null if no player owns it
      */
     protected Player getPlayerFromTwitchId(String twitchId) {
-        for (Player p : this.players) {
-            if (p.getTwitchUserId() != null) {
-                if (p.getTwitchUserId().equals(twitchId)) {
-                    return p;
-                }
-            }
+        if (twitchId == null) {
+            return null;
         }
-        return null;
+        return this.playerIndex.playersByTwitchId.get(twitchId);
     }
 
     /**
@@ -244,7 +378,7 @@ class League {
      */
     protected ArrayList<String> getAllSummonerIds() {
         ArrayList<String> ids = new ArrayList<>();
-        for (Player player : this.players) {
+        for (Player player : this.playerIndex.players) {
             for (String id : player.getSummonerIds()) {
                 if (id != null) {
                     ids.add(id);
@@ -254,13 +388,94 @@ class League {
         return ids;
     }
 
+    /**
+     * Reads the players from the passed in file into a new PlayerIndex. Players
+     * whose line is the same as in the passed in PlayerIndex are kept, and players
+     * whose line changed keep the ids of the accounts and twitch account they still
+     * have. Must be called while holding the League's lock so ids are not set while
+     * they are copied.
+     * 
+     * @param playerRosterFile The file containing the players to track and their
+     *                         information
+     * @param oldPlayerIndex   The PlayerIndex of the players read in before
+     * @param newPlayers       ArrayList the players that were added or changed are
+     *                         added to
+     * @return The PlayerIndex of the players in the file
+     * @throws FileNotFoundException If the file could not be found
+     * @throws IOException           If the file could not be read
+     */
+    private PlayerIndex readPlayerRoster(File playerRosterFile, PlayerIndex oldPlayerIndex,
+            ArrayList<Player> newPlayers) throws IOException {
+        ArrayList<String[]> rosterRows = this.rosterLoader.readRows(playerRosterFile);
+        PlayerIndex newPlayerIndex = new PlayerIndex(rosterRows.size(), this.defaultRegion);
+
+        for (String[] playerInfo : rosterRows) {
+            try {
+                String name = playerInfo[0];
+                Player oldPlayer = oldPlayerIndex.playersByName.get(name);
+
+                Player readInPlayer;
+                if (oldPlayer != null && Arrays.equals(playerInfo, oldPlayerIndex.rosterRowsByPlayer.get(oldPlayer))
+                        && !newPlayerIndex.playerSet.contains(oldPlayer)) {
+                    readInPlayer = oldPlayer;
+                } else {
+                    String position = playerInfo[1];
+                    String team = playerInfo[2];
+                    String twitterHandle = playerInfo[3];
+                    String twitchName = playerInfo[4];
+                    String[] summonerNames = Arrays.copyOfRange(playerInfo, RosterLoader.FIRST_ACCOUNT_COLUMN,
+                            playerInfo.length);
+
+                    readInPlayer = new Player(name, position, team, twitterHandle, twitchName, summonerNames);
+                    if (oldPlayer != null) {
+                        copyIds(oldPlayer, readInPlayer);
+                    }
+                    newPlayers.add(readInPlayer);
+                }
+
+                newPlayerIndex.add(readInPlayer, playerInfo);
+            } catch (Exception e) {
+                // LOG
+                this.logger.warning("Error reading in player info from \"" + playerRosterFile.getAbsolutePath()
+                        + "\". Player Name: " + playerInfo[0]);
+            }
+        }
+
+        return newPlayerIndex;
+    }
+
+    /**
+     * Copies the ids of the accounts and twitch account a changed Player still has
+     * from the Player it replaces. An account is the same if its summoner name and
+     * region tag are the same.
+     * 
+     * @param oldPlayer The Player being replaced
+     * @param newPlayer The Player replacing it
+     */
+    private void copyIds(Player oldPlayer, Player newPlayer) {
+        for (int newIndex = 0; newIndex < newPlayer.getSummonerNames().length; newIndex++) {
+            for (int oldIndex = 0; oldIndex < oldPlayer.getSummonerNames().length; oldIndex++) {
+                if (newPlayer.getSummonerNames()[newIndex].equals(oldPlayer.getSummonerNames()[oldIndex])
+                        && Objects.equals(newPlayer.getSummonerRegions()[newIndex],
+                                oldPlayer.getSummonerRegions()[oldIndex])) {
+                    newPlayer.setSummonerId(newIndex, oldPlayer.getSummonerIds()[oldIndex]);
+                    break;
+                }
+            }
+        }
+        if (newPlayer.getTwitchName().equals(oldPlayer.getTwitchName())) {
+            newPlayer.setTwitchUserId(oldPlayer.getTwitchUserId());
+        }
+    }
+
     /**
      * Prints the values for each player that is part of the league
      */
     protected void printLeaguePlayerInfo() {
         System.out.println("----------League's player information----------");
-        for (int pIndex = 0; pIndex < this.players.size(); pIndex++) {
-            Player p = this.players.get(pIndex);
+        ArrayList<Player> players = this.playerIndex.players;
+        for (int pIndex = 0; pIndex < players.size(); pIndex++) {
+            Player p = players.get(pIndex);
 
             System.out.printf("#%3d | ", pIndex);
             System.out.printf("Name: %15s | ", p.getName());
@@ -285,4 +500,74 @@ class League {
         System.out.println("-----------------------------------------------");
     }
 
+    /**
+     * The League's Players and the indexes used to look them up. A new PlayerIndex
+     * is built each time the roster is read in.
+     */
+    private static class PlayerIndex {
+
+        private ArrayList<Player> players;
+        private HashSet<Player> playerSet;
+        private HashMap<String, Player> playersByName;
+        private HashMap<Player, String[]> rosterRowsByPlayer;
+        private ConcurrentHashMap<String, Player> playersBySummonerName;
+        private ConcurrentHashMap<String, Player> playersBySummonerId;
+        private ConcurrentHashMap<String, Player> playersByTwitchName;
+        private ConcurrentHashMap<String, Player> playersByTwitchId;
+        private String defaultRegion;
+
+        /**
+         * PlayerIndex Class Constructor. The indexes are sized up front so they do
+         * not have to grow while a large roster is read in.
+         * 
+         * @param expectedPlayers How many Players are expected to be added
+         * @param defaultRegion   The region of the accounts that are not tagged with
+         *                        a region
+         */
+        private PlayerIndex(int expectedPlayers, String defaultRegion) {
+            // every player is expected to have a couple accounts
+            int expectedAccounts = 2 * expectedPlayers;
+            this.players = new ArrayList<>(expectedPlayers);
+            this.playerSet = new HashSet<>(2 * expectedPlayers);
+            this.playersByName = new HashMap<>(2 * expectedPlayers);
+            this.rosterRowsByPlayer = new HashMap<>(2 * expectedPlayers);
+            this.playersBySummonerName = new ConcurrentHashMap<>(expectedAccounts);
+            this.playersBySummonerId = new ConcurrentHashMap<>(expectedAccounts);
+            this.playersByTwitchName = new ConcurrentHashMap<>(expectedPlayers);
+            this.playersByTwitchId = new ConcurrentHashMap<>(expectedPlayers);
+            this.defaultRegion = defaultRegion;
+        }
+
+        /**
+         * Adds the passed in Player to the indexes used to look up Players. If two
+         * Players share a key the first one read in keeps it.
+         * 
+         * @param player    The Player to index
+         * @param rosterRow The row of the roster file the Player was read from
+         */
+        private void add(Player player, String[] rosterRow) {
+            this.players.add(player);
+            this.playerSet.add(player);
+            this.playersByName.putIfAbsent(player.getName(), player);
+            this.rosterRowsByPlayer.put(player, rosterRow);
+            String[] summonerNames = player.getSummonerNames();
+            String[] summonerRegions = player.getSummonerRegions();
+            for (int i = 0; i < summonerNames.length; i++) {
+                String region = (summonerRegions[i] != null) ? summonerRegions[i] : this.defaultRegion;
+                this.playersBySummonerName.putIfAbsent(getSummonerNameKey(region, summonerNames[i]), player);
+            }
+            for (String summonerId : player.getSummonerIds()) {
+                if (summonerId != null) {
+                    this.playersBySummonerId.putIfAbsent(summonerId, player);
+                }
+            }
+            if (player.getTwitchName() != null && !player.getTwitchName().equals("")) {
+                this.playersByTwitchName.putIfAbsent(player.getTwitchName(), player);
+            }
+            if (player.getTwitchUserId() != null) {
+                this.playersByTwitchId.putIfAbsent(player.getTwitchUserId(), player);
+            }
+        }
+    }
+
 }
\ No newline at end of file
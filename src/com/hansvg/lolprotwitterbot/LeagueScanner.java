@@ -0,0 +1,192 @@
+/**
+ * The LeagueScanner class scans the accounts of every League the bot tracks for active solo queue games in one sweep, so an account that is in more than one League is only looked up once.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+class LeagueScanner {
+
+    private ArrayList<RiotApiHandler> riotApiHandlers;
+    private ArrayList<GamePipeline> gamePipelines;
+    private ArrayList<League> leagues;
+    private ExecutorService regionExecutorService;
+    private Logger logger;
+
+    /**
+     * LeagueScanner Class Constructor.
+     *
+     * @param riotApiHandlers The RiotApiHandler objects to handle all the calls to
+     *                        the Riot Games API, one for each region
+     * @param gamePipelines   The GamePipelines the games found are submitted to,
+     *                        one for each League
+     * @param logger          The Logger object to log the processes
+     */
+    protected LeagueScanner(ArrayList<RiotApiHandler> riotApiHandlers, ArrayList<GamePipeline> gamePipelines,
+            Logger logger) {
+        this.riotApiHandlers = riotApiHandlers;
+        this.gamePipelines = gamePipelines;
+        this.leagues = new ArrayList<>();
+        for (GamePipeline gamePipeline : gamePipelines) {
+            this.leagues.add(gamePipeline.getLeague());
+        }
+        this.regionExecutorService = Executors.newCachedThreadPool(runnable -> {
+            Thread regionThread = new Thread(runnable, "RegionScanner");
+            regionThread.setDaemon(true);
+            return regionThread;
+        });
+        this.logger = logger;
+    }
+
+    /**
+     * Loads active SoloQueueGames for each summoner id for Players in the Leagues.
+     * Summoner ids of Players in a game that is already known and not expected to
+     * have ended are not checked again. The regions are scanned at the same time
+     * and each game is submitted to the GamePipeline of every League with a player
+     * in it as soon as it is found.
+     *
+     * @return True if active SoloQueueGames were loaded successfully
+     */
+    protected boolean loadActiveSoloQueueGames() {
+        try {
+            long scanStart = System.currentTimeMillis();
+            HashSet<String> summonerIdsInKnownGames = new HashSet<>();
+            for (League league : this.leagues) {
+                summonerIdsInKnownGames.addAll(league.getGameTracker().getSummonerIdsInKnownGames(scanStart));
+            }
+
+            ArrayList<SoloQueueGame> foundGames = new ArrayList<>();
+            Set<String> checkedSummonerIds = ConcurrentHashMap.newKeySet();
+            ArrayList<Callable<Void>> regionScanners = new ArrayList<>();
+            for (RiotApiHandler riotApiHandler : this.riotApiHandlers) {
+                regionScanners.add(() -> {
+                    ArrayList<SoloQueueGame> foundGamesInRegion = riotApiHandler.loadActiveSoloQueueGames(
+                            summonerIdsInKnownGames, checkedSummonerIds, this.gamePipelines);
+                    synchronized (foundGames) {
+                        foundGames.addAll(foundGamesInRegion);
+                    }
+                    return null;
+                });
+            }
+            runAll(this.regionExecutorService, regionScanners);
+
+            HashMap<League, ArrayList<SoloQueueGame>> foundGamesByLeague = new HashMap<>();
+            for (League league : this.leagues) {
+                foundGamesByLeague.put(league, new ArrayList<>());
+            }
+            for (SoloQueueGame foundGame : foundGames) {
+                foundGamesByLeague.get(foundGame.getLeague()).add(foundGame);
+            }
+            for (League league : this.leagues) {
+                league.updateActiveSoloQueueGames(foundGamesByLeague.get(league), checkedSummonerIds, scanStart);
+            }
+
+            ArrayList<Callable<Void>> staleIdRefreshers = new ArrayList<>();
+            for (RiotApiHandler riotApiHandler : this.riotApiHandlers) {
+                staleIdRefreshers.add(() -> {
+                    riotApiHandler.refreshStaleSummonerIds(this.leagues);
+                    return null;
+                });
+            }
+            runAll(this.regionExecutorService, staleIdRefreshers);
+            // LOG
+            this.logger.info("Active Solo Queue Games successfully loaded");
+            return true;
+        } catch (URISyntaxException e) {
+            // LOG
+            this.logger.severe("URISyntaxException");
+            return false;
+        } catch (InterruptedException e) {
+            // LOG
+            this.logger.severe("InterruptedException");
+            return false;
+        } catch (IOException e) {
+            // LOG
+            this.logger.severe("IOException");
+            return false;
+        } catch (Exception e) {
+            // LOG
+            this.logger.severe("Exception " + e.getLocalizedMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Loads the summoner ids of the passed in Players of a League from every
+     * region at the same time.
+     *
+     * @param league  The League the Players belong to
+     * @param players The Players to load summoner ids for or null to load them for
+     *                every Player in the League
+     * @throws URISyntaxException   If there was a problem with the syntax of the
+     *                              uri
+     * @throws InterruptedException If the thread was interrupted while waiting on
+     *                              the RiotRateLimiter
+     * @throws IOException          If an input or output exception occurred
+     */
+    protected void loadSummonerIds(League league, ArrayList<Player> players)
+            throws URISyntaxException, InterruptedException, IOException {
+        ArrayList<Callable<Void>> regionLoaders = new ArrayList<>();
+        for (RiotApiHandler riotApiHandler : this.riotApiHandlers) {
+            regionLoaders.add(() -> {
+                if (players == null) {
+                    riotApiHandler.loadSummonerIds(league);
+                } else {
+                    riotApiHandler.loadSummonerIds(league, players);
+                }
+                return null;
+            });
+        }
+        runAll(this.regionExecutorService, regionLoaders);
+    }
+
+    /**
+     * Runs the passed in tasks at the same time on the passed in ExecutorService
+     * and waits for all of them to finish. If one of them failed its exception is
+     * thrown. Used for everything the bot fans out, like the regions of a scan or
+     * the threads of a region.
+     *
+     * @param executorService The ExecutorService to run the tasks on
+     * @param tasks           The tasks to run
+     * @throws URISyntaxException   If a task threw a URISyntaxException
+     * @throws InterruptedException If a task or the waiting thread was interrupted
+     * @throws IOException          If a task threw an IOException or any other
+     *                              exception
+     */
+    protected static void runAll(ExecutorService executorService, List<Callable<Void>> tasks)
+            throws URISyntaxException, InterruptedException, IOException {
+        List<Future<Void>> results = executorService.invokeAll(tasks);
+        for (Future<Void> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof URISyntaxException) {
+                    throw (URISyntaxException) e.getCause();
+                } else if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                } else if (e.getCause() instanceof InterruptedException) {
+                    throw (InterruptedException) e.getCause();
+                } else {
+                    throw new IOException(e.getCause());
+                }
+            }
+        }
+    }
+
+}
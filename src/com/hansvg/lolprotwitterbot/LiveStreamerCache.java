@@ -0,0 +1,147 @@
+/**
+ * The LiveStreamerCache class keeps track of which players in the Leagues are live on twitch, refreshing in the background so games can be scored without waiting on the Twitch.tv Api.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+class LiveStreamerCache {
+
+    private TwitchApiHandler twitchApiHandler;
+    private ArrayList<League> leagues;
+    private Logger logger;
+
+    private ScheduledExecutorService refresherExecutorService;
+    private volatile Map<League, Map<Player, Integer>> liveStreamersByLeague;
+    private volatile boolean twitchUserIdsMissing;
+
+    private int INTERVAL_TO_REFRESH_LIVE_STREAMERS_IN_SECONDS;
+
+    /**
+     * LiveStreamerCache Class Constructor.
+     *
+     * @param twitchApiHandler  The TwitchApiHandler used to load the streams
+     * @param leagues           The Leagues whose players are tracked
+     * @param intervalInSeconds How often the live streamers are refreshed
+     * @param logger            The Logger object to log the processes
+     */
+    protected LiveStreamerCache(TwitchApiHandler twitchApiHandler, ArrayList<League> leagues, int intervalInSeconds,
+            Logger logger) {
+        this.twitchApiHandler = twitchApiHandler;
+        this.leagues = leagues;
+        this.logger = logger;
+        this.INTERVAL_TO_REFRESH_LIVE_STREAMERS_IN_SECONDS = intervalInSeconds;
+        this.liveStreamersByLeague = Collections.emptyMap();
+    }
+
+    /**
+     * Loads the live streamers once and then starts refreshing them in the
+     * background every INTERVAL_TO_REFRESH_LIVE_STREAMERS_IN_SECONDS seconds. If
+     * the twitch user ids could not all be loaded, the live streamers are loaded
+     * with the ids that were, and the ids are loaded again on each refresh until
+     * it succeeds.
+     *
+     * @param twitchUserIdsLoaded True if the twitch user ids of every League were
+     *                            loaded and false otherwise
+     */
+    protected void start(boolean twitchUserIdsLoaded) {
+        this.twitchUserIdsMissing = !twitchUserIdsLoaded;
+        refresh();
+        this.refresherExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread refresherThread = new Thread(runnable, "LiveStreamerRefresher");
+            refresherThread.setDaemon(true);
+            return refresherThread;
+        });
+        this.refresherExecutorService.scheduleWithFixedDelay(this::refresh,
+                this.INTERVAL_TO_REFRESH_LIVE_STREAMERS_IN_SECONDS, this.INTERVAL_TO_REFRESH_LIVE_STREAMERS_IN_SECONDS,
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops refreshing the live streamers.
+     */
+    protected void stop() {
+        if (this.refresherExecutorService != null) {
+            this.refresherExecutorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Getter for the live streamers of a League from the last refresh. Does not
+     * make any calls to the Twitch.tv Api.
+     *
+     * @param league The League to get the live players of
+     * @return Unmodifiable Map of the League's live players and their view counts
+     */
+    protected Map<Player, Integer> getLiveStreamers(League league) {
+        return this.liveStreamersByLeague.getOrDefault(league, Collections.emptyMap());
+    }
+
+    /**
+     * Loads the streams of every player in the Leagues with a twitch account and
+     * replaces the live streamers with the result. A twitch account in more than
+     * one League is only looked up once.
+     */
+    private void refresh() {
+        try {
+            if (this.twitchUserIdsMissing) {
+                loadMissingTwitchUserIds();
+            }
+            ArrayList<Player> players = new ArrayList<>();
+            for (League league : this.leagues) {
+                players.addAll(league.getPlayers());
+            }
+            HashMap<String, Integer> viewCounts = this.twitchApiHandler.getViewCounts(players);
+
+            HashMap<League, Map<Player, Integer>> refreshedLiveStreamersByLeague = new HashMap<>();
+            for (League league : this.leagues) {
+                HashMap<Player, Integer> refreshedLiveStreamers = new HashMap<>();
+                for (Entry<String, Integer> viewCount : viewCounts.entrySet()) {
+                    Player streamer = league.getPlayerFromTwitchId(viewCount.getKey());
+                    if (streamer != null) {
+                        refreshedLiveStreamers.put(streamer, viewCount.getValue());
+                    }
+                }
+                refreshedLiveStreamersByLeague.put(league, Collections.unmodifiableMap(refreshedLiveStreamers));
+            }
+            this.liveStreamersByLeague = refreshedLiveStreamersByLeague;
+            this.logger.fine(viewCounts.size() + " live streamers loaded");
+        } catch (Exception e) {
+            // an exception would stop the refresher from being scheduled again
+            this.logger.severe("Exception " + e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Loads the twitch user ids that could not be loaded before. Stops loading
+     * them on each refresh once the ids of every League are loaded.
+     */
+    private void loadMissingTwitchUserIds() {
+        boolean loaded = true;
+        for (League league : this.leagues) {
+            if (!this.twitchApiHandler.loadTwitchUserIds(league)) {
+                loaded = false;
+            }
+        }
+        if (loaded) {
+            this.twitchUserIdsMissing = false;
+            this.logger.info("Missing twitch user ids loaded");
+        } else {
+            // LOG
+            this.logger.warning("Twitch user ids could not be loaded. Streamers without an id are not live until "
+                    + "they are loaded");
+        }
+    }
+
+}
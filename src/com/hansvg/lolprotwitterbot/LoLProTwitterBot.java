@@ -14,34 +14,41 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Properties;
-import java.util.Map.Entry;
 import java.util.logging.FileHandler;
 import java.util.logging.Handler;
 import java.util.logging.Logger;
 import java.util.logging.SimpleFormatter;
 
-import org.json.JSONObject;
-
 public class LoLProTwitterBot {
 
     private Properties configs;
 
-    private int MINIMUM_GAMESCORE_TO_TWEET;
     private int INTERVAL_TO_SCAN_ACTIVE_GAMES_IN_SECONDS;
+    private int INTERVAL_TO_REFRESH_LIVE_STREAMERS_IN_SECONDS;
 
-    private File playerRosterFile;
+    private ArrayList<RiotApiHandler> riotApiHandlers;
+    private SummonerIdCache summonerIdCache;
+    private TwitchApiHandler twitchApiHandler;
 
-    private League league;
+    private LiveStreamerCache liveStreamerCache;
 
-    private RiotApiHandler riotApiHandler;
-    private TwitchApiHandler twitchApiHandler;
-    private TwitterApiHandler twitterApiHandler;
+    private BotMetrics metrics;
+    private MetricsServer metricsServer;
 
     private Logger logger;
 
-    private HashMap<SoloQueueGame, JSONObject> tweetedGames;
+    private TweetRenderer tweetRenderer;
+
+    // one for each league, the leagues share the scan and the live streamers
+    private ArrayList<LeagueBot> leagueBots;
+    private LeagueScanner leagueScanner;
+
+    private BotCheckpoint checkpoint;
+    private int CHECKPOINT_INTERVAL_IN_MINUTES;
 
     /**
      * LCSTwitterBot Class Constructor.
@@ -58,24 +65,181 @@ public class LoLProTwitterBot {
             this.logger.addHandler(loggerFileHandler);
             loggerFileHandler.setFormatter(new SimpleFormatter());
 
-            this.MINIMUM_GAMESCORE_TO_TWEET = Integer.parseInt(this.configs.getProperty("MINIMUM_GAMESCORE_TO_TWEET"));
             this.INTERVAL_TO_SCAN_ACTIVE_GAMES_IN_SECONDS = Integer
                     .parseInt(this.configs.getProperty("INTERVAL_TO_SCAN_ACTIVE_GAMES_IN_SECONDS"));
+            this.INTERVAL_TO_REFRESH_LIVE_STREAMERS_IN_SECONDS = Integer
+                    .parseInt(this.configs.getProperty("INTERVAL_TO_REFRESH_LIVE_STREAMERS_IN_SECONDS", "60"));
+
+            // each league has its own roster and twitter account, without LEAGUES the
+            // bot runs the one league set up by the configs without a league name
+            this.leagueBots = new ArrayList<>();
+            for (String leagueName : this.configs.getProperty("LEAGUES", "").split(",")) {
+                leagueName = leagueName.trim();
+                if (!leagueName.equals("")) {
+                    this.leagueBots.add(new LeagueBot(leagueName, getLeagueConfigs(leagueName)));
+                }
+            }
+            if (this.leagueBots.isEmpty()) {
+                this.leagueBots.add(new LeagueBot(null, this.configs));
+            }
 
-            this.playerRosterFile = new File(this.configs.getProperty("PLAYER_ROSTER_FILE_LOCATION"));
+            this.metrics = new BotMetrics();
+            int metricsPort = Integer.parseInt(this.configs.getProperty("METRICS_PORT", "-1"));
+            if (metricsPort > 65535) {
+                this.logger.severe("Invalid Integer for METRICS_PORT in config file.");
+                throw new Exception();
+            }
+            if (metricsPort >= 0) {
+                this.metricsServer = new MetricsServer(this.metrics,
+                        this.configs.getProperty("METRICS_HOST", "127.0.0.1"), metricsPort, this.logger);
+            }
 
-            this.league = new League(this.logger);
+            int estimatedGameLengthInMinutes = Integer
+                    .parseInt(this.configs.getProperty("ESTIMATED_SOLO_QUEUE_GAME_LENGTH_IN_MINUTES", "25"));
+
+            // the leagues share the cache so an account in more than one league is only
+            // resolved once, even without a cache file
+            if (this.configs.getProperty("SUMMONER_ID_CACHE_FILE_LOCATION") != null || this.leagueBots.size() > 1) {
+                int cacheExpiryHours = Integer
+                        .parseInt(this.configs.getProperty("SUMMONER_ID_CACHE_EXPIRY_IN_HOURS", "168"));
+                if (cacheExpiryHours < 0) {
+                    this.logger.severe("Invalid Integer for SUMMONER_ID_CACHE_EXPIRY_IN_HOURS in config file.");
+                    throw new Exception();
+                }
+                File cacheFile = null;
+                if (this.configs.getProperty("SUMMONER_ID_CACHE_FILE_LOCATION") != null) {
+                    cacheFile = new File(this.configs.getProperty("SUMMONER_ID_CACHE_FILE_LOCATION"));
+                }
+                this.summonerIdCache = new SummonerIdCache(cacheFile, cacheExpiryHours, this.logger);
+            }
 
-            this.riotApiHandler = new RiotApiHandler(this.configs, this.logger);
-            this.logger.info("RiotApiHandler Created");
+            // one RiotApiHandler for each region, the first region has the accounts that
+            // are not tagged with a region
+            this.riotApiHandlers = new ArrayList<>();
+            for (String region : this.configs.getProperty("RIOT_API_REGION").split(",")) {
+                region = region.trim().toLowerCase();
+                if (!region.equals("")) {
+                    this.riotApiHandlers.add(new RiotApiHandler(this.configs, this.logger, region,
+                            this.riotApiHandlers.isEmpty(), this.summonerIdCache, this.metrics));
+                    this.logger.info("RiotApiHandler Created for " + region);
+                }
+            }
+            if (this.riotApiHandlers.isEmpty()) {
+                this.logger.severe("NULL Riot Region key in config file.");
+                throw new Exception();
+            }
 
-            this.twitchApiHandler = new TwitchApiHandler(this.configs, this.logger);
+            this.twitchApiHandler = new TwitchApiHandler(this.configs, this.logger, this.metrics);
             this.logger.info("TwitchApiHandler Created");
 
-            this.twitterApiHandler = new TwitterApiHandler(this.configs, this.logger);
-            this.logger.info("TwitterApiHandler Created");
+            ArrayList<League> leagues = new ArrayList<>();
+            for (LeagueBot leagueBot : this.leagueBots) {
+                if (leagueBot.configs.getProperty("PLAYER_ROSTER_FILE_LOCATION") == null) {
+                    this.logger.severe("NULL PLAYER_ROSTER_FILE_LOCATION key for " + leagueBot.getDisplayName()
+                            + " in config file.");
+                    throw new Exception();
+                }
+                leagueBot.playerRosterFile = new File(leagueBot.configs.getProperty("PLAYER_ROSTER_FILE_LOCATION"));
+                leagueBot.league = new League(this.logger, this.riotApiHandlers.get(0).getRegion(),
+                        estimatedGameLengthInMinutes);
+                leagues.add(leagueBot.league);
+            }
+
+            if (this.INTERVAL_TO_REFRESH_LIVE_STREAMERS_IN_SECONDS > 0) {
+                this.liveStreamerCache = new LiveStreamerCache(this.twitchApiHandler, leagues,
+                        this.INTERVAL_TO_REFRESH_LIVE_STREAMERS_IN_SECONDS, this.logger);
+            }
+
+            int rosterReloadDelayInMillis = Integer
+                    .parseInt(this.configs.getProperty("PLAYER_ROSTER_RELOAD_DELAY_IN_MILLIS", "1000"));
 
-            this.tweetedGames = new HashMap<>();
+            int tweetMaxBackoffSeconds = Integer
+                    .parseInt(this.configs.getProperty("TWEET_MAX_BACKOFF_IN_SECONDS", "900"));
+            if (tweetMaxBackoffSeconds < 1) {
+                this.logger.severe("Invalid Integer for TWEET_MAX_BACKOFF_IN_SECONDS in config file.");
+                throw new Exception();
+            }
+
+            int gamePipelineQueueCapacity = Integer
+                    .parseInt(this.configs.getProperty("GAME_PIPELINE_QUEUE_CAPACITY", "64"));
+            if (gamePipelineQueueCapacity < 1) {
+                this.logger.severe("Invalid Integer for GAME_PIPELINE_QUEUE_CAPACITY in config file.");
+                throw new Exception();
+            }
+
+            this.tweetRenderer = new TweetRenderer();
+
+            // two leagues writing to the same file would overwrite each other's games
+            HashSet<String> leagueFileLocations = new HashSet<>();
+            ArrayList<GamePipeline> gamePipelines = new ArrayList<>();
+            for (LeagueBot leagueBot : this.leagueBots) {
+                Properties leagueConfigs = leagueBot.configs;
+
+                if (leagueConfigs.getProperty("MINIMUM_GAMESCORE_TO_TWEET") == null) {
+                    this.logger.severe("NULL MINIMUM_GAMESCORE_TO_TWEET key for " + leagueBot.getDisplayName()
+                            + " in config file.");
+                    throw new Exception();
+                }
+                int minimumGameScoreToTweet = Integer
+                        .parseInt(leagueConfigs.getProperty("MINIMUM_GAMESCORE_TO_TWEET"));
+
+                TwitterApiHandler twitterApiHandler = new TwitterApiHandler(leagueConfigs, this.logger, this.metrics);
+                this.logger.info(
+                        "TwitterApiHandler Created" + ((leagueBot.name != null) ? " for " + leagueBot.name : ""));
+
+                TweetedGamesJournal tweetedGamesJournal = null;
+                if (leagueConfigs.getProperty("TWEETED_GAMES_JOURNAL_FILE_LOCATION") != null) {
+                    File journalFile = new File(leagueConfigs.getProperty("TWEETED_GAMES_JOURNAL_FILE_LOCATION"));
+                    if (!leagueFileLocations.add(journalFile.getAbsolutePath())) {
+                        this.logger.severe("TWEETED_GAMES_JOURNAL_FILE_LOCATION of " + leagueBot.getDisplayName()
+                                + " is used by another league in config file.");
+                        throw new Exception();
+                    }
+                    tweetedGamesJournal = new TweetedGamesJournal(journalFile, this.logger);
+                }
+                leagueBot.tweetedGames = new TweetedGamesStore(tweetedGamesJournal);
+
+                File pendingTweetsFile = null;
+                if (leagueConfigs.getProperty("PENDING_TWEETS_FILE_LOCATION") != null) {
+                    pendingTweetsFile = new File(leagueConfigs.getProperty("PENDING_TWEETS_FILE_LOCATION"));
+                    if (!leagueFileLocations.add(pendingTweetsFile.getAbsolutePath())) {
+                        this.logger.severe("PENDING_TWEETS_FILE_LOCATION of " + leagueBot.getDisplayName()
+                                + " is used by another league in config file.");
+                        throw new Exception();
+                    }
+                }
+                leagueBot.tweetQueue = new TweetQueue(twitterApiHandler, leagueBot.tweetedGames, pendingTweetsFile,
+                        tweetMaxBackoffSeconds, estimatedGameLengthInMinutes, this.metrics, this.logger);
+
+                leagueBot.gamePipeline = new GamePipeline(this, leagueBot.league, this.twitchApiHandler,
+                        this.liveStreamerCache, leagueBot.tweetQueue, leagueBot.tweetedGames, minimumGameScoreToTweet,
+                        gamePipelineQueueCapacity, this.logger);
+                gamePipelines.add(leagueBot.gamePipeline);
+            }
+            this.leagueScanner = new LeagueScanner(this.riotApiHandlers, gamePipelines, this.logger);
+
+            if (rosterReloadDelayInMillis >= 0) {
+                for (LeagueBot leagueBot : this.leagueBots) {
+                    leagueBot.rosterWatcher = new RosterWatcher(leagueBot.playerRosterFile, leagueBot.league,
+                            this.leagueScanner, this.twitchApiHandler, rosterReloadDelayInMillis, this.logger);
+                }
+            }
+
+            if (this.configs.getProperty("CHECKPOINT_FILE_LOCATION") != null) {
+                int summonerIdExpiryHours = Integer
+                        .parseInt(this.configs.getProperty("SUMMONER_ID_CACHE_EXPIRY_IN_HOURS", "168"));
+                if (summonerIdExpiryHours < 0) {
+                    this.logger.severe("Invalid Integer for SUMMONER_ID_CACHE_EXPIRY_IN_HOURS in config file.");
+                    throw new Exception();
+                }
+                this.CHECKPOINT_INTERVAL_IN_MINUTES = Integer
+                        .parseInt(this.configs.getProperty("CHECKPOINT_INTERVAL_IN_MINUTES", "10"));
+                this.checkpoint = new BotCheckpoint(new File(this.configs.getProperty("CHECKPOINT_FILE_LOCATION")),
+                        summonerIdExpiryHours, this.summonerIdCache, this.riotApiHandlers, this.logger);
+                for (LeagueBot leagueBot : this.leagueBots) {
+                    this.checkpoint.addLeague(leagueBot.name, leagueBot.league, leagueBot.tweetedGames);
+                }
+            }
         } else {
             System.out.println("Configs could not be loaded. Closing LoLProTwitterBot.");
             System.exit(1);
@@ -106,38 +270,7 @@ public class LoLProTwitterBot {
 
                 this.logger.info("Scanning for active solo queue games for " + secondsToRun + " seconds");
 
-                if (this.league.loadActiveSoloQueueGames(this.riotApiHandler)) {
-                    for (SoloQueueGame game : this.league.getActiveSoloQueueGames()) {
-
-                        HashMap<Player, Integer> blueTeamStreamers;
-                        HashMap<Player, Integer> redTeamStreamers;
-
-                        if (game.getBlueTeam().hasStreamers()) {
-                            blueTeamStreamers = this.twitchApiHandler.getStreamersOnTeam(game.getBlueTeam(),
-                                    game.getLeague());
-                        } else {
-                            blueTeamStreamers = new HashMap<>();
-                        }
-
-                        if (game.getRedTeam().hasStreamers()) {
-                            redTeamStreamers = this.twitchApiHandler.getStreamersOnTeam(game.getRedTeam(),
-                                    game.getLeague());
-                        } else {
-                            redTeamStreamers = new HashMap<>();
-                        }
-
-                        int gameScore = this.calculateGameScore(game, blueTeamStreamers, redTeamStreamers);
-                        System.out
-                                .println("-----------------------GameScore: " + gameScore + "-----------------------");
-                        game.printGameInfo(blueTeamStreamers, redTeamStreamers);
-
-                        if (gameScore >= MINIMUM_GAMESCORE_TO_TWEET && !gameAlreadyTweeted(game)) {
-                            JSONObject tweet = this.twitterApiHandler
-                                    .tweet(createTweet(game, blueTeamStreamers, redTeamStreamers, gameScore));
-                            this.tweetedGames.put(game, tweet);
-                        }
-                    }
-                }
+                scanActiveGames();
 
                 this.logger.info("Waiting " + (INTERVAL_TO_SCAN_ACTIVE_GAMES_IN_SECONDS) + " seconds till next scan");
 
@@ -155,38 +288,7 @@ public class LoLProTwitterBot {
             while (runningFlag) {
                 this.logger.info("Scanning for active solo queue games continuously");
 
-                if (this.league.loadActiveSoloQueueGames(this.riotApiHandler)) {
-                    for (SoloQueueGame game : this.league.getActiveSoloQueueGames()) {
-
-                        HashMap<Player, Integer> blueTeamStreamers;
-                        HashMap<Player, Integer> redTeamStreamers;
-
-                        if (game.getBlueTeam().hasStreamers()) {
-                            blueTeamStreamers = this.twitchApiHandler.getStreamersOnTeam(game.getBlueTeam(),
-                                    game.getLeague());
-                        } else {
-                            blueTeamStreamers = new HashMap<>();
-                        }
-
-                        if (game.getRedTeam().hasStreamers()) {
-                            redTeamStreamers = this.twitchApiHandler.getStreamersOnTeam(game.getRedTeam(),
-                                    game.getLeague());
-                        } else {
-                            redTeamStreamers = new HashMap<>();
-                        }
-
-                        int gameScore = this.calculateGameScore(game, blueTeamStreamers, redTeamStreamers);
-                        System.out
-                                .println("-----------------------GameScore: " + gameScore + "-----------------------");
-                        game.printGameInfo(blueTeamStreamers, redTeamStreamers);
-
-                        if (gameScore >= MINIMUM_GAMESCORE_TO_TWEET && !gameAlreadyTweeted(game)) {
-                            JSONObject tweet = this.twitterApiHandler
-                                    .tweet(createTweet(game, blueTeamStreamers, redTeamStreamers, gameScore));
-                            this.tweetedGames.put(game, tweet);
-                        }
-                    }
-                }
+                scanActiveGames();
 
                 this.logger.info("Waiting " + (INTERVAL_TO_SCAN_ACTIVE_GAMES_IN_SECONDS) + " seconds till next scan");
 
@@ -209,6 +311,98 @@ public class LoLProTwitterBot {
 
     }
 
+    /**
+     * Method that scans for active solo queue games, gets the streamers in them,
+     * and tweets about the games that have a high enough "gamescore". The accounts
+     * of every league are scanned together, and each game goes through the
+     * GamePipeline of every league with a player in it as soon as it is found,
+     * while the rest of the summoner ids are still being scanned. Games that were
+     * already known are put through the pipelines once the scan is done, and the
+     * method returns once the pipelines are empty. The tweets are posted by the
+     * TweetQueue of each league, so the scan never waits on the Twitter Api. How
+     * long the scan took and what it found is recorded in the BotMetrics.
+     */
+    protected void scanActiveGames() {
+        long scanStartTime = System.nanoTime();
+        int tweetsSentBeforeScan = getTweetsSent();
+        for (LeagueBot leagueBot : this.leagueBots) {
+            leagueBot.gamePipeline.beginCycle();
+        }
+
+        boolean gamesLoaded = this.leagueScanner.loadActiveSoloQueueGames();
+        HashSet<Long> activeGameIds = new HashSet<>();
+        try {
+            for (LeagueBot leagueBot : this.leagueBots) {
+                if (gamesLoaded) {
+                    // known games are scored again as their players may have started streaming,
+                    // games found during the scan are not submitted twice
+                    for (SoloQueueGame game : leagueBot.league.getActiveSoloQueueGames()) {
+                        leagueBot.gamePipeline.submit(game);
+                        activeGameIds.add(game.getGameId());
+                    }
+                }
+            }
+            for (LeagueBot leagueBot : this.leagueBots) {
+                leagueBot.gamePipeline.awaitIdle();
+            }
+        } catch (InterruptedException e) {
+            this.logger.severe("InterruptedException");
+        }
+
+        this.metrics.recordCycle(System.nanoTime() - scanStartTime, gamesLoaded, activeGameIds.size(),
+                getTweetsSent() - tweetsSentBeforeScan);
+    }
+
+    /**
+     * Waits until the tweets queued so far by every league are done or the timeout
+     * runs out.
+     * 
+     * @param timeoutMillis The longest to wait in milliseconds
+     * @return True if there are no tweets left to post and false otherwise
+     * @throws InterruptedException If the thread was interrupted while waiting
+     */
+    protected boolean awaitPendingTweets(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        for (LeagueBot leagueBot : this.leagueBots) {
+            if (!leagueBot.tweetQueue.awaitEmpty(Math.max(0, deadline - System.currentTimeMillis()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets how many tweets every league has posted so far.
+     * 
+     * @return The amount of tweets posted
+     */
+    private int getTweetsSent() {
+        int tweetsSent = 0;
+        for (LeagueBot leagueBot : this.leagueBots) {
+            tweetsSent += leagueBot.tweetQueue.getTweetsSent();
+        }
+        return tweetsSent;
+    }
+
+    /**
+     * Gets the configs of a league. A config of the league is set with the
+     * league's name and a "." in front of its key, and every config not set for the
+     * league is read from the config without a league name.
+     * 
+     * @param leagueName The name of the league in LEAGUES
+     * @return The configs of the league
+     */
+    private Properties getLeagueConfigs(String leagueName) {
+        Properties leagueConfigs = new Properties(this.configs);
+        String prefix = leagueName + ".";
+        for (String key : this.configs.stringPropertyNames()) {
+            if (key.startsWith(prefix)) {
+                leagueConfigs.setProperty(key.substring(prefix.length()), this.configs.getProperty(key));
+            }
+        }
+        return leagueConfigs;
+    }
+
     /**
      * Function to load the configs for the twitter bot.
      * 
@@ -222,14 +416,18 @@ public class LoLProTwitterBot {
 
             properties.load(fileInputStream);
 
-            if (properties.containsKey("LOCATION_FOR_LOG_FILE") && properties.containsKey("PLAYER_ROSTER_FILE_LOCATION")
+            // the configs of each league are checked once the leagues are created
+            boolean hasLeagueConfigs = properties.containsKey("LEAGUES")
+                    || (properties.containsKey("PLAYER_ROSTER_FILE_LOCATION")
+                            && properties.containsKey("TWITTER_CONSUMER_KEY")
+                            && properties.containsKey("TWITTER_CONSUMER_SECRET")
+                            && properties.containsKey("TWITTER_ACCESS_TOKEN")
+                            && properties.containsKey("TWITTER_ACCESS_TOKEN_SECRET")
+                            && properties.containsKey("MINIMUM_GAMESCORE_TO_TWEET"));
+
+            if (properties.containsKey("LOCATION_FOR_LOG_FILE") && hasLeagueConfigs
                     && properties.containsKey("RIOT_API_KEY") && properties.containsKey("RIOT_API_REGION")
                     && properties.containsKey("TWITCH_CLIENT_ID") && properties.containsKey("TWITCH_CLIENT_SECRET")
-                    && properties.containsKey("TWITTER_CONSUMER_KEY")
-                    && properties.containsKey("TWITTER_CONSUMER_SECRET")
-                    && properties.containsKey("TWITTER_ACCESS_TOKEN")
-                    && properties.containsKey("TWITTER_ACCESS_TOKEN_SECRET")
-                    && properties.containsKey("MINIMUM_GAMESCORE_TO_TWEET")
                     && properties.containsKey("INTERVAL_TO_SCAN_ACTIVE_GAMES_IN_SECONDS")
                     && properties.containsKey("SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED_RIOT_API")
                     && properties.containsKey("SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED_TWITCH_API")
@@ -258,7 +456,7 @@ public class LoLProTwitterBot {
      * @param redTeamStreamers  HashMap of streamers and view counts on red team
      * @return An integer representing the "gamescore" value
      */
-    private int calculateGameScore(SoloQueueGame gameToScore, HashMap<Player, Integer> blueTeamStreamers,
+    protected int calculateGameScore(SoloQueueGame gameToScore, HashMap<Player, Integer> blueTeamStreamers,
             HashMap<Player, Integer> redTeamStreamers) {
         SoloQueueTeam blueTeam = gameToScore.getBlueTeam();
         SoloQueueTeam redTeam = gameToScore.getRedTeam();
@@ -333,111 +531,128 @@ public class LoLProTwitterBot {
      *                          the value to represent streamers on the red team and
      *                          their viewcounts
      * @param gameScore         The "gameScore" of the game being tweeted
-     * @return A String to be tweeted
+     * @return A String to be tweeted that is within Twitter's character limit or
+     *         null if there is no streamer in the game
      */
-    private String createTweet(SoloQueueGame gameToTweet, HashMap<Player, Integer> blueTeamStreamers,
+    protected String createTweet(SoloQueueGame gameToTweet, HashMap<Player, Integer> blueTeamStreamers,
             HashMap<Player, Integer> redTeamStreamers, int gameScore) {
 
-        SoloQueueTeam blueTeam = gameToTweet.getBlueTeam();
-        SoloQueueTeam redTeam = gameToTweet.getRedTeam();
-        ArrayList<Player> blueTeamPlayers = new ArrayList<>(blueTeam.getPlayers().keySet());
-        ArrayList<Player> redTeamPlayers = new ArrayList<>(redTeam.getPlayers().keySet());
-
-        StringBuilder tweetString = new StringBuilder("(" + gameScore + ")\n");
-
-        // getting the heigest viewed streamer
-        Entry<Player, Integer> heighestViewCountStreamer = null;
-        for (Entry<Player, Integer> entry : blueTeamStreamers.entrySet()) {
-            if (entry.getKey() != null) {
-                if (heighestViewCountStreamer == null) {
-                    heighestViewCountStreamer = entry;
-                } else if (entry.getValue() > heighestViewCountStreamer.getValue()) {
-                    heighestViewCountStreamer = entry;
+        return this.tweetRenderer.render(gameToTweet, blueTeamStreamers, redTeamStreamers, gameScore);
+    }
+
+    /**
+     * Method to check to make sure that all is loaded and all Api handlers are
+     * working. The setup is run as a SetupTaskGraph so the steps that do not
+     * depend on each other, like the Riot Games Api and the Twitch.tv Api steps,
+     * run at the same time. How long each step took is logged. The summoner ids
+     * and twitch user ids that are not known yet, from the checkpoint or the
+     * summoner id cache, are loaded in the background so scanning starts right
+     * away. A scan that runs while summoner ids are loaded scans them as they
+     * arrive.
+     * 
+     * @return True if all tasks were preformed successfully and false otherwises
+     */
+    protected boolean preformSetupTasks() {
+        SetupTaskGraph setupTasks = new SetupTaskGraph(this.logger);
+        setupTasks.addTask("metrics server",
+                () -> this.metricsServer == null || this.metricsServer.start());
+        setupTasks.addTask("tweet stores", () -> {
+            for (LeagueBot leagueBot : this.leagueBots) {
+                if (!leagueBot.tweetedGames.load() || !leagueBot.tweetQueue.load()) {
+                    return false;
                 }
             }
+            return true;
+        });
+        String[] riotApiChecks = new String[this.riotApiHandlers.size()];
+        for (int i = 0; i < riotApiChecks.length; i++) {
+            RiotApiHandler riotApiHandler = this.riotApiHandlers.get(i);
+            riotApiChecks[i] = "riot api check " + riotApiHandler.getRegion();
+            setupTasks.addTask(riotApiChecks[i], riotApiHandler::isWorking);
         }
-        for (Entry<Player, Integer> entry : redTeamStreamers.entrySet()) {
-            if (entry.getKey() != null) {
-                if (heighestViewCountStreamer == null) {
-                    heighestViewCountStreamer = entry;
-                } else if (entry.getValue() > heighestViewCountStreamer.getValue()) {
-                    heighestViewCountStreamer = entry;
+        setupTasks.addTask("twitch token", this.twitchApiHandler::loadToken);
+        setupTasks.addTask("player rosters", () -> {
+            for (LeagueBot leagueBot : this.leagueBots) {
+                if (!leagueBot.league.loadPlayers(leagueBot.playerRosterFile)) {
+                    return false;
                 }
             }
-        }
-
-        tweetString.append("Blue Side: \n");
-        if (!blueTeamPlayers.isEmpty()) {
-            for (Player player : blueTeamPlayers) {
-                if (!player.getTwitterHandle().equals("")) {
-                    tweetString.append("    @" + player.getTwitterHandle());
-                } else {
-                    tweetString.append("    " + player.getTeam() + " " + player.getName());
+            return true;
+        });
+        setupTasks.addTask("summoner id cache", () -> {
+            if (this.summonerIdCache != null) {
+                this.summonerIdCache.load();
+            }
+            return true;
+        });
+        // ids from the checkpoint are used first so only the missing ones are loaded
+        setupTasks.addTask("checkpoint ids", () -> {
+            if (this.checkpoint != null) {
+                if (!this.checkpoint.load()) {
+                    return false;
                 }
-                tweetString.append("\n");
+                this.checkpoint.restoreIds();
             }
-        } else {
-            tweetString.append("\n");
-        }
-
-        tweetString.append("Red Side: \n");
-        if (!redTeamPlayers.isEmpty()) {
-            for (Player player : redTeamPlayers) {
-                if (!player.getTwitterHandle().equals("")) {
-                    tweetString.append("    @" + player.getTwitterHandle());
-                } else {
-                    tweetString.append("    " + player.getTeam() + " " + player.getName());
+            return true;
+        }, "player rosters");
+
+        // the leagues are loaded one after the other so the accounts a league shares
+        // with the leagues before it are found in the summoner id cache. Scans that
+        // start before they are loaded pick up the summoner ids as they are resolved
+        ArrayList<String> summonerIdDependencies = new ArrayList<>(Arrays.asList(riotApiChecks));
+        summonerIdDependencies.add("summoner id cache");
+        summonerIdDependencies.add("checkpoint ids");
+        setupTasks.addBackgroundTask("summoner ids", () -> {
+            for (LeagueBot leagueBot : this.leagueBots) {
+                if (!leagueBot.league.loadPlayerSummonerIds(this.leagueScanner)) {
+                    return false;
                 }
-                tweetString.append("\n");
             }
-        } else {
-            tweetString.append("\n");
-        }
-
-        tweetString.append("Watch here: https://www.twitch.tv/" + heighestViewCountStreamer.getKey().getTwitchName());
-
-        return tweetString.toString();
-    }
-
-    /**
-     * Function to check if a game has already been tweeted so duplicate tweets are
-     * not made.
-     * 
-     * @param gameToCheck The game to check if it has been tweeted
-     * @return True if the game has been tweeted and false otherwise
-     */
-    private boolean gameAlreadyTweeted(SoloQueueGame gameToCheck) {
-        for (SoloQueueGame game : this.tweetedGames.keySet()) {
-            if (game != null) {
-                if (game.getGameId() == gameToCheck.getGameId()) {
-                    return true;
+            return true;
+        }, summonerIdDependencies.toArray(new String[0]));
+        // the live streamers are loaded with the twitch user ids, and games are not
+        // scored until both are loaded. The live streamers are refreshed even if
+        // some ids could not be loaded, and the missing ids are loaded again on
+        // each refresh
+        this.twitchApiHandler.startBackgroundTwitchUserIdLoading();
+        setupTasks.addBackgroundTask("twitch ids", () -> {
+            boolean twitchUserIdsLoaded = false;
+            try {
+                boolean loaded = true;
+                for (LeagueBot leagueBot : this.leagueBots) {
+                    if (!this.twitchApiHandler.loadTwitchUserIds(leagueBot.league)) {
+                        loaded = false;
+                    }
+                }
+                twitchUserIdsLoaded = loaded;
+                return loaded;
+            } finally {
+                if (this.liveStreamerCache != null) {
+                    this.liveStreamerCache.start(twitchUserIdsLoaded);
                 }
+                this.twitchApiHandler.finishBackgroundTwitchUserIdLoading();
             }
-        }
-        return false;
-    }
-
-    /**
-     * Method to check to make sure that all is loaded and all Api handlers are
-     * working.
-     * 
-     * @return True if all tasks were preformed successfully and false otherwises
-     */
-    private boolean preformSetupTasks() {
-        if (!this.riotApiHandler.isWorking()) {
-            return false;
-        }
-        if (!this.twitchApiHandler.loadToken()) {
-            return false;
-        }
-        if (!this.league.loadPlayers(this.playerRosterFile)) {
+        }, "twitch token", "checkpoint ids");
+        // the games are rebuilt from the ids restored from the checkpoint
+        setupTasks.addTask("checkpoint games", () -> {
+            if (this.checkpoint != null) {
+                this.checkpoint.restoreGames();
+            }
+            return true;
+        }, "checkpoint ids", "tweet stores");
+        if (!setupTasks.awaitAll()) {
             return false;
         }
-        if (!this.league.loadPlayerSummonerIds(this.riotApiHandler)) {
-            return false;
+
+        if (this.checkpoint != null) {
+            this.checkpoint.start(this.CHECKPOINT_INTERVAL_IN_MINUTES);
         }
-        if (!this.twitchApiHandler.loadTwitchUserIds(this.league)) {
-            return false;
+        for (LeagueBot leagueBot : this.leagueBots) {
+            if (leagueBot.rosterWatcher != null && !leagueBot.rosterWatcher.start()) {
+                return false;
+            }
+            leagueBot.tweetQueue.start();
+            leagueBot.gamePipeline.start();
         }
         return true;
     }
@@ -447,8 +662,28 @@ public class LoLProTwitterBot {
      * 
      * @return True if closing tasks preformed successfully and false otherwise
      */
-    private boolean preformClosingTasks() {
+    protected boolean preformClosingTasks() {
         try {
+            if (this.liveStreamerCache != null) {
+                this.liveStreamerCache.stop();
+            }
+            for (LeagueBot leagueBot : this.leagueBots) {
+                if (leagueBot.rosterWatcher != null) {
+                    leagueBot.rosterWatcher.stop();
+                }
+                leagueBot.gamePipeline.stop();
+                leagueBot.tweetQueue.stop();
+            }
+            if (this.metricsServer != null) {
+                this.metricsServer.stop();
+            }
+            // the last checkpoint is written once nothing is changing the state anymore
+            if (this.checkpoint != null) {
+                this.checkpoint.stop();
+            }
+            for (LeagueBot leagueBot : this.leagueBots) {
+                leagueBot.tweetedGames.close();
+            }
             this.twitchApiHandler.revokeToken();
             this.logger.info("Closing Logger");
             for (Handler handler : this.logger.getHandlers()) {
@@ -461,4 +696,34 @@ public class LoLProTwitterBot {
 
     }
 
+    /**
+     * A league the bot tracks, with its roster, the Twitter account its games are
+     * tweeted to, and the configs they are created from.
+     */
+    private static class LeagueBot {
+
+        private String name;
+        private Properties configs;
+        private File playerRosterFile;
+        private League league;
+        private RosterWatcher rosterWatcher;
+        private TweetedGamesStore tweetedGames;
+        private TweetQueue tweetQueue;
+        private GamePipeline gamePipeline;
+
+        private LeagueBot(String name, Properties configs) {
+            this.name = name;
+            this.configs = configs;
+        }
+
+        /**
+         * Gets the name of the league for the log.
+         * 
+         * @return The name of the league
+         */
+        private String getDisplayName() {
+            return (this.name != null) ? "league " + this.name : "the league";
+        }
+    }
+
 }
\ No newline at end of file
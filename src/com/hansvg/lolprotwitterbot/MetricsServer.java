@@ -0,0 +1,105 @@
+/**
+ * The MetricsServer class serves the BotMetrics in the Prometheus text format at /metrics from a small embedded http server.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class MetricsServer {
+
+    private BotMetrics metrics;
+    private Logger logger;
+
+    private HttpServer httpServer;
+    private ExecutorService serverExecutorService;
+
+    private String METRICS_HOST;
+    private int METRICS_PORT;
+
+    /**
+     * MetricsServer Class Constructor.
+     *
+     * @param metrics The BotMetrics to serve
+     * @param host    The host name or address to listen on
+     * @param port    The port to listen on
+     * @param logger  The Logger object to log the processes
+     */
+    protected MetricsServer(BotMetrics metrics, String host, int port, Logger logger) {
+        this.metrics = metrics;
+        this.logger = logger;
+        this.METRICS_HOST = host;
+        this.METRICS_PORT = port;
+    }
+
+    /**
+     * Starts listening for requests on a single background thread.
+     *
+     * @return True if the server was started and false otherwise
+     */
+    protected boolean start() {
+        try {
+            this.httpServer = HttpServer.create(new InetSocketAddress(this.METRICS_HOST, this.METRICS_PORT), 0);
+            this.httpServer.createContext("/metrics", this::handle);
+            this.serverExecutorService = Executors.newSingleThreadExecutor(runnable -> {
+                Thread serverThread = new Thread(runnable, "MetricsServer");
+                serverThread.setDaemon(true);
+                return serverThread;
+            });
+            this.httpServer.setExecutor(this.serverExecutorService);
+            this.httpServer.start();
+            // LOG
+            this.logger.info("Serving metrics at http://" + this.METRICS_HOST + ":" + this.METRICS_PORT + "/metrics");
+            return true;
+        } catch (IOException e) {
+            // LOG
+            this.logger.severe("IOException");
+            return false;
+        }
+    }
+
+    /**
+     * Stops the server.
+     */
+    protected void stop() {
+        if (this.httpServer != null) {
+            this.httpServer.stop(0);
+            this.serverExecutorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Answers a request to /metrics with the current metrics.
+     *
+     * @param exchange The request and its response
+     * @throws IOException If the response could not be sent
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = this.metrics.toPrometheusText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+}
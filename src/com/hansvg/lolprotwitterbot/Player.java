@@ -17,8 +17,11 @@ class Player {
     private String team;
     private String twitterHandle;
     private String twitchName;
+    private String tweetMention;
+    private int tweetMentionWeightedLength;
     private String twitchUserId;
     private String[] summonerNames;
+    private String[] summonerRegions;
     private String[] summonerIds;
 
     /**
@@ -30,7 +33,8 @@ class Player {
      * @param team          Player team
      * @param twitterHandle Player twitter handle
      * @param twitchName    Player twitch channel name
-     * @param summonerNames Array of Player summoner names
+     * @param summonerNames Array of Player summoner names, each optionally
+     *                      tagged with the region it is on like "euw1:Name"
      */
     protected Player(String name, String position, String team, String twitterHandle, String twitchName,
             String[] summonerNames) {
@@ -51,8 +55,23 @@ class Player {
             this.twitchName = twitchName;
         }
 
-        this.summonerNames = summonerNames;
+        this.summonerNames = new String[summonerNames.length];
+        this.summonerRegions = new String[summonerNames.length];
+        for (int i = 0; i < summonerNames.length; i++) {
+            // summoner names can not contain a ':' so it only ever separates a region tag
+            int regionSeparatorIndex = summonerNames[i].indexOf(':');
+            if (regionSeparatorIndex >= 0) {
+                this.summonerRegions[i] = summonerNames[i].substring(0, regionSeparatorIndex).trim().toLowerCase();
+                this.summonerNames[i] = summonerNames[i].substring(regionSeparatorIndex + 1);
+            } else {
+                this.summonerNames[i] = summonerNames[i];
+            }
+        }
         summonerIds = new String[summonerNames.length];
+
+        // made once here as it is the same in every tweet the Player is in
+        this.tweetMention = this.twitterHandle.equals("") ? (this.team + " " + this.name) : ("@" + this.twitterHandle);
+        this.tweetMentionWeightedLength = TweetRenderer.weightedLength(this.tweetMention);
     }
 
     /**
@@ -100,6 +119,25 @@ class Player {
         return this.twitchName;
     }
 
+    /**
+     * Getter for how the Player is mentioned in a tweet, their twitter handle or
+     * their team and name if they have none.
+     * 
+     * @return The Player's mention
+     */
+    protected String getTweetMention() {
+        return this.tweetMention;
+    }
+
+    /**
+     * Getter for the length Twitter counts the Player's mention as.
+     * 
+     * @return The weighted length of the Player's mention
+     */
+    protected int getTweetMentionWeightedLength() {
+        return this.tweetMentionWeightedLength;
+    }
+
     /**
      * Setter for the Player's twitch user id
      * 
@@ -127,6 +165,16 @@ class Player {
         return this.summonerNames;
     }
 
+    /**
+     * Getter for the regions of the Player's summoner names.
+     * 
+     * @return Array of the region each summoner name is on, null for the summoner
+     *         names that were not tagged with a region
+     */
+    protected String[] getSummonerRegions() {
+        return this.summonerRegions;
+    }
+
     /**
      * Getter for the Player's summoner ids.
      * 
@@ -136,6 +184,69 @@ class Player {
         return this.summonerIds;
     }
 
+    /**
+     * Gets the summoner id of the Player's account with the passed in summoner
+     * name on the passed in region. Summoner names are compared ignoring case and
+     * spaces like the Riot Games API does. Accounts that are not tagged with a
+     * region are on the default region.
+     *
+     * @param region        The lower case region of the account
+     * @param defaultRegion The region of the accounts that are not tagged with a
+     *                      region
+     * @param summonerName  The summoner name of the account
+     * @return The summoner id of the account or null if the Player does not own the
+     *         summoner name on the region or its summoner id is not loaded
+     */
+    protected String getSummonerIdFromName(String region, String defaultRegion, String summonerName) {
+        String normalizedSummonerName = normalizeSummonerName(summonerName);
+        for (int i = 0; i < this.summonerNames.length; i++) {
+            String summonerRegion = (this.summonerRegions[i] != null) ? this.summonerRegions[i] : defaultRegion;
+            if (summonerRegion.equals(region)
+                    && normalizedSummonerName.equals(normalizeSummonerName(this.summonerNames[i]))) {
+                return this.summonerIds[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the passed in summoner name without spaces and in lower case, the way
+     * the Riot Games API compares summoner names.
+     *
+     * @param summonerName The summoner name to normalize
+     * @return The normalized summoner name
+     */
+    protected static String normalizeSummonerName(String summonerName) {
+        StringBuilder normalizedSummonerName = null;
+        for (int i = 0; i < summonerName.length(); i++) {
+            char c = summonerName.charAt(i);
+            if (c == ' ' || Character.toLowerCase(c) != c) {
+                // only copied once a character has to change
+                if (normalizedSummonerName == null) {
+                    normalizedSummonerName = new StringBuilder(summonerName.length());
+                    normalizedSummonerName.append(summonerName, 0, i);
+                }
+                if (c != ' ') {
+                    normalizedSummonerName.append(Character.toLowerCase(c));
+                }
+            } else if (normalizedSummonerName != null) {
+                normalizedSummonerName.append(c);
+            }
+        }
+        return (normalizedSummonerName == null) ? summonerName : normalizedSummonerName.toString();
+    }
+
+    /**
+     * Setter for one of the Player's summoner ids. Should only be called by the
+     * League the Player belongs to so its indexes stay up to date.
+     * 
+     * @param summonerIndex The index of the summoner name the id belongs to
+     * @param summonerId    The summoner id to set
+     */
+    protected void setSummonerId(int summonerIndex, String summonerId) {
+        this.summonerIds[summonerIndex] = summonerId;
+    }
+
     /**
      * Checks if the Player object owns the passed in summoner name.
      * 
@@ -6,38 +6,87 @@
  */
 package com.hansvg.lolprotwitterbot;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Logger;
 
 import org.json.JSONObject;
 
 class RiotApiHandler {
 
+    private final String SUMMONER_BY_NAME_METHOD = "summoner/v4/summoners/by-name";
+    private final String ACTIVE_GAME_BY_SUMMONER_METHOD = "spectator/v4/active-games/by-summoner";
+
     private HttpClient httpClient;
+    private RiotRateLimiter[] rateLimiters;
+    private ConcurrentHashMap<String, Integer> apiKeyIndexesBySummonerName;
+    private SummonerActivityScheduler activityScheduler;
+    private SummonerIdCache summonerIdCache;
+    private BotMetrics metrics;
+    private HashSet<String> staleSummonerIds;
+    private ExecutorService scannerExecutorService;
+    private ExecutorService resolverExecutorService;
     private Logger logger;
 
+    // the summoner ids left to scan with each api key while a scan is running, so
+    // summoner ids resolved during the scan are added to it
+    private volatile ArrayList<ArrayDeque<String>> runningScanSummonerIds;
+    private HashSet<String> runningScanKnownSummonerIds;
+    private int summonerIdsAddedToRunningScan;
+
     private int SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED;
-    private String RIOT_API_KEY;
+    private int MAX_CONCURRENT_RIOT_API_REQUESTS;
+    private String[] RIOT_API_KEYS;
+    private String[] RIOT_API_KEY_FINGERPRINTS;
     private String RIOT_REGION;
+    private boolean SCANS_UNTAGGED_ACCOUNTS;
+    private String RIOT_API_BASE_URL;
 
     /**
-     * RiotApiHandler Class Constructor.
+     * RiotApiHandler Class Constructor. Each RiotApiHandler scans the accounts on
+     * one region with its own rate limits and scanner threads. RIOT_API_KEY can
+     * hold a comma separated list of api keys that the accounts are split between,
+     * with each key getting its own rate limits and scanner threads.
      * 
-     * @param configs The configs for the twitter bot
-     * @param logger  The Logger object to log the processes
+     * @param configs               The configs for the twitter bot
+     * @param logger                The Logger object to log the processes
+     * @param region                The platform routing value of the region to
+     *                              scan, like na1 or euw1
+     * @param scansUntaggedAccounts True if the accounts in the roster that are not
+     *                              tagged with a region are on this region
+     * @param summonerIdCache       The summoner id cache shared by all regions or
+     *                              null if summoner ids are not cached
+     * @param metrics               The BotMetrics the calls to the Riot Games API
+     *                              are recorded in
      * @throws Exception
      */
-    protected RiotApiHandler(Properties configs, Logger logger) throws NumberFormatException, Exception {
+    protected RiotApiHandler(Properties configs, Logger logger, String region, boolean scansUntaggedAccounts,
+            SummonerIdCache summonerIdCache, BotMetrics metrics) throws NumberFormatException, Exception {
         httpClient = HttpClient.newHttpClient();
         this.logger = logger;
+        this.metrics = metrics;
 
         this.SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED = Integer
                 .parseInt(configs.getProperty("SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED_RIOT_API", "30"));
@@ -46,43 +95,121 @@ class RiotApiHandler {
             throw new Exception();
         }
 
-        this.RIOT_API_KEY = configs.getProperty("RIOT_API_KEY");
-        if (this.RIOT_API_KEY == null) {
+        String riotApiKeys = configs.getProperty("RIOT_API_KEY");
+        if (riotApiKeys == null) {
+            this.logger.severe("NULL Riot Api key in config file.");
+            throw new Exception();
+        }
+        ArrayList<String> apiKeys = new ArrayList<>();
+        for (String apiKey : riotApiKeys.split(",")) {
+            if (!apiKey.trim().equals("") && !apiKeys.contains(apiKey.trim())) {
+                apiKeys.add(apiKey.trim());
+            }
+        }
+        if (apiKeys.isEmpty()) {
             this.logger.severe("NULL Riot Api key in config file.");
             throw new Exception();
         }
+        this.RIOT_API_KEYS = apiKeys.toArray(new String[0]);
+        this.apiKeyIndexesBySummonerName = new ConcurrentHashMap<>();
+        this.RIOT_API_KEY_FINGERPRINTS = new String[this.RIOT_API_KEYS.length];
+        for (int apiKeyIndex = 0; apiKeyIndex < this.RIOT_API_KEYS.length; apiKeyIndex++) {
+            this.RIOT_API_KEY_FINGERPRINTS[apiKeyIndex] = createApiKeyFingerprint(this.RIOT_API_KEYS[apiKeyIndex]);
+        }
+
+        // every api key has its own rate limits
+        this.rateLimiters = new RiotRateLimiter[this.RIOT_API_KEYS.length];
+        for (int apiKeyIndex = 0; apiKeyIndex < this.RIOT_API_KEYS.length; apiKeyIndex++) {
+            this.rateLimiters[apiKeyIndex] = new RiotRateLimiter(
+                    configs.getProperty("RIOT_API_APP_RATE_LIMIT", "20:1,100:120"),
+                    this.SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED);
+        }
+
+        int maxRequestsPerScan = Integer.parseInt(configs.getProperty("MAX_RIOT_API_REQUESTS_PER_SCAN", "-1"));
+        int maxScansBetweenChecks = Integer
+                .parseInt(configs.getProperty("MAX_SCANS_BETWEEN_CHECKS_OF_INACTIVE_ACCOUNTS", "8"));
+        int hoursAccountStaysActive = Integer
+                .parseInt(configs.getProperty("HOURS_ACCOUNT_STAYS_ACTIVE_AFTER_GAME", "12"));
+        if (maxScansBetweenChecks < 1) {
+            this.logger.severe("Invalid Integer for MAX_SCANS_BETWEEN_CHECKS_OF_INACTIVE_ACCOUNTS in config file.");
+            throw new Exception();
+        }
+        if (hoursAccountStaysActive < 0) {
+            this.logger.severe("Invalid Integer for HOURS_ACCOUNT_STAYS_ACTIVE_AFTER_GAME in config file.");
+            throw new Exception();
+        }
+        this.activityScheduler = new SummonerActivityScheduler(maxRequestsPerScan, maxScansBetweenChecks,
+                hoursAccountStaysActive);
+
+        this.summonerIdCache = summonerIdCache;
+        if (this.summonerIdCache != null) {
+            this.summonerIdCache.addApiKeyFingerprints(this.RIOT_API_KEY_FINGERPRINTS);
+        }
+        this.staleSummonerIds = new HashSet<>();
 
-        this.RIOT_REGION = configs.getProperty("RIOT_API_REGION");
-        if (this.RIOT_REGION == null) {
-            this.logger.severe("NULL Riot Region key in config file.");
+        this.MAX_CONCURRENT_RIOT_API_REQUESTS = Integer
+                .parseInt(configs.getProperty("MAX_CONCURRENT_RIOT_API_REQUESTS", "1"));
+        if (this.MAX_CONCURRENT_RIOT_API_REQUESTS < 1) {
+            this.logger.severe("Invalid Integer for MAX_CONCURRENT_RIOT_API_REQUESTS in config file.");
             throw new Exception();
         }
+        this.scannerExecutorService = Executors.newFixedThreadPool(
+                this.MAX_CONCURRENT_RIOT_API_REQUESTS * this.RIOT_API_KEYS.length, runnable -> {
+                    Thread scannerThread = new Thread(runnable, "RiotApiScanner-" + region);
+                    scannerThread.setDaemon(true);
+                    return scannerThread;
+                });
+        // resolving has its own threads so a scan is not stuck behind the resolvers
+        this.resolverExecutorService = Executors.newFixedThreadPool(
+                this.MAX_CONCURRENT_RIOT_API_REQUESTS * this.RIOT_API_KEYS.length, runnable -> {
+                    Thread resolverThread = new Thread(runnable, "RiotApiResolver-" + region);
+                    resolverThread.setDaemon(true);
+                    return resolverThread;
+                });
+
+        this.RIOT_REGION = region;
+        this.SCANS_UNTAGGED_ACCOUNTS = scansUntaggedAccounts;
+
+        // {region} is filled in so the same setting works for any region
+        this.RIOT_API_BASE_URL = configs.getProperty("RIOT_API_BASE_URL", "https://{region}.api.riotgames.com")
+                .replace("{region}", this.RIOT_REGION);
+    }
+
+    /**
+     * Getter for the region this RiotApiHandler scans.
+     *
+     * @return The region
+     */
+    protected String getRegion() {
+        return this.RIOT_REGION;
     }
 
     /**
      * Checks if the RiotApiHandler is working by making a simple call to the Riot
-     * Games API and checking the responce.
+     * Games API with each api key and checking the responces.
      * 
-     * @return True if the RiotApiHandler is found to be working and false otherwise
+     * @return True if the RiotApiHandler is found to be working with every api key
+     *         and false otherwise
      */
     protected boolean isWorking() {
         try {
-            URI requestURI = new URI("https://" + this.RIOT_REGION
-                    + ".api.riotgames.com/lol/summoner/v4/summoners/by-name/" + summonerNameNoSpaces("Hansie"));
-
-            HttpRequest request = HttpRequest.newBuilder().uri(requestURI).header("X-Riot-Token", this.RIOT_API_KEY)
-                    .build();
-
-            HttpResponse<String> response = this.httpClient.send(request, BodyHandlers.ofString());
-
-            if (response.statusCode() == 200 || response.statusCode() == 404 || response.statusCode() == 429) {
-                this.logger.info("RiotApiHandler Tested and Working");
-                return true;
-            } else {
-                this.logger
-                        .info("RiotApiHandler Tested and Not Working. Status Code returned: " + response.statusCode());
-                return false;
+            URI requestURI = new URI(
+                    this.RIOT_API_BASE_URL + "/lol/summoner/v4/summoners/by-name/" + summonerNameNoSpaces("Hansie"));
+
+            for (int apiKeyIndex = 0; apiKeyIndex < this.RIOT_API_KEYS.length; apiKeyIndex++) {
+                HttpResponse<String> response = sendRiotApiRequest(requestURI, SUMMONER_BY_NAME_METHOD,
+                        BodyHandlers.ofString(), apiKeyIndex);
+
+                if (response.statusCode() != 200 && response.statusCode() != 404) {
+                    this.logger.info("RiotApiHandler for " + this.RIOT_REGION
+                            + " Tested and Not Working with Riot Api key " + (apiKeyIndex + 1)
+                            + ". Status Code returned: " + response.statusCode());
+                    return false;
+                }
             }
+            this.logger.info("RiotApiHandler for " + this.RIOT_REGION + " Tested and Working with "
+                    + this.RIOT_API_KEYS.length + " Riot Api key(s)");
+            return true;
 
         } catch (URISyntaxException e) {
             this.logger.severe("URISyntaxException");
@@ -97,149 +224,681 @@ class RiotApiHandler {
     }
 
     /**
-     * Gets account information for each player passed in's summoner names and
-     * updates the player's summoner ids.
+     * Gets account information for each player passed in's summoner names on this
+     * region and updates the player's summoner ids. Summoner ids found in the
+     * summoner id cache are used without calling the Riot Games API.
      * 
-     * @param players ArrayList of Players to load summoner ids
+     * @param league The League containing the Players to load summoner ids for
      * @throws URISyntaxException   If there was a problem with the syntax of the
      *                              uri
-     * @throws InterruptedException If there was an exception when using the
-     *                              Thread.sleep() function
+     * @throws InterruptedException If the thread was interrupted while waiting on the
+     *                              RiotRateLimiter
      * @throws IOException          If an input or output exception occurred
      */
-    protected void loadSummonerIds(ArrayList<Player> players)
-            throws URISyntaxException, InterruptedException, IOException {
+    protected void loadSummonerIds(League league) throws URISyntaxException, InterruptedException, IOException {
+        loadSummonerIds(league, league.getPlayers());
+    }
 
-        double percentComplete = 0;
-        for (int currentPlayerIndex = 0; currentPlayerIndex < players.size(); currentPlayerIndex++) {
-            Player currentPlayer = players.get(currentPlayerIndex);
+    /**
+     * Loads the summoner ids of the passed in Players' accounts on this region that
+     * do not have one yet. Summoner ids found in the summoner id cache are used
+     * without calling the Riot Games API. The rest are resolved with the api key
+     * each account is assigned to, with up to MAX_CONCURRENT_RIOT_API_REQUESTS
+     * accounts resolved at once per api key. A summoner id resolved while a scan is
+     * running is added to it, and one resolved after the scan has run out of
+     * summoner ids is scanned in the next scan.
+     * 
+     * @param league  The League the Players belong to
+     * @param players The Players to load summoner ids for
+     * @throws URISyntaxException   If there was a problem with the syntax of the
+     *                              uri
+     * @throws InterruptedException If the thread was interrupted while waiting on the
+     *                              RiotRateLimiter
+     * @throws IOException          If an input or output exception occurred
+     */
+    protected void loadSummonerIds(League league, ArrayList<Player> players)
+            throws URISyntaxException, InterruptedException, IOException {
+        // the accounts to resolve split by api key
+        ArrayList<ArrayDeque<AccountToResolve>> accountsByApiKey = new ArrayList<>();
+        for (int apiKeyIndex = 0; apiKeyIndex < this.RIOT_API_KEYS.length; apiKeyIndex++) {
+            accountsByApiKey.add(new ArrayDeque<>());
+        }
+        for (Player currentPlayer : players) {
             for (int currentSummonerIndex = 0; currentSummonerIndex < currentPlayer
                     .getSummonerNames().length; currentSummonerIndex++) {
+                if (!isInRegion(currentPlayer, currentSummonerIndex)
+                        || currentPlayer.getSummonerIds()[currentSummonerIndex] != null) {
+                    continue;
+                }
                 String currentSummonerName = (currentPlayer.getSummonerNames())[currentSummonerIndex];
 
-                URI uri = new URI(
-                        "https://" + this.RIOT_REGION + ".api.riotgames.com/lol/summoner/v4/summoners/by-name/"
-                                + summonerNameNoSpaces(currentSummonerName));
-                HttpRequest request = HttpRequest.newBuilder().GET().uri(uri).header("X-Riot-Token", this.RIOT_API_KEY)
-                        .build();
-
-                HttpResponse<String> response = this.httpClient.send(request, BodyHandlers.ofString());
-
-                if (response.statusCode() == 200) {
-                    JSONObject responseBodyJSON = new JSONObject(response.body());
-                    String currentSummonerId = responseBodyJSON.getString("id");
-                    currentPlayer.getSummonerIds()[currentSummonerIndex] = currentSummonerId;
-
-                } else if (response.statusCode() == 404) {
-                    // summoner name does not exist
-                    currentPlayer.getSummonerIds()[currentSummonerIndex] = null;
-                    // LOG
-                    this.logger.warning(currentPlayer.getName() + "'s account, \"" + currentSummonerName
-                            + "\", could not be found by Riot Games Api");
-                } else if (response.statusCode() == 429) {
-                    // rate limit reached
-                    // LOG
-                    this.logger.warning("Riot Games Api Rate Limit Reached. Retrying after "
-                            + (SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED) + " seconds");
-                    currentSummonerIndex--;
-                    Thread.sleep(1000 * SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED);
+                String cachedSummonerId = null;
+                if (this.summonerIdCache != null) {
+                    cachedSummonerId = this.summonerIdCache.getSummonerId(this.RIOT_REGION,
+                            getApiKeyFingerprint(currentSummonerName), currentSummonerName);
+                }
+
+                if (cachedSummonerId != null) {
+                    league.setSummonerId(currentPlayer, currentSummonerIndex, cachedSummonerId);
+                    finishResolving(cachedSummonerId, getApiKeyIndex(currentSummonerName));
                 } else {
-                    // error with getting information from api
-                    currentPlayer.getSummonerIds()[currentSummonerIndex] = null;
-                    // LOG
-                    this.logger
-                            .warning("Error gathering information for summoner ids from Riot Games Api. Status Code: "
-                                    + response.statusCode());
+                    accountsByApiKey.get(getApiKeyIndex(currentSummonerName))
+                            .add(new AccountToResolve(currentPlayer, currentSummonerIndex));
                 }
+            }
+        }
 
+        int initialAmountOfAccounts = 0;
+        for (ArrayDeque<AccountToResolve> accounts : accountsByApiKey) {
+            initialAmountOfAccounts += accounts.size();
+        }
+        if (initialAmountOfAccounts > 0) {
+            int amountOfAccounts = initialAmountOfAccounts;
+            ArrayList<Callable<Void>> resolvers = new ArrayList<>();
+            for (int apiKeyIndex = 0; apiKeyIndex < this.RIOT_API_KEYS.length; apiKeyIndex++) {
+                ArrayDeque<AccountToResolve> accounts = accountsByApiKey.get(apiKeyIndex);
+                for (int i = 0; i < this.MAX_CONCURRENT_RIOT_API_REQUESTS && i < accounts.size(); i++) {
+                    resolvers.add(() -> {
+                        resolveSummonerIds(accountsByApiKey, accounts, amountOfAccounts, league);
+                        return null;
+                    });
+                }
             }
 
-            // Loading bar
-            percentComplete = ((double) currentPlayerIndex / (double) (players.size() - 1));
-            System.out.print("Loading Summoner Ids: |");
-            for (int c = 0; c < 50; c++) {
-                if (c < (int) (percentComplete * 50)) {
-                    System.out.print("#");
+            LeagueScanner.runAll(this.resolverExecutorService, resolvers);
+            System.out.println();
+        }
+
+        if (this.summonerIdCache != null) {
+            this.summonerIdCache.save();
+        }
+    }
+
+    /**
+     * Helper method for the loadSummonerIds() function that is run by each resolver
+     * thread. Takes accounts off of the list of its api key until it is empty and
+     * resolves their summoner ids. All access to the lists is synchronized on the
+     * lists.
+     * 
+     * @param accountsByApiKey        Lists of accounts still to be resolved with
+     *                                each api key
+     * @param accounts                The list of the api key this resolver uses
+     * @param initialAmountOfAccounts The amount of accounts there were to resolve
+     * @param league                  The League the accounts' Players belong to
+     * @throws URISyntaxException   If there was a problem with the syntax of the
+     *                              uri
+     * @throws InterruptedException If the thread was interrupted while waiting on the
+     *                              RiotRateLimiter
+     * @throws IOException          If an input or output exception occurred
+     */
+    private void resolveSummonerIds(ArrayList<ArrayDeque<AccountToResolve>> accountsByApiKey,
+            ArrayDeque<AccountToResolve> accounts, int initialAmountOfAccounts, League league)
+            throws URISyntaxException, InterruptedException, IOException {
+        while (true) {
+            AccountToResolve account;
+            synchronized (accountsByApiKey) {
+                account = accounts.pollFirst();
+            }
+            if (account == null) {
+                return;
+            }
+            String summonerName = account.player.getSummonerNames()[account.summonerIndex];
+            boolean resolved = false;
+            try {
+                resolveSummonerId(account.player, account.summonerIndex, league);
+                resolved = true;
+            } finally {
+                if (resolved) {
+                    finishResolving(account.player.getSummonerIds()[account.summonerIndex],
+                            getApiKeyIndex(summonerName));
                 } else {
-                    System.out.print(" ");
+                    // stop the other resolvers as loading the summoner ids has failed
+                    clearAccountsToResolve(accountsByApiKey);
                 }
             }
-            System.out.print("| " + (int) (percentComplete * 100) + "%\r");
 
+            synchronized (accountsByApiKey) {
+                int amountOfAccountsLeft = 0;
+                for (ArrayDeque<AccountToResolve> accountsOfApiKey : accountsByApiKey) {
+                    amountOfAccountsLeft += accountsOfApiKey.size();
+                }
+                printLoadingBar("Loading Summoner Ids (" + this.RIOT_REGION + ")",
+                        ((double) (initialAmountOfAccounts - amountOfAccountsLeft) / initialAmountOfAccounts));
+            }
+        }
+    }
+
+    /**
+     * Helper method for the loadSummonerIds() function that removes the accounts
+     * that are still waiting to be resolved, so the resolvers stop.
+     * 
+     * @param accountsByApiKey Lists of accounts still to be resolved with each api
+     *                         key
+     */
+    private void clearAccountsToResolve(ArrayList<ArrayDeque<AccountToResolve>> accountsByApiKey) {
+        synchronized (accountsByApiKey) {
+            for (ArrayDeque<AccountToResolve> accountsOfApiKey : accountsByApiKey) {
+                accountsOfApiKey.clear();
+            }
         }
-        System.out.println();
     }
 
     /**
-     * Checks if each player's summoner id is in an active SoloQueueGame and if they
-     * are a SoloQueueGame object is created and added to the ArrayList that is
-     * returned.
+     * Resolves the summoner ids that the Riot Games API rejected during the last
+     * scan again from their summoner names. An account in more than one League is
+     * only resolved once.
      * 
-     * @param players ArrayList of Players that you want to check if they are in a
-     *                SoloQueueGame
-     * @param league  The League the Players are a part of
+     * @param leagues The Leagues the summoner ids belong to
+     * @throws URISyntaxException   If there was a problem with the syntax of the
+     *                              uri
+     * @throws InterruptedException If the thread was interrupted while waiting on the
+     *                              RiotRateLimiter
+     * @throws IOException          If an input or output exception occurred
+     */
+    protected void refreshStaleSummonerIds(ArrayList<League> leagues)
+            throws URISyntaxException, InterruptedException, IOException {
+        ArrayList<String> summonerIdsToRefresh;
+        synchronized (this.staleSummonerIds) {
+            summonerIdsToRefresh = new ArrayList<>(this.staleSummonerIds);
+            this.staleSummonerIds.clear();
+        }
+
+        HashMap<String, String> refreshedSummonerIds = new HashMap<>();
+        for (String staleSummonerId : summonerIdsToRefresh) {
+            for (League league : leagues) {
+                Player player = league.getPlayerFromSummonerId(staleSummonerId);
+                if (player == null) {
+                    continue;
+                }
+                for (int summonerIndex = 0; summonerIndex < player.getSummonerIds().length; summonerIndex++) {
+                    if (staleSummonerId.equals(player.getSummonerIds()[summonerIndex])) {
+                        String summonerName = Player.normalizeSummonerName(player.getSummonerNames()[summonerIndex]);
+                        if (refreshedSummonerIds.containsKey(summonerName)) {
+                            league.setSummonerId(player, summonerIndex, refreshedSummonerIds.get(summonerName));
+                        } else {
+                            resolveSummonerId(player, summonerIndex, league);
+                            refreshedSummonerIds.put(summonerName, player.getSummonerIds()[summonerIndex]);
+                        }
+                    }
+                }
+            }
+        }
+
+        if (this.summonerIdCache != null && !summonerIdsToRefresh.isEmpty()) {
+            this.summonerIdCache.save();
+        }
+    }
+
+    /**
+     * Gets account information for one of the passed in player's summoner names
+     * from the Riot Games API with the api key the account is assigned to and
+     * updates the player's summoner id for it.
+     * 
+     * @param player        The Player that owns the summoner name
+     * @param summonerIndex The index of the summoner name in the Player's summoner
+     *                      names
+     * @param league        The League the Player belongs to
+     * @throws URISyntaxException   If there was a problem with the syntax of the
+     *                              uri
+     * @throws InterruptedException If the thread was interrupted while waiting on the
+     *                              RiotRateLimiter
+     * @throws IOException          If an input or output exception occurred
+     */
+    private void resolveSummonerId(Player player, int summonerIndex, League league)
+            throws URISyntaxException, InterruptedException, IOException {
+        String summonerName = player.getSummonerNames()[summonerIndex];
+
+        URI uri = new URI(this.RIOT_API_BASE_URL + "/lol/summoner/v4/summoners/by-name/"
+                + summonerNameNoSpaces(summonerName));
+
+        HttpResponse<String> response = sendRiotApiRequest(uri, SUMMONER_BY_NAME_METHOD, BodyHandlers.ofString(),
+                getApiKeyIndex(summonerName));
+
+        if (response.statusCode() == 200) {
+            JSONObject responseBodyJSON = new JSONObject(response.body());
+            String summonerId = responseBodyJSON.getString("id");
+            league.setSummonerId(player, summonerIndex, summonerId);
+            if (this.summonerIdCache != null) {
+                this.summonerIdCache.putSummonerId(this.RIOT_REGION, getApiKeyFingerprint(summonerName), summonerName,
+                        summonerId);
+            }
+        } else if (response.statusCode() == 404) {
+            // summoner name does not exist
+            league.setSummonerId(player, summonerIndex, null);
+            // LOG
+            this.logger.warning(
+                    player.getName() + "'s account, \"" + summonerName + "\", could not be found by Riot Games Api");
+        } else {
+            // error with getting information from api
+            league.setSummonerId(player, summonerIndex, null);
+            // LOG
+            this.logger.warning("Error gathering information for summoner ids from Riot Games Api. Status Code: "
+                    + response.statusCode());
+        }
+    }
+
+    /**
+     * Checks if each player's summoner id that the SummonerActivityScheduler picks
+     * for this scan is in an active SoloQueueGame and if they are a SoloQueueGame
+     * object is created and added to the ArrayList that is returned. The summoner
+     * ids of every GamePipeline's League are scanned together, so an account in
+     * more than one League is only looked up once. A game is created for each
+     * League with a player in it and submitted to that League's GamePipeline as
+     * soon as it is found. Each summoner id is looked up with the api key its
+     * account is assigned to and up to MAX_CONCURRENT_RIOT_API_REQUESTS summoner
+     * ids are looked up at once per api key.
+     * 
+     * @param summonerIdsToSkip  Summoner ids that are not checked, because they are
+     *                           already known to be in a game
+     * @param checkedSummonerIds Set the summoner ids the Riot Games API answered
+     *                           for, in a game or not, are added to
+     * @param gamePipelines      The GamePipelines the games found are submitted to,
+     *                           one for each League
      * @return An ArrayList of SoloQueueGame objects representing current games the
-     *         Players are in
+     *         Players are in, one for each League with a player in the game
      * @throws URISyntaxException   If there was a problem with the syntax of the
      *                              uri
      * @throws IOException          If an input or output exception occurred
-     * @throws InterruptedException If there was an exception when using the
-     *                              Thread.sleep() function
+     * @throws InterruptedException If the thread was interrupted while waiting on the
+     *                              RiotRateLimiter
      */
-    protected ArrayList<SoloQueueGame> loadActiveSoloQueueGames(ArrayList<Player> players, League league)
+    protected ArrayList<SoloQueueGame> loadActiveSoloQueueGames(Set<String> summonerIdsToSkip,
+            Set<String> checkedSummonerIds, ArrayList<GamePipeline> gamePipelines)
             throws URISyntaxException, IOException, InterruptedException {
 
-        ArrayList<SoloQueueGame> activeSoloQueueGames = new ArrayList<>();
-        ArrayList<String> summonerIds = league.getAllSummonerIds();
-        double percentComplete = 0;
-        int initialAmountOfIds = summonerIds.size();
-
-        while (summonerIds.size() > 0) {
-
-            URI uri = new URI("https://" + this.RIOT_REGION
-                    + ".api.riotgames.com/lol/spectator/v4/active-games/by-summoner/" + summonerIds.get(0));
-            HttpRequest request = HttpRequest.newBuilder().GET().uri(uri).header("X-Riot-Token", this.RIOT_API_KEY)
-                    .build();
-
-            HttpResponse<String> response = this.httpClient.send(request, BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                JSONObject responseBodyJSON = new JSONObject(response.body());
-                SoloQueueGame activeGame = new SoloQueueGame(responseBodyJSON, league);
-                activeSoloQueueGames.add(activeGame);
-                updateIDsToScan(summonerIds, activeGame.getAllPlayersIds());
-            } else if (response.statusCode() == 404) {
-                // summoner id not in active game
-                summonerIds.remove(0);
-            } else if (response.statusCode() == 429) {
-                // rate limit reached
-                // LOG
-                this.logger.warning("Riot Games Api Rate Limit Reached. Retrying after "
-                        + (SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED) + " seconds");
-                Thread.sleep(1000 * SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED);
-            } else {
-                // error with getting information from api
-                summonerIds.remove(0);
-                // LOG
-                this.logger.warning(
-                        "Error gathering information for active solo queue game from Riot Games Api. Status Code: "
-                                + response.statusCode());
+        ArrayList<League> leagues = new ArrayList<>(gamePipelines.size());
+        for (GamePipeline gamePipeline : gamePipelines) {
+            leagues.add(gamePipeline.getLeague());
+        }
+
+        LinkedHashMap<Long, ArrayList<SoloQueueGame>> activeSoloQueueGames = new LinkedHashMap<>();
+        ArrayList<ArrayDeque<String>> summonerIdsByApiKey = new ArrayList<>();
+        for (int apiKeyIndex = 0; apiKeyIndex < this.RIOT_API_KEYS.length; apiKeyIndex++) {
+            summonerIdsByApiKey.add(new ArrayDeque<>());
+        }
+
+        int initialAmountOfIds;
+        // the scan is running before the summoner ids are gathered, so a summoner id
+        // set after they are gathered is added to it and not missed
+        synchronized (summonerIdsByApiKey) {
+            this.runningScanSummonerIds = summonerIdsByApiKey;
+            this.summonerIdsAddedToRunningScan = 0;
+
+            LinkedHashMap<String, Integer> apiKeyIndexesBySummonerId = getSummonerIdsInRegion(leagues);
+            this.runningScanKnownSummonerIds = new HashSet<>(apiKeyIndexesBySummonerId.keySet());
+            this.activityScheduler.retainSummonerIds(apiKeyIndexesBySummonerId.keySet());
+            ArrayList<String> allSummonerIds = new ArrayList<>(apiKeyIndexesBySummonerId.keySet());
+            allSummonerIds.removeAll(summonerIdsToSkip);
+            ArrayList<String> summonerIds = this.activityScheduler.getSummonerIdsToScan(allSummonerIds);
+            initialAmountOfIds = summonerIds.size();
+            // LOG
+            this.logger.info("Scanning " + initialAmountOfIds + " of " + allSummonerIds.size() + " summoner ids on "
+                    + this.RIOT_REGION + " not in a known game");
+
+            // split the summoner ids by api key keeping the order the scheduler put them in
+            for (String summonerId : summonerIds) {
+                summonerIdsByApiKey.get(apiKeyIndexesBySummonerId.get(summonerId)).add(summonerId);
+            }
+        }
+
+        ArrayList<Callable<Void>> scanners = new ArrayList<>();
+        for (int apiKeyIndex = 0; apiKeyIndex < this.RIOT_API_KEYS.length; apiKeyIndex++) {
+            int scannerApiKeyIndex = apiKeyIndex;
+            for (int i = 0; i < this.MAX_CONCURRENT_RIOT_API_REQUESTS; i++) {
+                scanners.add(() -> {
+                    scanSummonerIds(summonerIdsByApiKey, scannerApiKeyIndex, activeSoloQueueGames,
+                            checkedSummonerIds, initialAmountOfIds, leagues, gamePipelines);
+                    return null;
+                });
+            }
+        }
+
+        try {
+            LeagueScanner.runAll(this.scannerExecutorService, scanners);
+        } finally {
+            this.runningScanSummonerIds = null;
+        }
+        System.out.println();
+        ArrayList<SoloQueueGame> foundGames = new ArrayList<>();
+        for (ArrayList<SoloQueueGame> leagueGames : activeSoloQueueGames.values()) {
+            foundGames.addAll(leagueGames);
+        }
+        return foundGames;
+    }
+
+    /**
+     * Helper method for the loadActiveSoloQueueGames() function that is run by
+     * each scanner thread. Takes summoner ids off of the list of its api key until
+     * it is empty and adds any active games found to the shared map of games. All
+     * access to the shared lists and map is synchronized on the lists.
+     * 
+     * @param summonerIdsByApiKey  Lists of summoner ids still to be scanned with
+     *                             each api key
+     * @param apiKeyIndex          The index of the api key this scanner uses
+     * @param activeSoloQueueGames Map of game ids to the active games found so far,
+     *                             one for each League with a player in the game
+     * @param checkedSummonerIds   Set the summoner ids the Riot Games API answered
+     *                             for are added to
+     * @param initialAmountOfIds   The amount of summoner ids there were to scan at
+     *                             the start of the scan
+     * @param leagues              The Leagues the summoner ids belong to
+     * @param gamePipelines        The GamePipelines the games found are submitted
+     *                             to, one for each League in the same order
+     * @throws URISyntaxException   If there was a problem with the syntax of the
+     *                              uri
+     * @throws IOException          If an input or output exception occurred
+     * @throws InterruptedException If the thread was interrupted while waiting on the
+     *                              RiotRateLimiter or the GamePipeline
+     */
+    private void scanSummonerIds(ArrayList<ArrayDeque<String>> summonerIdsByApiKey, int apiKeyIndex,
+            LinkedHashMap<Long, ArrayList<SoloQueueGame>> activeSoloQueueGames, Set<String> checkedSummonerIds,
+            int initialAmountOfIds, ArrayList<League> leagues, ArrayList<GamePipeline> gamePipelines)
+            throws URISyntaxException, IOException, InterruptedException {
+
+        // each scanner reuses its own parser for all of its responses
+        SpectatorGameParser spectatorGameParser = new SpectatorGameParser();
+        String summonerId;
+        while ((summonerId = nextIdToScan(summonerIdsByApiKey, apiKeyIndex)) != null) {
+            try {
+                URI uri = new URI(
+                        this.RIOT_API_BASE_URL + "/lol/spectator/v4/active-games/by-summoner/" + summonerId);
+
+                HttpResponse<InputStream> response = sendRiotApiRequest(uri, ACTIVE_GAME_BY_SUMMONER_METHOD,
+                        BodyHandlers.ofInputStream(), apiKeyIndex);
+
+                try (InputStream responseBody = response.body()) {
+                    if (response.statusCode() == 200) {
+                        ArrayList<SoloQueueGame> activeGames = spectatorGameParser.parseGames(responseBody,
+                                leagues);
+                        long gameId = activeGames.get(0).getGameId();
+                        boolean newGame;
+                        synchronized (summonerIdsByApiKey) {
+                            // two scanners can find the same game through different participants
+                            newGame = activeSoloQueueGames.putIfAbsent(gameId, activeGames) == null;
+                            for (SoloQueueGame activeGame : activeGames) {
+                                updateIDsToScan(summonerIdsByApiKey, activeGame.getAllPlayersIds());
+                            }
+                        }
+                        this.activityScheduler.recordInGame(summonerId);
+                        checkedSummonerIds.add(summonerId);
+                        for (SoloQueueGame activeGame : activeGames) {
+                            if (newGame) {
+                                // outside of the lock as this waits while the pipeline is full
+                                gamePipelines.get(leagues.indexOf(activeGame.getLeague())).submit(activeGame);
+                            }
+                            for (String participantId : activeGame.getAllPlayersIds()) {
+                                this.activityScheduler.recordInGame(participantId);
+                            }
+                        }
+                    } else if (response.statusCode() == 404) {
+                        // summoner id not in active game
+                        this.activityScheduler.recordNotInGame(summonerId);
+                        checkedSummonerIds.add(summonerId);
+                    } else if (response.statusCode() == 400) {
+                        // summoner id could not be decrypted, so it was resolved with a different api key
+                        synchronized (this.staleSummonerIds) {
+                            this.staleSummonerIds.add(summonerId);
+                        }
+                        if (this.summonerIdCache != null) {
+                            this.summonerIdCache.invalidateSummonerId(summonerId);
+                        }
+                        // LOG
+                        this.logger.warning("Summoner id rejected by Riot Games Api. It will be resolved again");
+                    } else {
+                        // error with getting information from api
+                        // LOG
+                        this.logger.warning("Error gathering information for active solo queue game from "
+                                + "Riot Games Api. Status Code: " + response.statusCode());
+                    }
+                    // read the rest of the body so the connection can be reused
+                    responseBody.transferTo(OutputStream.nullOutputStream());
+                }
+            } catch (URISyntaxException | IOException | InterruptedException e) {
+                // stop the other scanners as the scan has failed
+                synchronized (summonerIdsByApiKey) {
+                    this.runningScanSummonerIds = null;
+                    for (ArrayDeque<String> summonerIds : summonerIdsByApiKey) {
+                        summonerIds.clear();
+                    }
+                }
+                throw e;
             }
 
-            // Loading bar
-            percentComplete = ((double) (initialAmountOfIds - summonerIds.size()) / (double) (initialAmountOfIds));
-            System.out.print("Loading Active Games: |");
-            for (int c = 0; c < 50; c++) {
-                if (c < (int) (percentComplete * 50)) {
-                    System.out.print("#");
+            synchronized (summonerIdsByApiKey) {
+                int amountOfIdsLeft = 0;
+                for (ArrayDeque<String> summonerIds : summonerIdsByApiKey) {
+                    amountOfIdsLeft += summonerIds.size();
+                }
+                int amountOfIds = initialAmountOfIds + this.summonerIdsAddedToRunningScan;
+                printLoadingBar("Loading Active Games (" + this.RIOT_REGION + ")",
+                        ((double) (amountOfIds - amountOfIdsLeft) / (double) (amountOfIds)));
+            }
+        }
+    }
+
+    /**
+     * Sends a GET request to the Riot Games API with one of the api keys once the
+     * RiotRateLimiter of that api key allows it. If the rate limit is still reached
+     * the request is retried once the RiotRateLimiter allows it again.
+     * 
+     * @param <T>         The type of the response body
+     * @param uri         The uri to send the request to
+     * @param method      The name of the Riot Games API method being called
+     * @param bodyHandler The BodyHandler used to read the response body
+     * @param apiKeyIndex The index of the api key to send the request with
+     * @return The response from the Riot Games API that is not a 429
+     * @throws IOException          If an input or output exception occurred
+     * @throws InterruptedException If the thread was interrupted while waiting on
+     *                              the RiotRateLimiter
+     */
+    private <T> HttpResponse<T> sendRiotApiRequest(URI uri, String method, BodyHandler<T> bodyHandler,
+            int apiKeyIndex) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder().GET().uri(uri)
+                .header("X-Riot-Token", this.RIOT_API_KEYS[apiKeyIndex]).build();
+        RiotRateLimiter rateLimiter = this.rateLimiters[apiKeyIndex];
+        String endpoint = method.equals(SUMMONER_BY_NAME_METHOD) ? BotMetrics.RIOT_SUMMONER
+                : BotMetrics.RIOT_SPECTATOR;
+
+        while (true) {
+            rateLimiter.acquire(method);
+
+            HttpResponse<T> response = null;
+            long sendTime = System.nanoTime();
+            try {
+                response = this.httpClient.send(request, bodyHandler);
+            } finally {
+                int statusCode = (response != null) ? response.statusCode() : -1;
+                this.metrics.recordRequest(endpoint, statusCode, System.nanoTime() - sendTime);
+                if (response != null) {
+                    rateLimiter.update(method, response.headers(), statusCode);
                 } else {
-                    System.out.print(" ");
+                    rateLimiter.update(method, null, -1);
                 }
             }
-            System.out.print("| " + (int) (percentComplete * 100) + "%\r");
+
+            if (response.statusCode() != 429) {
+                return response;
+            }
+            if (response.body() instanceof Closeable) {
+                ((Closeable) response.body()).close();
+            }
+            this.metrics.recordRetry(endpoint);
+            // LOG
+            this.logger.warning("Riot Games Api Rate Limit Reached for " + method
+                    + ". Retrying once the rate limiter allows it");
+        }
+    }
+
+    /**
+     * Helper method for the scanSummonerIds() function that takes the next summoner
+     * id to scan off of the front of the list of an api key. The scan does not wait
+     * for accounts that are still being resolved, their summoner ids are scanned in
+     * the next scan.
+     * 
+     * @param summonerIdsByApiKey Lists of summoner ids still to be scanned with
+     *                            each api key
+     * @param apiKeyIndex         The index of the api key to take a summoner id for
+     * @return The next summoner id to scan or null if there are none left
+     */
+    private String nextIdToScan(ArrayList<ArrayDeque<String>> summonerIdsByApiKey, int apiKeyIndex) {
+        synchronized (summonerIdsByApiKey) {
+            return summonerIdsByApiKey.get(apiKeyIndex).pollFirst();
+        }
+    }
+
+    /**
+     * Adds a summoner id that was just resolved to the running scan, if there is
+     * one and it does not already know the summoner id. A summoner id that comes
+     * too late for the scan, or while no scan is running, is new to the
+     * SummonerActivityScheduler, so it is scanned in the next scan.
+     * 
+     * @param summonerId  The summoner id that was resolved or null if none was
+     * @param apiKeyIndex The index of the api key the account is assigned to
+     */
+    private void finishResolving(String summonerId, int apiKeyIndex) {
+        ArrayList<ArrayDeque<String>> runningScanSummonerIds = this.runningScanSummonerIds;
+        if (summonerId == null || runningScanSummonerIds == null) {
+            return;
+        }
+        synchronized (runningScanSummonerIds) {
+            if (this.runningScanSummonerIds == runningScanSummonerIds
+                    && this.runningScanKnownSummonerIds.add(summonerId)) {
+                runningScanSummonerIds.get(apiKeyIndex).add(summonerId);
+                this.summonerIdsAddedToRunningScan++;
+            }
         }
-        System.out.println();
-        return activeSoloQueueGames;
+    }
+
+    /**
+     * Gets the fingerprint of the api key that the account with the passed in
+     * summoner name is assigned to. Summoner ids are encrypted per api key, so a
+     * summoner id kept between runs is only used again if the fingerprint of the
+     * account's api key is the same.
+     * 
+     * @param summonerName The summoner name of the account
+     * @return The fingerprint of the api key the account is assigned to
+     */
+    protected String getApiKeyFingerprint(String summonerName) {
+        return this.RIOT_API_KEY_FINGERPRINTS[getApiKeyIndex(summonerName)];
+    }
+
+    /**
+     * Helper method for the constructor that creates the fingerprint of an api
+     * key from the start of its SHA-256 hash, so the api key itself is not written
+     * to the summoner id cache or the checkpoint.
+     * 
+     * @param apiKey The api key
+     * @return The fingerprint of the api key
+     * @throws Exception If SHA-256 is not available
+     */
+    private String createApiKeyFingerprint(String apiKey) throws Exception {
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(apiKey.getBytes(StandardCharsets.UTF_8));
+        StringBuilder fingerprint = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            fingerprint.append(String.format("%02x", hash[i]));
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * Gets the index of the api key that the account with the passed in summoner
+     * name is assigned to. Accounts are assigned by rendezvous hashing so the
+     * assignment stays the same between runs and only the accounts of an added or
+     * removed api key move to a different key.
+     * 
+     * @param summonerName The summoner name of the account
+     * @return The index of the api key the account is assigned to
+     */
+    private int getApiKeyIndex(String summonerName) {
+        if (this.RIOT_API_KEYS.length == 1) {
+            return 0;
+        }
+        return this.apiKeyIndexesBySummonerName.computeIfAbsent(Player.normalizeSummonerName(summonerName),
+                normalizedSummonerName -> {
+                    int highestWeightApiKeyIndex = 0;
+                    long highestWeight = Long.MIN_VALUE;
+                    for (int apiKeyIndex = 0; apiKeyIndex < this.RIOT_API_KEYS.length; apiKeyIndex++) {
+                        // String.hashCode() is the same on every jvm, the mix spreads it over every bit
+                        long weight = (normalizedSummonerName + "/" + this.RIOT_API_KEYS[apiKeyIndex]).hashCode();
+                        weight = (weight ^ (weight >>> 33)) * 0xff51afd7ed558ccdL;
+                        weight = (weight ^ (weight >>> 33)) * 0xc4ceb9fe1a85ec53L;
+                        weight = weight ^ (weight >>> 33);
+                        if (weight > highestWeight) {
+                            highestWeight = weight;
+                            highestWeightApiKeyIndex = apiKeyIndex;
+                        }
+                    }
+                    return highestWeightApiKeyIndex;
+                });
+    }
+
+    /**
+     * Checks if one of the passed in Player's accounts is on the region this
+     * RiotApiHandler scans.
+     * 
+     * @param player        The Player who owns the account
+     * @param summonerIndex The index of the account's summoner name
+     * @return True if the account is on this region
+     */
+    protected boolean isInRegion(Player player, int summonerIndex) {
+        String summonerRegion = player.getSummonerRegions()[summonerIndex];
+        if (summonerRegion == null) {
+            return this.SCANS_UNTAGGED_ACCOUNTS;
+        }
+        return summonerRegion.equals(this.RIOT_REGION);
+    }
+
+    /**
+     * Getter for the SummonerActivityScheduler that decides when the accounts on
+     * this region are scanned.
+     *
+     * @return The SummonerActivityScheduler of this region
+     */
+    protected SummonerActivityScheduler getActivityScheduler() {
+        return this.activityScheduler;
+    }
+
+    /**
+     * Gets the summoner ids of all the accounts in the Leagues that are on the
+     * region this RiotApiHandler scans and the api key each account is assigned to.
+     * An account in more than one League is only included once.
+     * 
+     * @param leagues The Leagues containing the Players
+     * @return Map of the summoner ids of the accounts on this region to the index of
+     *         their api key in the order of the Leagues' Players
+     */
+    private LinkedHashMap<String, Integer> getSummonerIdsInRegion(ArrayList<League> leagues) {
+        LinkedHashMap<String, Integer> summonerIds = new LinkedHashMap<>();
+        for (League league : leagues) {
+            for (Player player : league.getPlayers()) {
+                String[] playerSummonerIds = player.getSummonerIds();
+                for (int summonerIndex = 0; summonerIndex < playerSummonerIds.length; summonerIndex++) {
+                    if (playerSummonerIds[summonerIndex] != null && isInRegion(player, summonerIndex)) {
+                        summonerIds.putIfAbsent(playerSummonerIds[summonerIndex],
+                                getApiKeyIndex(player.getSummonerNames()[summonerIndex]));
+                    }
+                }
+            }
+        }
+        return summonerIds;
+    }
+
+    /**
+     * Prints a loading bar to the console that is overwritten by the next call.
+     * 
+     * @param label           The label printed in front of the loading bar
+     * @param percentComplete How much of the task is complete from 0 to 1
+     */
+    private void printLoadingBar(String label, double percentComplete) {
+        System.out.print(label + ": |");
+        for (int c = 0; c < 50; c++) {
+            if (c < (int) (percentComplete * 50)) {
+                System.out.print("#");
+            } else {
+                System.out.print(" ");
+            }
+        }
+        System.out.print("| " + (int) (percentComplete * 100) + "%\r");
     }
 
     /**
@@ -256,16 +915,33 @@ class RiotApiHandler {
     /**
      * Helper method for the loadActiveSoloQueueGames() function that takes in an
      * ArrayList of Strings that represent players in a game then removes those
-     * participant's ids from the other ArrayList passed in of Ids so that no more
-     * ids then needed are checked by the RiotApiHandler.
+     * participant's ids from the lists of ids of every api key so that no more ids
+     * then needed are checked by the RiotApiHandler.
      * 
-     * @param idList                 List of summoner ids to be scanned
-     * @param participantIdsToRemove ArrayList of id strings to remove from idList
+     * @param idLists                Lists of summoner ids to be scanned with each
+     *                               api key
+     * @param participantIdsToRemove ArrayList of id strings to remove from idLists
+     */
+    private void updateIDsToScan(ArrayList<ArrayDeque<String>> idLists, ArrayList<String> participantIdsToRemove) {
+        for (ArrayDeque<String> idList : idLists) {
+            for (String participantIdToRemove : participantIdsToRemove) {
+                idList.remove(participantIdToRemove);
+            }
+        }
+    }
+
+    /**
+     * An account whose summoner id is still to be resolved.
      */
-    private void updateIDsToScan(ArrayList<String> idList, ArrayList<String> participantIdsToRemove) {
-        for (String participantIdToRemove : participantIdsToRemove) {
-            idList.remove(participantIdToRemove);
+    private static class AccountToResolve {
+
+        private Player player;
+        private int summonerIndex;
+
+        private AccountToResolve(Player player, int summonerIndex) {
+            this.player = player;
+            this.summonerIndex = summonerIndex;
         }
     }
 
-}
\ No newline at end of file
+}
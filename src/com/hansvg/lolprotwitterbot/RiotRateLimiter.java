@@ -0,0 +1,260 @@
+/**
+ * The RiotRateLimiter class paces the requests made to the Riot Games API so the application and method rate limits of the api key are never exceeded.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.net.http.HttpHeaders;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Optional;
+
+class RiotRateLimiter {
+
+    // extra time added to each window to make up for the delay between sending a
+    // request and Riot Games receiving it
+    private final long WINDOW_PADDING_MILLIS = 100;
+
+    private ArrayList<RateLimitWindow> applicationWindows;
+    private HashMap<String, ArrayList<RateLimitWindow>> methodWindows;
+    private HashSet<String> methodsAwaitingLimits;
+
+    private long applicationBlockedUntil;
+    private HashMap<String, Long> methodBlockedUntil;
+
+    private long defaultRetryAfterMillis;
+
+    /**
+     * RiotRateLimiter Class Constructor.
+     *
+     * @param defaultApplicationRateLimit The application rate limit to use until
+     *                                    the first response from the Riot Games
+     *                                    API is received, in the same format as
+     *                                    the X-App-Rate-Limit header
+     * @param defaultRetryAfterSeconds    How long to wait after a 429 response
+     *                                    that did not include a Retry-After header
+     */
+    protected RiotRateLimiter(String defaultApplicationRateLimit, int defaultRetryAfterSeconds) {
+        this.applicationWindows = parseRateLimit(defaultApplicationRateLimit, new ArrayList<>());
+        this.methodWindows = new HashMap<>();
+        this.methodsAwaitingLimits = new HashSet<>();
+        this.applicationBlockedUntil = 0;
+        this.methodBlockedUntil = new HashMap<>();
+        this.defaultRetryAfterMillis = 1000L * defaultRetryAfterSeconds;
+    }
+
+    /**
+     * Blocks until a request to the passed in method can be sent without going over
+     * any of the known rate limits, then records the request. Until the limits of
+     * a method are known only one request to it is allowed at a time.
+     *
+     * @param method The name of the Riot Games API method the request is for
+     * @throws InterruptedException If the thread was interrupted while waiting
+     */
+    protected synchronized void acquire(String method) throws InterruptedException {
+        while (true) {
+            long now = System.currentTimeMillis();
+
+            long sendAt = Math.max(this.applicationBlockedUntil, this.methodBlockedUntil.getOrDefault(method, 0L));
+            sendAt = Math.max(sendAt, nextPermitTime(this.applicationWindows, now));
+
+            ArrayList<RateLimitWindow> windowsForMethod = this.methodWindows.get(method);
+            if (windowsForMethod != null) {
+                sendAt = Math.max(sendAt, nextPermitTime(windowsForMethod, now));
+            } else if (this.methodsAwaitingLimits.contains(method)) {
+                // wait for the response that tells us the limits of this method
+                wait();
+                continue;
+            }
+
+            if (sendAt <= now) {
+                for (RateLimitWindow window : this.applicationWindows) {
+                    window.sendTimes.addLast(now);
+                }
+                if (windowsForMethod != null) {
+                    for (RateLimitWindow window : windowsForMethod) {
+                        window.sendTimes.addLast(now);
+                    }
+                } else {
+                    this.methodsAwaitingLimits.add(method);
+                }
+                return;
+            }
+
+            wait(sendAt - now);
+        }
+    }
+
+    /**
+     * Updates the known rate limits from the headers of a response from the Riot
+     * Games API. Must be called once for every call to acquire(), with null headers
+     * if no response was received.
+     *
+     * @param method     The name of the Riot Games API method the request was for
+     * @param headers    The headers of the response or null if there was no
+     *                   response
+     * @param statusCode The status code of the response
+     */
+    protected synchronized void update(String method, HttpHeaders headers, int statusCode) {
+        this.methodsAwaitingLimits.remove(method);
+
+        if (headers != null) {
+            long now = System.currentTimeMillis();
+
+            Optional<String> applicationRateLimit = headers.firstValue("X-App-Rate-Limit");
+            if (applicationRateLimit.isPresent()) {
+                this.applicationWindows = parseRateLimit(applicationRateLimit.get(), this.applicationWindows);
+                syncCounts(this.applicationWindows, headers.firstValue("X-App-Rate-Limit-Count"), now);
+            }
+
+            Optional<String> methodRateLimit = headers.firstValue("X-Method-Rate-Limit");
+            if (methodRateLimit.isPresent()) {
+                ArrayList<RateLimitWindow> windowsForMethod = parseRateLimit(methodRateLimit.get(),
+                        this.methodWindows.getOrDefault(method, new ArrayList<>()));
+                syncCounts(windowsForMethod, headers.firstValue("X-Method-Rate-Limit-Count"), now);
+                this.methodWindows.put(method, windowsForMethod);
+            } else if (!this.methodWindows.containsKey(method)) {
+                // no method limits were sent so only the application limits apply
+                this.methodWindows.put(method, new ArrayList<>());
+            }
+
+            if (statusCode == 429) {
+                long blockedUntil = now + this.defaultRetryAfterMillis;
+                Optional<String> retryAfter = headers.firstValue("Retry-After");
+                if (retryAfter.isPresent()) {
+                    try {
+                        blockedUntil = now + (1000L * Long.parseLong(retryAfter.get().trim())) + WINDOW_PADDING_MILLIS;
+                    } catch (NumberFormatException e) {
+                        // keep the default wait
+                    }
+                }
+
+                if (headers.firstValue("X-Rate-Limit-Type").orElse("").equals("application")) {
+                    this.applicationBlockedUntil = Math.max(this.applicationBlockedUntil, blockedUntil);
+                } else {
+                    this.methodBlockedUntil.put(method,
+                            Math.max(this.methodBlockedUntil.getOrDefault(method, 0L), blockedUntil));
+                }
+            }
+        }
+
+        notifyAll();
+    }
+
+    /**
+     * Gets the earliest time a request can be sent without going over any of the
+     * passed in windows, removing send times that have left their window.
+     *
+     * @param windows The rate limit windows to check
+     * @param now     The current time in milliseconds
+     * @return The earliest time in milliseconds a request can be sent
+     */
+    private long nextPermitTime(ArrayList<RateLimitWindow> windows, long now) {
+        long permitTime = now;
+        for (RateLimitWindow window : windows) {
+            while (!window.sendTimes.isEmpty()
+                    && window.sendTimes.peekFirst() + window.windowMillis + WINDOW_PADDING_MILLIS <= now) {
+                window.sendTimes.removeFirst();
+            }
+            if (window.sendTimes.size() >= window.limit) {
+                // wait for enough of the oldest requests to leave the window
+                long oldestBlockingTime = window.sendTimes.stream().skip(window.sendTimes.size() - window.limit)
+                        .findFirst().get();
+                permitTime = Math.max(permitTime, oldestBlockingTime + window.windowMillis + WINDOW_PADDING_MILLIS);
+            }
+        }
+        return permitTime;
+    }
+
+    /**
+     * Adds requests to the passed in windows when Riot Games has counted more
+     * requests than this RiotRateLimiter has sent, for example when the same api
+     * key is used somewhere else.
+     *
+     * @param windows     The rate limit windows to sync
+     * @param countHeader The value of the rate limit count header
+     * @param now         The current time in milliseconds
+     */
+    private void syncCounts(ArrayList<RateLimitWindow> windows, Optional<String> countHeader, long now) {
+        if (countHeader.isEmpty()) {
+            return;
+        }
+        for (String count : countHeader.get().split(",")) {
+            String[] countAndWindow = count.trim().split(":");
+            if (countAndWindow.length != 2) {
+                continue;
+            }
+            try {
+                int requestCount = Integer.parseInt(countAndWindow[0]);
+                long windowMillis = 1000L * Long.parseLong(countAndWindow[1]);
+                for (RateLimitWindow window : windows) {
+                    if (window.windowMillis == windowMillis) {
+                        while (window.sendTimes.size() < requestCount) {
+                            window.sendTimes.addLast(now);
+                        }
+                    }
+                }
+            } catch (NumberFormatException e) {
+                // ignore counts that can not be read
+            }
+        }
+    }
+
+    /**
+     * Creates the rate limit windows described by a rate limit header, keeping the
+     * send times of any of the old windows that are the same length. Limits of 0
+     * or less requests and windows of 0 or less seconds are ignored, as no request
+     * could ever be sent in them.
+     *
+     * @param rateLimit  The rate limit in the format "limit:seconds,limit:seconds"
+     * @param oldWindows The windows that were used before this rate limit was read
+     * @return An ArrayList of the rate limit windows
+     */
+    private ArrayList<RateLimitWindow> parseRateLimit(String rateLimit, ArrayList<RateLimitWindow> oldWindows) {
+        ArrayList<RateLimitWindow> windows = new ArrayList<>();
+        for (String limit : rateLimit.split(",")) {
+            String[] limitAndWindow = limit.trim().split(":");
+            if (limitAndWindow.length != 2) {
+                continue;
+            }
+            try {
+                RateLimitWindow window = new RateLimitWindow(Integer.parseInt(limitAndWindow[0]),
+                        1000L * Long.parseLong(limitAndWindow[1]));
+                if (window.limit <= 0 || window.windowMillis <= 0) {
+                    continue;
+                }
+                for (RateLimitWindow oldWindow : oldWindows) {
+                    if (oldWindow.windowMillis == window.windowMillis) {
+                        window.sendTimes = oldWindow.sendTimes;
+                    }
+                }
+                windows.add(window);
+            } catch (NumberFormatException e) {
+                // ignore limits that can not be read
+            }
+        }
+        return windows;
+    }
+
+    /**
+     * A single rate limit window, the amount of requests allowed in a length of
+     * time and the times requests were sent during it.
+     */
+    private static class RateLimitWindow {
+
+        private int limit;
+        private long windowMillis;
+        private ArrayDeque<Long> sendTimes;
+
+        private RateLimitWindow(int limit, long windowMillis) {
+            this.limit = limit;
+            this.windowMillis = windowMillis;
+            this.sendTimes = new ArrayDeque<>();
+        }
+    }
+
+}
@@ -0,0 +1,205 @@
+/**
+ * The RosterLoader class reads the rows of a player roster file in one pass, handling quoted fields, so even rosters with every regional league in them load quickly.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.logging.Logger;
+
+class RosterLoader {
+
+    // the name, position, team, twitter handle, and twitch name come before the
+    // accounts
+    protected static final int FIRST_ACCOUNT_COLUMN = 5;
+    private static final int POSITION_COLUMN = 1;
+    private static final int TEAM_COLUMN = 2;
+
+    private Logger logger;
+
+    private HashMap<String, String> internedStrings;
+    private ArrayList<String[]> rows;
+    private ArrayList<String> row;
+    private StringBuilder cell;
+    private boolean headerRead;
+
+    /**
+     * RosterLoader Class Constructor.
+     *
+     * @param logger The Logger object to log the processes
+     */
+    protected RosterLoader(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Reads every row of the passed in roster file after the header. Fields can be
+     * quoted to hold commas, quotes written twice, or line breaks. The position
+     * and team of each row share one String object with the rows that have the
+     * same position or team, and empty account cells are left out.
+     *
+     * @param playerRosterFile The file containing the players to track and their
+     *                         information
+     * @return ArrayList of the rows, each with the name, position, team, twitter
+     *         handle, and twitch name followed by the summoner names
+     * @throws IOException If the file could not be read
+     */
+    protected ArrayList<String[]> readRows(File playerRosterFile) throws IOException {
+        this.internedStrings = new HashMap<>();
+        this.rows = new ArrayList<>();
+        this.row = new ArrayList<>();
+        this.cell = new StringBuilder();
+        this.headerRead = false;
+
+        try (Reader reader = new InputStreamReader(new FileInputStream(playerRosterFile), StandardCharsets.UTF_8)) {
+            char[] buffer = new char[64 * 1024];
+            boolean inQuotes = false;
+            boolean quoteJustClosed = false;
+            int charsRead;
+            while ((charsRead = reader.read(buffer)) != -1) {
+                for (int i = 0; i < charsRead; i++) {
+                    char c = buffer[i];
+                    if (inQuotes) {
+                        if (c == '"') {
+                            inQuotes = false;
+                            quoteJustClosed = true;
+                        } else {
+                            this.cell.append(c);
+                        }
+                        continue;
+                    }
+                    if (c == '"') {
+                        if (quoteJustClosed) {
+                            // a quote written twice inside quotes is a quote
+                            this.cell.append('"');
+                            inQuotes = true;
+                        } else if (this.cell.length() == 0) {
+                            inQuotes = true;
+                        } else {
+                            this.cell.append(c);
+                        }
+                    } else if (c == ',') {
+                        endCell();
+                    } else if (c == '\n') {
+                        endCell();
+                        endRow(playerRosterFile);
+                    } else if (c != '\r') {
+                        this.cell.append(c);
+                    }
+                    quoteJustClosed = false;
+                }
+            }
+            if (this.cell.length() > 0 || !this.row.isEmpty()) {
+                endCell();
+                endRow(playerRosterFile);
+            }
+        }
+
+        ArrayList<String[]> readRows = this.rows;
+        this.internedStrings = null;
+        this.rows = null;
+        this.row = null;
+        this.cell = null;
+        return readRows;
+    }
+
+    /**
+     * Adds the cell read so far to the row and starts the next cell. Empty account
+     * cells are dropped.
+     */
+    private void endCell() {
+        int column = this.row.size();
+        if (column >= FIRST_ACCOUNT_COLUMN && isBlank(this.cell)) {
+            // the row keeps counting columns so a dropped cell is not mistaken for a
+            // missing one
+            this.row.add(null);
+        } else if (column == POSITION_COLUMN || column == TEAM_COLUMN) {
+            String value = this.cell.toString();
+            String internedValue = this.internedStrings.putIfAbsent(value, value);
+            this.row.add((internedValue != null) ? internedValue : value);
+        } else {
+            this.row.add(this.cell.toString());
+        }
+        this.cell.setLength(0);
+    }
+
+    /**
+     * Adds the row read so far to the rows and starts the next row. The header row
+     * and blank lines are skipped, and rows without an account are logged and
+     * skipped.
+     *
+     * @param playerRosterFile The file being read, for the log
+     */
+    private void endRow(File playerRosterFile) {
+        ArrayList<String> row = this.row;
+        if (row.size() == 1 && isBlank(row.get(0))) {
+            row.clear();
+            return;
+        }
+        if (!this.headerRead) {
+            this.headerRead = true;
+        } else if (countAccounts(row) == 0) {
+            // LOG
+            this.logger.warning("Error reading in player info from \"" + playerRosterFile.getAbsolutePath()
+                    + "\". Player Name: " + row.get(0));
+        } else {
+            int columns = 0;
+            for (String value : row) {
+                if (value != null) {
+                    columns++;
+                }
+            }
+            String[] rowValues = new String[columns];
+            columns = 0;
+            for (String value : row) {
+                if (value != null) {
+                    rowValues[columns++] = value;
+                }
+            }
+            this.rows.add(rowValues);
+        }
+        row.clear();
+    }
+
+    /**
+     * Counts the accounts in a row. The empty account cells that were dropped are
+     * left as null in the row, so they are not counted.
+     *
+     * @param row The values of the row
+     * @return The amount of accounts in the row
+     */
+    private int countAccounts(ArrayList<String> row) {
+        int accounts = 0;
+        for (int column = FIRST_ACCOUNT_COLUMN; column < row.size(); column++) {
+            if (row.get(column) != null) {
+                accounts++;
+            }
+        }
+        return accounts;
+    }
+
+    /**
+     * Checks if the passed in text is empty or only whitespace.
+     *
+     * @param text The text to check
+     * @return True if the text is blank and false otherwise
+     */
+    private boolean isBlank(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,143 @@
+/**
+ * The RosterWatcher class watches the player roster file and reloads the League's players when it changes, so players can be added or changed without restarting the bot.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+class RosterWatcher {
+
+    private File playerRosterFile;
+    private League league;
+    private LeagueScanner leagueScanner;
+    private TwitchApiHandler twitchApiHandler;
+    private Logger logger;
+
+    private WatchService watchService;
+    private ExecutorService watcherExecutorService;
+
+    private long RELOAD_DELAY_IN_MILLIS;
+
+    /**
+     * RosterWatcher Class Constructor.
+     *
+     * @param playerRosterFile    The player roster file to watch
+     * @param league              The League to reload the players of
+     * @param leagueScanner       The LeagueScanner used to load the summoner ids
+     *                            of new accounts from every region
+     * @param twitchApiHandler    The TwitchApiHandler used to load the twitch user
+     *                            ids of new twitch accounts
+     * @param reloadDelayInMillis How long the file has to go without changing
+     *                            before it is reloaded, so a file being written is
+     *                            not read half way
+     * @param logger              The Logger object to log the processes
+     */
+    protected RosterWatcher(File playerRosterFile, League league, LeagueScanner leagueScanner,
+            TwitchApiHandler twitchApiHandler, int reloadDelayInMillis, Logger logger) {
+        this.playerRosterFile = playerRosterFile.getAbsoluteFile();
+        this.league = league;
+        this.leagueScanner = leagueScanner;
+        this.twitchApiHandler = twitchApiHandler;
+        this.logger = logger;
+        this.RELOAD_DELAY_IN_MILLIS = reloadDelayInMillis;
+    }
+
+    /**
+     * Starts watching the player roster file on a background thread.
+     *
+     * @return True if the file is being watched and false otherwise
+     */
+    protected boolean start() {
+        try {
+            this.watchService = this.playerRosterFile.toPath().getFileSystem().newWatchService();
+            // the directory is watched as editors often replace the file instead of
+            // writing to it
+            this.playerRosterFile.getParentFile().toPath().register(this.watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            // LOG
+            this.logger.severe("IOException");
+            return false;
+        }
+        this.watcherExecutorService = Executors.newSingleThreadExecutor(runnable -> {
+            Thread watcherThread = new Thread(runnable, "RosterWatcher");
+            watcherThread.setDaemon(true);
+            return watcherThread;
+        });
+        this.watcherExecutorService.execute(this::watch);
+        // LOG
+        this.logger.info("Watching " + this.playerRosterFile + " for changes");
+        return true;
+    }
+
+    /**
+     * Stops watching the player roster file.
+     */
+    protected void stop() {
+        if (this.watcherExecutorService != null) {
+            this.watcherExecutorService.shutdownNow();
+            try {
+                this.watchService.close();
+            } catch (IOException e) {
+                // LOG
+                this.logger.severe("IOException");
+            }
+        }
+    }
+
+    /**
+     * The watcher thread's loop. Waits for the player roster file to change, then
+     * waits until it has gone RELOAD_DELAY_IN_MILLIS without changing and reloads
+     * the League's players.
+     */
+    private void watch() {
+        try {
+            while (true) {
+                if (!rosterFileChanged(this.watchService.take())) {
+                    continue;
+                }
+                WatchKey watchKey;
+                while ((watchKey = this.watchService.poll(RELOAD_DELAY_IN_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    rosterFileChanged(watchKey);
+                }
+                this.league.reloadPlayers(this.playerRosterFile, this.leagueScanner, this.twitchApiHandler);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // stopped
+        }
+    }
+
+    /**
+     * Checks if the events of a WatchKey include a change to the player roster
+     * file and resets the key so it gets the next events.
+     *
+     * @param watchKey The WatchKey with the events
+     * @return True if the player roster file changed and false otherwise
+     */
+    private boolean rosterFileChanged(WatchKey watchKey) {
+        boolean rosterFileChanged = false;
+        for (WatchEvent<?> event : watchKey.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || this.playerRosterFile.getName().equals(((Path) event.context()).toString())) {
+                rosterFileChanged = true;
+            }
+        }
+        watchKey.reset();
+        return rosterFileChanged;
+    }
+
+}
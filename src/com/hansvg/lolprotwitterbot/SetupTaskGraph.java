@@ -0,0 +1,121 @@
+/**
+ * The SetupTaskGraph class runs the setup tasks of the bot as a graph, starting each task as soon as the tasks it depends on are done so tasks that do not depend on each other run at the same time.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+class SetupTaskGraph {
+
+    private LinkedHashMap<String, CompletableFuture<Boolean>> tasks;
+    private HashSet<String> backgroundTasks;
+    private ExecutorService setupExecutorService;
+    private long graphStartMillis;
+    private Logger logger;
+
+    /**
+     * SetupTaskGraph Class Constructor.
+     *
+     * @param logger The Logger object to log the processes
+     */
+    protected SetupTaskGraph(Logger logger) {
+        this.tasks = new LinkedHashMap<>();
+        this.backgroundTasks = new HashSet<>();
+        // cached threads stop after a minute of not being used
+        this.setupExecutorService = Executors.newCachedThreadPool(runnable -> {
+            Thread setupThread = new Thread(runnable, "SetupTask");
+            setupThread.setDaemon(true);
+            return setupThread;
+        });
+        this.graphStartMillis = System.currentTimeMillis();
+        this.logger = logger;
+    }
+
+    /**
+     * Adds a task that starts once the tasks it depends on have succeeded. A task
+     * is skipped if one of the tasks it depends on failed or was skipped. The
+     * tasks it depends on have to be added first, so the graph cannot have a
+     * cycle.
+     *
+     * @param name         The name of the task for the log
+     * @param task         The task, returning true if it succeeded
+     * @param dependencies The names of the tasks it depends on
+     */
+    protected void addTask(String name, Callable<Boolean> task, String... dependencies) {
+        CompletableFuture<?>[] dependencyResults = new CompletableFuture<?>[dependencies.length];
+        for (int i = 0; i < dependencies.length; i++) {
+            dependencyResults[i] = this.tasks.get(dependencies[i]);
+            if (dependencyResults[i] == null) {
+                throw new IllegalArgumentException("Setup task \"" + dependencies[i] + "\" was not added before \""
+                        + name + "\"");
+            }
+        }
+
+        CompletableFuture<Boolean> taskResult = CompletableFuture.allOf(dependencyResults).thenApplyAsync(ignored -> {
+            for (CompletableFuture<?> dependencyResult : dependencyResults) {
+                if (!((Boolean) dependencyResult.join())) {
+                    return false;
+                }
+            }
+            long taskStart = System.currentTimeMillis();
+            boolean succeeded;
+            try {
+                succeeded = task.call();
+            } catch (Exception e) {
+                // LOG
+                this.logger.severe("Exception " + e.getLocalizedMessage());
+                succeeded = false;
+            }
+            // LOG
+            this.logger.info("Setup task \"" + name + "\" " + (succeeded ? "finished" : "failed") + " in "
+                    + (System.currentTimeMillis() - taskStart) + " ms");
+            return succeeded;
+        }, this.setupExecutorService);
+        this.tasks.put(name, taskResult);
+    }
+
+    /**
+     * Adds a task like addTask, except that awaitAll does not wait for it, so it
+     * keeps running in the background once the setup is done. If it fails the
+     * failure is logged but the setup does not fail.
+     *
+     * @param name         The name of the task for the log
+     * @param task         The task, returning true if it succeeded
+     * @param dependencies The names of the tasks it depends on
+     */
+    protected void addBackgroundTask(String name, Callable<Boolean> task, String... dependencies) {
+        addTask(name, task, dependencies);
+        this.backgroundTasks.add(name);
+    }
+
+    /**
+     * Waits for every task that is not a background task to finish or be skipped.
+     * The threads of the tasks are daemon threads that stop on their own once the
+     * background tasks are done.
+     *
+     * @return True if every task that is not a background task succeeded and
+     *         false otherwise
+     */
+    protected boolean awaitAll() {
+        boolean succeeded = true;
+        for (String name : this.tasks.keySet()) {
+            if (!this.backgroundTasks.contains(name) && !this.tasks.get(name).join()) {
+                succeeded = false;
+            }
+        }
+        // LOG
+        this.logger.info("Setup tasks " + (succeeded ? "finished" : "failed") + " after "
+                + (System.currentTimeMillis() - this.graphStartMillis) + " ms");
+        return succeeded;
+    }
+
+}
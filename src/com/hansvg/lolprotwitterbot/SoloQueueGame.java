@@ -10,7 +10,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map.Entry;
 
-import org.json.JSONArray;
 import org.json.JSONObject;
 
 class SoloQueueGame {
@@ -24,6 +23,7 @@ class SoloQueueGame {
     private String platformId;
     private String gameMode;
     private Long gameQueueConfigId;
+    private ArrayList<String[]> participants;
     private SoloQueueTeam blueTeam;
     private SoloQueueTeam redTeam;
 
@@ -48,10 +48,43 @@ class SoloQueueGame {
             this.gameQueueConfigId = gameJSON.getLong("gameQueueConfigId");
         }
 
-        JSONArray gameParticipants = gameJSON.getJSONArray("participants");
+        this.participants = SoloQueueTeam.getParticipantsInfo(gameJSON.getJSONArray("participants"));
 
-        this.blueTeam = new SoloQueueTeam(gameParticipants, true, this.league);
-        this.redTeam = new SoloQueueTeam(gameParticipants, false, this.league);
+        this.blueTeam = new SoloQueueTeam(this.participants, this.platformId, true, this.league);
+        this.redTeam = new SoloQueueTeam(this.participants, this.platformId, false, this.league);
+    }
+
+    /**
+     * SoloQueueGame Class Constructor used by the SpectatorGameParser.
+     * 
+     * @param gameId            The game id
+     * @param gameType          The game type
+     * @param gameStartTime     The game start time
+     * @param mapId             The map id of the game
+     * @param gameLength        The game length
+     * @param platformId        The game's platform id
+     * @param gameMode          The game's mode
+     * @param gameQueueConfigId The game's queue config id or null for custom games
+     * @param participants      ArrayList of the participants' summoner name,
+     *                          summoner id, team id, and champion id
+     * @param league            The League that this game belongs to
+     */
+    protected SoloQueueGame(long gameId, String gameType, long gameStartTime, long mapId, long gameLength,
+            String platformId, String gameMode, Long gameQueueConfigId, ArrayList<String[]> participants,
+            League league) {
+        this.league = league;
+        this.gameId = gameId;
+        this.gameType = gameType;
+        this.gameStartTime = gameStartTime;
+        this.mapId = mapId;
+        this.gameLength = gameLength;
+        this.platformId = platformId;
+        this.gameMode = gameMode;
+        this.gameQueueConfigId = gameQueueConfigId;
+        this.participants = participants;
+
+        this.blueTeam = new SoloQueueTeam(participants, this.platformId, true, this.league);
+        this.redTeam = new SoloQueueTeam(participants, this.platformId, false, this.league);
     }
 
     /**
@@ -120,12 +153,22 @@ class SoloQueueGame {
     /**
      * Getter for the game's queue config id.
      * 
-     * @return The game queue config id
+     * @return The game queue config id or null for custom games
      */
-    protected long getGameQueueConfigId() {
+    protected Long getGameQueueConfigId() {
         return this.gameQueueConfigId;
     }
 
+    /**
+     * Getter for every participant of the game, not only the Players of the League.
+     * 
+     * @return ArrayList of the participants' summoner name, summoner id, team id,
+     *         and champion id
+     */
+    protected ArrayList<String[]> getParticipants() {
+        return this.participants;
+    }
+
     /**
      * Getter for SoloQueueTeam team1.
      * 
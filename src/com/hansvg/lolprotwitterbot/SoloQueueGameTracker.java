@@ -0,0 +1,224 @@
+/**
+ * The SoloQueueGameTracker class remembers the active SoloQueueGames found between scans so the participants of a game are not checked again until the game is expected to be over.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+
+class SoloQueueGameTracker {
+
+    /**
+     * Listener that is told when a tracked game starts, is still going on, or ends.
+     */
+    protected interface GameLifecycleListener {
+
+        /**
+         * Called the first time a game is found.
+         *
+         * @param game The game that was found
+         */
+        void gameStarted(SoloQueueGame game);
+
+        /**
+         * Called every scan a game is still being tracked after it was found.
+         *
+         * @param game The game that is still going on
+         */
+        void gameOngoing(SoloQueueGame game);
+
+        /**
+         * Called when a game is no longer found after it was expected to end.
+         *
+         * @param game The game that ended
+         */
+        void gameEnded(SoloQueueGame game);
+    }
+
+    private LinkedHashMap<Long, TrackedGame> trackedGames;
+    private ArrayList<GameLifecycleListener> listeners;
+
+    private long ESTIMATED_GAME_LENGTH_MILLIS;
+
+    /**
+     * SoloQueueGameTracker Class Constructor.
+     *
+     * @param estimatedGameLengthInMinutes How long a game is expected to last
+     */
+    protected SoloQueueGameTracker(int estimatedGameLengthInMinutes) {
+        this.trackedGames = new LinkedHashMap<>();
+        this.listeners = new ArrayList<>();
+        this.ESTIMATED_GAME_LENGTH_MILLIS = 60000L * estimatedGameLengthInMinutes;
+    }
+
+    /**
+     * Adds a listener to be told about the lifecycle of tracked games.
+     *
+     * @param listener The listener to add
+     */
+    protected synchronized void addListener(GameLifecycleListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Gets the summoner ids of the participants of tracked games that are not
+     * expected to have ended yet. These summoner ids do not need to be checked.
+     *
+     * @param now The time the scan is starting in milliseconds
+     * @return HashSet of the summoner ids to skip
+     */
+    protected synchronized HashSet<String> getSummonerIdsInKnownGames(long now) {
+        HashSet<String> summonerIds = new HashSet<>();
+        for (TrackedGame trackedGame : this.trackedGames.values()) {
+            if (trackedGame.estimatedEndMillis > now) {
+                summonerIds.addAll(trackedGame.game.getAllPlayersIds());
+            }
+        }
+        return summonerIds;
+    }
+
+    /**
+     * Updates the tracked games with the games found during a scan. Found games
+     * that were not tracked have started, and tracked games that were found again
+     * or were skipped are ongoing. A tracked game that was due to be checked and
+     * was not found has only ended if at least one of its participants was
+     * checked this scan, as a participant whose lookup failed or who was left out
+     * of the scan says nothing about the game. A game none of whose participants
+     * get checked is ended once it has gone on twice as long as expected.
+     *
+     * @param foundGames         The games found during the scan
+     * @param checkedSummonerIds The summoner ids the Riot Games API answered for
+     *                           this scan, in a game or not
+     * @param scanStart          The time the scan started in milliseconds
+     * @return ArrayList of all the games that are still active
+     */
+    protected synchronized ArrayList<SoloQueueGame> update(ArrayList<SoloQueueGame> foundGames,
+            Set<String> checkedSummonerIds, long scanStart) {
+        long now = System.currentTimeMillis();
+        HashSet<Long> foundGameIds = new HashSet<>();
+
+        for (SoloQueueGame foundGame : foundGames) {
+            foundGameIds.add(foundGame.getGameId());
+            TrackedGame trackedGame = this.trackedGames.get(foundGame.getGameId());
+            if (trackedGame == null) {
+                this.trackedGames.put(foundGame.getGameId(),
+                        new TrackedGame(foundGame, estimateEndTime(foundGame, now)));
+                for (GameLifecycleListener listener : this.listeners) {
+                    listener.gameStarted(foundGame);
+                }
+            } else {
+                trackedGame.game = foundGame;
+                trackedGame.estimatedEndMillis = estimateEndTime(foundGame, now);
+                for (GameLifecycleListener listener : this.listeners) {
+                    listener.gameOngoing(foundGame);
+                }
+            }
+        }
+
+        Iterator<TrackedGame> trackedGameIterator = this.trackedGames.values().iterator();
+        while (trackedGameIterator.hasNext()) {
+            TrackedGame trackedGame = trackedGameIterator.next();
+            if (foundGameIds.contains(trackedGame.game.getGameId())) {
+                continue;
+            }
+            if (trackedGame.estimatedEndMillis <= scanStart
+                    && (wasChecked(trackedGame.game, checkedSummonerIds)
+                            || trackedGame.estimatedEndMillis + this.ESTIMATED_GAME_LENGTH_MILLIS <= scanStart)) {
+                // a participant was checked this scan and the game was not found
+                trackedGameIterator.remove();
+                for (GameLifecycleListener listener : this.listeners) {
+                    listener.gameEnded(trackedGame.game);
+                }
+            } else {
+                for (GameLifecycleListener listener : this.listeners) {
+                    listener.gameOngoing(trackedGame.game);
+                }
+            }
+        }
+
+        ArrayList<SoloQueueGame> activeGames = new ArrayList<>();
+        for (TrackedGame trackedGame : this.trackedGames.values()) {
+            activeGames.add(trackedGame.game);
+        }
+        return activeGames;
+    }
+
+    /**
+     * Gets every tracked game and when it is expected to end.
+     *
+     * @return LinkedHashMap of the tracked games to their estimated end time in
+     *         milliseconds, in the order they were found
+     */
+    protected synchronized LinkedHashMap<SoloQueueGame, Long> getTrackedGames() {
+        LinkedHashMap<SoloQueueGame, Long> trackedGames = new LinkedHashMap<>();
+        for (TrackedGame trackedGame : this.trackedGames.values()) {
+            trackedGames.put(trackedGame.game, trackedGame.estimatedEndMillis);
+        }
+        return trackedGames;
+    }
+
+    /**
+     * Tracks a game that was being tracked before a restart without telling the
+     * listeners, as it did not start now.
+     *
+     * @param game               The game to track
+     * @param estimatedEndMillis When the game was expected to end in milliseconds
+     */
+    protected synchronized void restoreGame(SoloQueueGame game, long estimatedEndMillis) {
+        this.trackedGames.put(game.getGameId(), new TrackedGame(game, estimatedEndMillis));
+    }
+
+    /**
+     * Checks if any of the participants of the passed in game were checked.
+     *
+     * @param game               The game to check the participants of
+     * @param checkedSummonerIds The summoner ids that were checked
+     * @return True if at least one participant was checked and false otherwise
+     */
+    private boolean wasChecked(SoloQueueGame game, Set<String> checkedSummonerIds) {
+        for (String summonerId : game.getAllPlayersIds()) {
+            if (checkedSummonerIds.contains(summonerId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Estimates when the passed in game will end from when it started. Games that
+     * have already gone on longer than expected are checked again next scan.
+     *
+     * @param game The game to estimate the end time of
+     * @param now  The current time in milliseconds
+     * @return The estimated end time of the game in milliseconds
+     */
+    private long estimateEndTime(SoloQueueGame game, long now) {
+        long gameStartTime = game.getGameStartTime();
+        if (gameStartTime <= 0) {
+            // the game is still loading so it has not been given a start time yet
+            gameStartTime = now - (1000L * Math.max(game.getGameLength(), 0));
+        }
+        return Math.max(gameStartTime + this.ESTIMATED_GAME_LENGTH_MILLIS, now);
+    }
+
+    /**
+     * A tracked game and when it is expected to end.
+     */
+    private static class TrackedGame {
+
+        private SoloQueueGame game;
+        private long estimatedEndMillis;
+
+        private TrackedGame(SoloQueueGame game, long estimatedEndMillis) {
+            this.game = game;
+            this.estimatedEndMillis = estimatedEndMillis;
+        }
+    }
+
+}
@@ -6,6 +6,7 @@
  */
 package com.hansvg.lolprotwitterbot;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 
 import org.json.JSONArray;
@@ -21,41 +22,57 @@ class SoloQueueTeam {
      * 
      * @param participants JSONArray of participants in the solo queue game gotten
      *                     from the Riot Games API
+     * @param platformId   The platform id of the game, the region it is played on
      * @param blueSide     If the team is on the blue side
      * @param league       The league that the participants of the game are a part
      *                     of
      */
-    protected SoloQueueTeam(JSONArray participants, boolean blueSide, League league) {
+    protected SoloQueueTeam(JSONArray participants, String platformId, boolean blueSide, League league) {
+        this(getParticipantsInfo(participants), platformId, blueSide, league);
+    }
+
+    /**
+     * SoloQueueTeam Class Constructor.
+     * 
+     * @param participants ArrayList of the summoner name, summoner id, team id, and
+     *                     champion id of each participant in the solo queue game
+     * @param platformId   The platform id of the game, the region it is played on
+     * @param blueSide     If the team is on the blue side
+     * @param league       The league that the participants of the game are a part
+     *                     of
+     */
+    protected SoloQueueTeam(ArrayList<String[]> participants, String platformId, boolean blueSide, League league) {
         this.players = new HashMap<>();
         this.blueSide = blueSide;
 
-        if (blueSide) {
-            for (int i = 0; i < (participants.length() / 2); i++) {
-                JSONObject playerInfoJSON = participants.getJSONObject(i);
+        int firstParticipantIndex = blueSide ? 0 : (participants.size() / 2);
+        int lastParticipantIndex = blueSide ? (participants.size() / 2) : participants.size();
 
-                String[] playerInfo = new String[] { playerInfoJSON.getString("summonerName"),
-                        playerInfoJSON.getString("summonerId"), Long.toString(playerInfoJSON.getLong("teamId")),
-                        Long.toString(playerInfoJSON.getLong("championId")) };
+        for (int i = firstParticipantIndex; i < lastParticipantIndex; i++) {
+            String[] playerInfo = participants.get(i);
 
-                Player player = league.getPlayerFromSummonerId(playerInfo[1]);
+            Player player = league.getPlayerFromSummonerId(playerInfo[1]);
 
+            if (player == null) {
+                // summoner ids are encrypted per api key, so a participant whose account was
+                // resolved with a different key, or is still being resolved in the
+                // background, is only found by their summoner name on the game's region
+                String region = (platformId != null) ? platformId.toLowerCase() : league.getDefaultRegion();
+                player = league.getPlayerFromSummonerName(region, playerInfo[0]);
                 if (player != null) {
-                    players.put(player, playerInfo);
+                    String summonerId = player.getSummonerIdFromName(region, league.getDefaultRegion(),
+                            playerInfo[0]);
+                    if (summonerId != null) {
+                        // the participants can be shared with the games of other Leagues, so
+                        // only this team's copy gets this League's summoner id
+                        playerInfo = playerInfo.clone();
+                        playerInfo[1] = summonerId;
+                    }
                 }
             }
-        } else {
-            for (int i = (participants.length() / 2); i < participants.length(); i++) {
-                JSONObject playerInfoJSON = participants.getJSONObject(i);
-
-                String[] playerInfo = new String[] { playerInfoJSON.getString("summonerName"),
-                        playerInfoJSON.getString("summonerId"), Long.toString(playerInfoJSON.getLong("teamId")),
-                        Long.toString(playerInfoJSON.getLong("championId")) };
-
-                Player player = league.getPlayerFromSummonerId(playerInfo[1]);
 
-                if (player != null) {
-                    players.put(player, playerInfo);
-                }
+            if (player != null) {
+                players.put(player, playerInfo);
             }
         }
     }
@@ -78,6 +95,26 @@ class SoloQueueTeam {
         return this.blueSide;
     }
 
+    /**
+     * Helper function that reads the summoner name, summoner id, team id, and
+     * champion id of each participant out of the JSONArray of participants.
+     * 
+     * @param participants JSONArray of participants in the solo queue game gotten
+     *                     from the Riot Games API
+     * @return ArrayList of string arrays holding each participant's information
+     */
+    protected static ArrayList<String[]> getParticipantsInfo(JSONArray participants) {
+        ArrayList<String[]> participantsInfo = new ArrayList<>();
+        for (int i = 0; i < participants.length(); i++) {
+            JSONObject playerInfoJSON = participants.getJSONObject(i);
+
+            participantsInfo.add(new String[] { playerInfoJSON.getString("summonerName"),
+                    playerInfoJSON.getString("summonerId"), Long.toString(playerInfoJSON.getLong("teamId")),
+                    Long.toString(playerInfoJSON.getLong("championId")) });
+        }
+        return participantsInfo;
+    }
+
     /**
      * Function to check weather there are players with twitch accounts on the team.
      * 
@@ -0,0 +1,556 @@
+/**
+ * The SpectatorGameParser class reads an active game straight from the bytes of a Riot Games API spectator response, keeping only the fields a SoloQueueGame uses and skipping everything else. A parser reuses its buffers for every response it reads, so each scanner thread keeps its own.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+class SpectatorGameParser {
+
+    private static final String BLUE_TEAM_ID = "100";
+    private static final String RED_TEAM_ID = "200";
+
+    private InputStream inputStream;
+    private byte[] buffer;
+    private int bufferPosition;
+    private int bufferLength;
+
+    // reused for every key and string so only kept values are allocated. Strings
+    // are kept as their UTF-8 bytes and only decoded if the value is kept
+    private byte[] token;
+    private int tokenLength;
+    private boolean tokenHasLoneSurrogates;
+
+    /**
+     * SpectatorGameParser Class Constructor. The parser is not thread safe, but
+     * can read any number of responses one after the other.
+     */
+    protected SpectatorGameParser() {
+        this.buffer = new byte[8192];
+        this.token = new byte[128];
+    }
+
+    /**
+     * Reads the active game from the spectator response.
+     *
+     * @param inputStream The body of the spectator response
+     * @param league      The League that the game belongs to
+     * @return The SoloQueueGame read from the response
+     * @throws IOException If the response could not be read or is not a valid
+     *                     active game
+     */
+    protected SoloQueueGame parseGame(InputStream inputStream, League league) throws IOException {
+        return parseGames(inputStream, Collections.singletonList(league)).get(0);
+    }
+
+    /**
+     * Reads the active game from the spectator response once and creates a
+     * SoloQueueGame of it for each of the passed in Leagues that has a player in
+     * it. If none of them do, the game is only created for the first League. The
+     * response is read up to the end of the game and the stream is not closed.
+     *
+     * @param inputStream The body of the spectator response
+     * @param leagues     The Leagues that the game can belong to
+     * @return The SoloQueueGames read from the response, in the order of the
+     *         Leagues
+     * @throws IOException If the response could not be read or is not a valid
+     *                     active game
+     */
+    protected ArrayList<SoloQueueGame> parseGames(InputStream inputStream, List<League> leagues)
+            throws IOException {
+        this.inputStream = inputStream;
+        this.bufferPosition = 0;
+        this.bufferLength = 0;
+        try {
+            return readGames(leagues);
+        } finally {
+            this.inputStream = null;
+        }
+    }
+
+    /**
+     * Helper method for the parseGames() function that reads the game from the
+     * response.
+     *
+     * @param leagues The Leagues that the game can belong to
+     * @return The SoloQueueGames read from the response, in the order of the
+     *         Leagues
+     * @throws IOException If the response could not be read or is not a valid
+     *                     active game
+     */
+    private ArrayList<SoloQueueGame> readGames(List<League> leagues) throws IOException {
+        long gameId = 0;
+        String gameType = null;
+        long gameStartTime = 0;
+        long mapId = 0;
+        long gameLength = 0;
+        String platformId = null;
+        String gameMode = null;
+        Long gameQueueConfigId = null;
+        ArrayList<String[]> participants = null;
+
+        expect('{');
+        if (peek() == '}') {
+            next();
+        } else {
+            do {
+                readString();
+                expect(':');
+                if (tokenEquals("gameId")) {
+                    gameId = readLong();
+                } else if (tokenEquals("gameType")) {
+                    gameType = readString();
+                } else if (tokenEquals("gameStartTime")) {
+                    gameStartTime = readLong();
+                } else if (tokenEquals("mapId")) {
+                    mapId = readLong();
+                } else if (tokenEquals("gameLength")) {
+                    gameLength = readLong();
+                } else if (tokenEquals("platformId")) {
+                    platformId = readString();
+                } else if (tokenEquals("gameMode")) {
+                    gameMode = readString();
+                } else if (tokenEquals("gameQueueConfigId")) {
+                    gameQueueConfigId = readLong();
+                } else if (tokenEquals("participants")) {
+                    participants = readParticipants();
+                } else {
+                    skipValue();
+                }
+            } while (nextIsComma('}'));
+        }
+
+        if (gameType == null || platformId == null || gameMode == null || participants == null) {
+            throw new IOException("Spectator response is missing game fields");
+        }
+
+        ArrayList<SoloQueueGame> games = new ArrayList<>(leagues.size());
+        SoloQueueGame firstLeagueGame = null;
+        for (League league : leagues) {
+            // the participants are not changed by a SoloQueueGame, so every League shares
+            // them
+            SoloQueueGame game = new SoloQueueGame(gameId, gameType, gameStartTime, mapId, gameLength, platformId,
+                    gameMode, gameQueueConfigId, participants, league);
+            if (firstLeagueGame == null) {
+                firstLeagueGame = game;
+            }
+            if (leagues.size() == 1 || !game.getAllPlayersIds().isEmpty()) {
+                games.add(game);
+            }
+        }
+        if (games.isEmpty()) {
+            games.add(firstLeagueGame);
+        }
+        return games;
+    }
+
+    /**
+     * Reads the participants array, keeping the summoner name, summoner id, team
+     * id, and champion id of each participant.
+     *
+     * @return ArrayList of string arrays holding each participant's information
+     * @throws IOException If the participants could not be read
+     */
+    private ArrayList<String[]> readParticipants() throws IOException {
+        ArrayList<String[]> participants = new ArrayList<>(10);
+        expect('[');
+        if (peek() == ']') {
+            next();
+            return participants;
+        }
+        do {
+            String[] playerInfo = new String[4];
+            expect('{');
+            if (peek() == '}') {
+                next();
+            } else {
+                do {
+                    readString();
+                    expect(':');
+                    if (tokenEquals("summonerName")) {
+                        playerInfo[0] = readString();
+                    } else if (tokenEquals("summonerId")) {
+                        playerInfo[1] = readString();
+                    } else if (tokenEquals("teamId")) {
+                        long teamId = readLong();
+                        // every participant is on one of the two teams
+                        playerInfo[2] = (teamId == 100) ? BLUE_TEAM_ID
+                                : (teamId == 200) ? RED_TEAM_ID : Long.toString(teamId);
+                    } else if (tokenEquals("championId")) {
+                        playerInfo[3] = Long.toString(readLong());
+                    } else {
+                        skipValue();
+                    }
+                } while (nextIsComma('}'));
+            }
+            participants.add(playerInfo);
+        } while (nextIsComma(']'));
+        return participants;
+    }
+
+    /**
+     * Reads a string value into the token and returns it as a String.
+     *
+     * @return The string that was read
+     * @throws IOException If a string could not be read
+     */
+    private String readString() throws IOException {
+        readStringToken();
+        if (this.tokenHasLoneSurrogates) {
+            return decodeTokenWithLoneSurrogates();
+        }
+        return new String(this.token, 0, this.tokenLength, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Turns the token into a String, keeping the surrogates that were escaped
+     * without their pair as they are.
+     *
+     * @return The string in the token
+     */
+    private String decodeTokenWithLoneSurrogates() {
+        StringBuilder decoded = new StringBuilder(this.tokenLength);
+        int segmentStart = 0;
+        for (int i = 0; i + 2 < this.tokenLength; i++) {
+            // a surrogate is the only 3 byte character starting with 0xED and a byte of
+            // 0xA0 or more, as UTF-8 does not allow them
+            if (this.token[i] == (byte) 0xED && (this.token[i + 1] & 0xFF) >= 0xA0) {
+                decoded.append(new String(this.token, segmentStart, i - segmentStart, StandardCharsets.UTF_8));
+                decoded.append((char) (0xD000 | ((this.token[i + 1] & 0x3F) << 6) | (this.token[i + 2] & 0x3F)));
+                i += 2;
+                segmentStart = i + 1;
+            }
+        }
+        decoded.append(new String(this.token, segmentStart, this.tokenLength - segmentStart,
+                StandardCharsets.UTF_8));
+        return decoded.toString();
+    }
+
+    /**
+     * Reads a string value into the token without creating a String. The bytes of
+     * the string are copied as they are, so UTF-8 characters are kept, and escaped
+     * characters are added as UTF-8.
+     *
+     * @throws IOException If a string could not be read
+     */
+    private void readStringToken() throws IOException {
+        expect('"');
+        this.tokenLength = 0;
+        this.tokenHasLoneSurrogates = false;
+        int highSurrogate = -1;
+        while (true) {
+            byte b = next();
+            if (b == '"') {
+                if (highSurrogate >= 0) {
+                    appendCodePoint(highSurrogate);
+                }
+                return;
+            } else if (b == '\\') {
+                byte escaped = next();
+                if (escaped == 'u') {
+                    int codeUnit = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(next(), 16);
+                        if (digit < 0) {
+                            throw new IOException("Invalid unicode escape in spectator response");
+                        }
+                        codeUnit = (codeUnit << 4) | digit;
+                    }
+                    // characters outside of the basic plane are escaped as two surrogates
+                    if (highSurrogate >= 0 && Character.isLowSurrogate((char) codeUnit)) {
+                        appendCodePoint(Character.toCodePoint((char) highSurrogate, (char) codeUnit));
+                        highSurrogate = -1;
+                        continue;
+                    }
+                    if (highSurrogate >= 0) {
+                        appendCodePoint(highSurrogate);
+                        highSurrogate = -1;
+                    }
+                    if (Character.isHighSurrogate((char) codeUnit)) {
+                        highSurrogate = codeUnit;
+                    } else {
+                        appendCodePoint(codeUnit);
+                    }
+                    continue;
+                }
+                if (highSurrogate >= 0) {
+                    appendCodePoint(highSurrogate);
+                    highSurrogate = -1;
+                }
+                switch (escaped) {
+                    case 'b':
+                        appendToken((byte) '\b');
+                        break;
+                    case 'f':
+                        appendToken((byte) '\f');
+                        break;
+                    case 'n':
+                        appendToken((byte) '\n');
+                        break;
+                    case 'r':
+                        appendToken((byte) '\r');
+                        break;
+                    case 't':
+                        appendToken((byte) '\t');
+                        break;
+                    default:
+                        appendToken(escaped);
+                }
+            } else {
+                if (highSurrogate >= 0) {
+                    appendCodePoint(highSurrogate);
+                    highSurrogate = -1;
+                }
+                appendToken(b);
+            }
+        }
+    }
+
+    /**
+     * Adds a character to the token as UTF-8. A surrogate without its pair is
+     * added the way any other 3 byte character is, so readString can keep it as
+     * the JSONObject does.
+     *
+     * @param codePoint The character to add
+     */
+    private void appendCodePoint(int codePoint) {
+        if (codePoint < 0x80) {
+            appendToken((byte) codePoint);
+        } else if (codePoint < 0x800) {
+            appendToken((byte) (0xC0 | (codePoint >> 6)));
+            appendToken((byte) (0x80 | (codePoint & 0x3F)));
+        } else if (codePoint < 0x10000) {
+            if (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE) {
+                this.tokenHasLoneSurrogates = true;
+            }
+            appendToken((byte) (0xE0 | (codePoint >> 12)));
+            appendToken((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            appendToken((byte) (0x80 | (codePoint & 0x3F)));
+        } else {
+            appendToken((byte) (0xF0 | (codePoint >> 18)));
+            appendToken((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+            appendToken((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            appendToken((byte) (0x80 | (codePoint & 0x3F)));
+        }
+    }
+
+    /**
+     * Adds a byte to the token, growing the token if it is full.
+     *
+     * @param b The byte to add
+     */
+    private void appendToken(byte b) {
+        if (this.tokenLength == this.token.length) {
+            this.token = Arrays.copyOf(this.token, this.token.length * 2);
+        }
+        this.token[this.tokenLength++] = b;
+    }
+
+    /**
+     * Reads a whole number value.
+     *
+     * @return The number that was read
+     * @throws IOException If a number could not be read
+     */
+    private long readLong() throws IOException {
+        skipWhitespace();
+        boolean negative = false;
+        if (peek() == '-') {
+            negative = true;
+            next();
+        }
+        long value = 0;
+        int digits = 0;
+        while (hasNext() && peekRaw() >= '0' && peekRaw() <= '9') {
+            value = (value * 10) + (next() - '0');
+            digits++;
+        }
+        if (digits == 0) {
+            throw new IOException("Expected a number in spectator response");
+        }
+        // fractions and exponents are not used by the fields that are kept
+        while (hasNext() && (peekRaw() == '.' || peekRaw() == 'e' || peekRaw() == 'E' || peekRaw() == '+'
+                || peekRaw() == '-' || (peekRaw() >= '0' && peekRaw() <= '9'))) {
+            next();
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Skips over the next value of any type without keeping it.
+     *
+     * @throws IOException If a value could not be read
+     */
+    private void skipValue() throws IOException {
+        byte c = peek();
+        if (c == '"') {
+            readStringToken();
+        } else if (c == '{') {
+            next();
+            if (peek() == '}') {
+                next();
+                return;
+            }
+            do {
+                readStringToken();
+                expect(':');
+                skipValue();
+            } while (nextIsComma('}'));
+        } else if (c == '[') {
+            next();
+            if (peek() == ']') {
+                next();
+                return;
+            }
+            do {
+                skipValue();
+            } while (nextIsComma(']'));
+        } else {
+            // numbers, true, false, and null
+            while (hasNext()) {
+                byte raw = peekRaw();
+                if (raw == ',' || raw == '}' || raw == ']' || isWhitespace(raw)) {
+                    return;
+                }
+                next();
+            }
+        }
+    }
+
+    /**
+     * Reads the separator after a value in an object or array.
+     *
+     * @param closing The character that closes the object or array
+     * @return True if another value follows and false if the object or array ended
+     * @throws IOException If neither a comma nor the closing character was found
+     */
+    private boolean nextIsComma(char closing) throws IOException {
+        byte c = peek();
+        next();
+        if (c == ',') {
+            return true;
+        } else if (c == closing) {
+            return false;
+        }
+        throw new IOException("Expected ',' or '" + closing + "' in spectator response");
+    }
+
+    /**
+     * Checks if the token is the same as the passed in key. The keys that are
+     * compared are all ASCII, so they are compared byte by byte.
+     *
+     * @param key The key to compare to
+     * @return True if the token is the same as the key
+     */
+    private boolean tokenEquals(String key) {
+        if (key.length() != this.tokenLength) {
+            return false;
+        }
+        for (int i = 0; i < this.tokenLength; i++) {
+            if (this.token[i] != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Skips whitespace and reads the passed in character.
+     *
+     * @param expected The character that should be next
+     * @throws IOException If a different character is next
+     */
+    private void expect(char expected) throws IOException {
+        if (peek() != expected) {
+            throw new IOException("Expected '" + expected + "' in spectator response");
+        }
+        next();
+    }
+
+    /**
+     * Skips whitespace and looks at the next character without reading it.
+     *
+     * @return The next character that is not whitespace
+     * @throws IOException If the end of the response was reached
+     */
+    private byte peek() throws IOException {
+        skipWhitespace();
+        return peekRaw();
+    }
+
+    /**
+     * Looks at the next character without reading it.
+     *
+     * @return The next character
+     * @throws IOException If the end of the response was reached
+     */
+    private byte peekRaw() throws IOException {
+        if (!hasNext()) {
+            throw new IOException("Unexpected end of spectator response");
+        }
+        return this.buffer[this.bufferPosition];
+    }
+
+    /**
+     * Reads the next character.
+     *
+     * @return The next character
+     * @throws IOException If the end of the response was reached
+     */
+    private byte next() throws IOException {
+        byte c = peekRaw();
+        this.bufferPosition++;
+        return c;
+    }
+
+    /**
+     * Skips over any whitespace.
+     *
+     * @throws IOException If the response could not be read
+     */
+    private void skipWhitespace() throws IOException {
+        while (hasNext() && isWhitespace(this.buffer[this.bufferPosition])) {
+            this.bufferPosition++;
+        }
+    }
+
+    /**
+     * Checks if a byte is whitespace as JSON defines it.
+     *
+     * @param b The byte to check
+     * @return True if the byte is a space, tab, line feed, or carriage return
+     */
+    private boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    /**
+     * Checks if there is another character, filling the buffer if it is empty.
+     *
+     * @return True if there is another character and false at the end of the
+     *         response
+     * @throws IOException If the response could not be read
+     */
+    private boolean hasNext() throws IOException {
+        if (this.bufferPosition < this.bufferLength) {
+            return true;
+        }
+        this.bufferLength = this.inputStream.read(this.buffer);
+        this.bufferPosition = 0;
+        if (this.bufferLength <= 0) {
+            this.bufferLength = 0;
+            return false;
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,211 @@
+/**
+ * The SummonerActivityScheduler class keeps track of how active each summoner id is and decides which summoner ids are checked for active games each scan.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map.Entry;
+import java.util.Set;
+
+class SummonerActivityScheduler {
+
+    // how many scans in a row a summoner id has to not be in a game before the
+    // time between its checks is doubled
+    private final int NOT_IN_GAME_SCANS_PER_DOUBLING = 4;
+
+    private HashMap<String, SummonerActivity> summonerActivities;
+    private long scanNumber;
+
+    private int MAX_RIOT_API_REQUESTS_PER_SCAN;
+    private int MAX_SCANS_BETWEEN_CHECKS_OF_INACTIVE_ACCOUNTS;
+    private long MILLIS_ACCOUNT_STAYS_ACTIVE_AFTER_GAME;
+
+    /**
+     * SummonerActivityScheduler Class Constructor.
+     *
+     * @param maxRequestsPerScan           The most summoner ids to check in one
+     *                                     scan or a negative value for no limit
+     * @param maxScansBetweenChecks        The most scans an inactive summoner id
+     *                                     can go without being checked
+     * @param hoursAccountStaysActiveAfter How many hours after being seen in a
+     *                                     game a summoner id is checked every scan
+     */
+    protected SummonerActivityScheduler(int maxRequestsPerScan, int maxScansBetweenChecks,
+            int hoursAccountStaysActiveAfter) {
+        this.summonerActivities = new HashMap<>();
+        this.scanNumber = 0;
+        this.MAX_RIOT_API_REQUESTS_PER_SCAN = maxRequestsPerScan;
+        this.MAX_SCANS_BETWEEN_CHECKS_OF_INACTIVE_ACCOUNTS = maxScansBetweenChecks;
+        this.MILLIS_ACCOUNT_STAYS_ACTIVE_AFTER_GAME = 3600000L * hoursAccountStaysActiveAfter;
+    }
+
+    /**
+     * Starts a new scan and picks which of the passed in summoner ids are due to be
+     * checked. If more summoner ids are due than MAX_RIOT_API_REQUESTS_PER_SCAN
+     * allows, active summoner ids are picked first followed by the ones that are
+     * the most overdue. Summoner ids that are not picked stay due for the next
+     * scan.
+     *
+     * @param summonerIds All the summoner ids that could be checked
+     * @return ArrayList of the summoner ids to check this scan, in the order they
+     *         should be checked
+     */
+    protected synchronized ArrayList<String> getSummonerIdsToScan(ArrayList<String> summonerIds) {
+        this.scanNumber++;
+        long now = System.currentTimeMillis();
+
+        ArrayList<String> dueSummonerIds = new ArrayList<>();
+        for (String summonerId : summonerIds) {
+            SummonerActivity activity = this.summonerActivities.get(summonerId);
+            if (activity == null) {
+                activity = new SummonerActivity();
+                this.summonerActivities.put(summonerId, activity);
+            }
+            if (activity.nextScanNumber <= this.scanNumber) {
+                dueSummonerIds.add(summonerId);
+            }
+        }
+
+        if (this.MAX_RIOT_API_REQUESTS_PER_SCAN >= 0 && dueSummonerIds.size() > this.MAX_RIOT_API_REQUESTS_PER_SCAN) {
+            dueSummonerIds.sort((firstId, secondId) -> {
+                SummonerActivity first = this.summonerActivities.get(firstId);
+                SummonerActivity second = this.summonerActivities.get(secondId);
+                if (isActive(first, now) != isActive(second, now)) {
+                    return isActive(first, now) ? -1 : 1;
+                }
+                if (first.nextScanNumber != second.nextScanNumber) {
+                    return Long.compare(first.nextScanNumber, second.nextScanNumber);
+                }
+                return Long.compare(second.lastSeenInGameMillis, first.lastSeenInGameMillis);
+            });
+            return new ArrayList<>(dueSummonerIds.subList(0, this.MAX_RIOT_API_REQUESTS_PER_SCAN));
+        }
+        return dueSummonerIds;
+    }
+
+    /**
+     * Forgets the activity of every summoner id that is not in the passed in
+     * summoner ids, like the ones of accounts removed from the player roster or
+     * summoner ids that were resolved again, so they are not kept or checkpointed
+     * forever.
+     *
+     * @param summonerIds All the summoner ids that are still tracked, including the
+     *                    ones in known games
+     */
+    protected synchronized void retainSummonerIds(Set<String> summonerIds) {
+        this.summonerActivities.keySet().retainAll(summonerIds);
+    }
+
+    /**
+     * Records that the passed in summoner id was found in an active game so it is
+     * checked every scan.
+     *
+     * @param summonerId The summoner id that was in a game
+     */
+    protected synchronized void recordInGame(String summonerId) {
+        SummonerActivity activity = this.summonerActivities.get(summonerId);
+        if (activity == null) {
+            activity = new SummonerActivity();
+            this.summonerActivities.put(summonerId, activity);
+        }
+        activity.lastSeenInGameMillis = System.currentTimeMillis();
+        activity.scansNotInGame = 0;
+        activity.nextScanNumber = this.scanNumber + 1;
+    }
+
+    /**
+     * Records that the passed in summoner id was not in an active game and pushes
+     * back its next check if it has been inactive for a while.
+     *
+     * @param summonerId The summoner id that was not in a game
+     */
+    protected synchronized void recordNotInGame(String summonerId) {
+        SummonerActivity activity = this.summonerActivities.get(summonerId);
+        if (activity == null) {
+            activity = new SummonerActivity();
+            this.summonerActivities.put(summonerId, activity);
+        }
+        activity.scansNotInGame++;
+
+        long scansUntilNextCheck = 1;
+        if (!isActive(activity, System.currentTimeMillis())) {
+            int doublings = Math.min(activity.scansNotInGame / NOT_IN_GAME_SCANS_PER_DOUBLING, 30);
+            scansUntilNextCheck = Math.min(1L << doublings, this.MAX_SCANS_BETWEEN_CHECKS_OF_INACTIVE_ACCOUNTS);
+        }
+        activity.nextScanNumber = this.scanNumber + scansUntilNextCheck;
+    }
+
+    /**
+     * Getter for the number of the current scan.
+     *
+     * @return How many scans have been started
+     */
+    protected synchronized long getScanNumber() {
+        return this.scanNumber;
+    }
+
+    /**
+     * Gets the activity of every summoner id seen so far.
+     *
+     * @return HashMap of the summoner ids to arrays holding the time last seen in
+     *         a game, the scans in a row not in a game, and the number of the next
+     *         scan it is checked in
+     */
+    protected synchronized HashMap<String, long[]> getSummonerActivities() {
+        HashMap<String, long[]> summonerActivities = new HashMap<>();
+        for (Entry<String, SummonerActivity> entry : this.summonerActivities.entrySet()) {
+            SummonerActivity activity = entry.getValue();
+            summonerActivities.put(entry.getKey(),
+                    new long[] { activity.lastSeenInGameMillis, activity.scansNotInGame, activity.nextScanNumber });
+        }
+        return summonerActivities;
+    }
+
+    /**
+     * Restores the scan number and the activity of a summoner id from before a
+     * restart.
+     *
+     * @param scanNumber           The number of the last scan
+     * @param summonerId           The summoner id
+     * @param lastSeenInGameMillis When the summoner id was last seen in a game
+     * @param scansNotInGame       How many scans in a row it was not in a game
+     * @param nextScanNumber       The number of the next scan it is checked in
+     */
+    protected synchronized void restoreSummonerActivity(long scanNumber, String summonerId,
+            long lastSeenInGameMillis, int scansNotInGame, long nextScanNumber) {
+        this.scanNumber = Math.max(this.scanNumber, scanNumber);
+        SummonerActivity activity = new SummonerActivity();
+        activity.lastSeenInGameMillis = lastSeenInGameMillis;
+        activity.scansNotInGame = scansNotInGame;
+        activity.nextScanNumber = nextScanNumber;
+        this.summonerActivities.put(summonerId, activity);
+    }
+
+    /**
+     * Checks if the summoner was seen in a game recently enough to be checked every
+     * scan.
+     *
+     * @param activity The activity of the summoner id
+     * @param now      The current time in milliseconds
+     * @return True if the summoner id is active and false otherwise
+     */
+    private boolean isActive(SummonerActivity activity, long now) {
+        return activity.lastSeenInGameMillis > 0
+                && (now - activity.lastSeenInGameMillis) < this.MILLIS_ACCOUNT_STAYS_ACTIVE_AFTER_GAME;
+    }
+
+    /**
+     * The activity history of a single summoner id.
+     */
+    private static class SummonerActivity {
+
+        private long lastSeenInGameMillis = 0;
+        private int scansNotInGame = 0;
+        private long nextScanNumber = 0;
+    }
+
+}
@@ -0,0 +1,228 @@
+/**
+ * The SummonerIdCache class saves the summoner ids resolved from the Riot Games API to a file so they do not have to be resolved again every startup. Summoner ids are encrypted per api key, so each is saved with the fingerprint of the api key it was resolved with.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map.Entry;
+import java.util.logging.Logger;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+class SummonerIdCache {
+
+    private File cacheFile;
+    private long expiryMillis;
+    private HashMap<String, CachedSummonerId> cachedSummonerIds;
+    private HashSet<String> apiKeyFingerprints;
+    private Logger logger;
+
+    /**
+     * SummonerIdCache Class Constructor.
+     *
+     * @param cacheFile   The file the cache is saved to or null if the cache is
+     *                    only kept in memory
+     * @param expiryHours How many hours a resolved summoner id can be used for
+     *                    before it is resolved again
+     * @param logger      The Logger object to log the processes
+     */
+    protected SummonerIdCache(File cacheFile, int expiryHours, Logger logger) {
+        this.cacheFile = cacheFile;
+        this.expiryMillis = 3600000L * expiryHours;
+        this.cachedSummonerIds = new HashMap<>();
+        this.apiKeyFingerprints = new HashSet<>();
+        this.logger = logger;
+    }
+
+    /**
+     * Adds fingerprints of the api keys in use. When the cache is loaded, the
+     * summoner ids resolved with an api key that is no longer in use are dropped.
+     *
+     * @param apiKeyFingerprints The fingerprints of the api keys in use
+     */
+    protected synchronized void addApiKeyFingerprints(String[] apiKeyFingerprints) {
+        this.apiKeyFingerprints.addAll(Arrays.asList(apiKeyFingerprints));
+    }
+
+    /**
+     * Reads the cached summoner ids from the cache file. A cache file that does not
+     * exist yet is treated as an empty cache. Summoner ids resolved with an api
+     * key that is no longer in use, or saved before the api key was saved with
+     * them, are dropped.
+     *
+     * @return True if the cache was loaded and false if the cache file could not be
+     *         read
+     */
+    protected synchronized boolean load() {
+        if (this.cacheFile == null) {
+            return true;
+        }
+        if (!this.cacheFile.exists()) {
+            this.logger.info("No summoner id cache found at \"" + this.cacheFile.getAbsolutePath() + "\"");
+            return true;
+        }
+        try {
+            JSONObject cacheJSON = new JSONObject(Files.readString(this.cacheFile.toPath(), StandardCharsets.UTF_8));
+            int droppedSummonerIds = 0;
+            for (String key : cacheJSON.keySet()) {
+                String[] keyParts = key.split("/", 3);
+                if (keyParts.length != 3 || !this.apiKeyFingerprints.contains(keyParts[1])) {
+                    droppedSummonerIds++;
+                    continue;
+                }
+                JSONObject entryJSON = cacheJSON.getJSONObject(key);
+                this.cachedSummonerIds.put(key,
+                        new CachedSummonerId(entryJSON.getString("id"), entryJSON.getLong("resolvedAt")));
+            }
+            this.logger.info(this.cachedSummonerIds.size() + " summoner ids loaded from the summoner id cache");
+            if (droppedSummonerIds > 0) {
+                this.logger.info(droppedSummonerIds + " summoner ids resolved with other api keys dropped from the "
+                        + "summoner id cache");
+            }
+            return true;
+        } catch (IOException e) {
+            this.logger.severe("IOException");
+            return false;
+        } catch (JSONException e) {
+            this.logger.warning("Summoner id cache could not be read. Starting with an empty cache");
+            this.cachedSummonerIds.clear();
+            return true;
+        }
+    }
+
+    /**
+     * Writes the cached summoner ids to the cache file. The file is written to a
+     * temporary file first so a crash while saving does not corrupt the cache.
+     *
+     * @return True if the cache was saved and false otherwise
+     */
+    protected synchronized boolean save() {
+        if (this.cacheFile == null) {
+            return true;
+        }
+        try {
+            JSONObject cacheJSON = new JSONObject();
+            for (Entry<String, CachedSummonerId> entry : this.cachedSummonerIds.entrySet()) {
+                JSONObject entryJSON = new JSONObject();
+                entryJSON.put("id", entry.getValue().summonerId);
+                entryJSON.put("resolvedAt", entry.getValue().resolvedAtMillis);
+                cacheJSON.put(entry.getKey(), entryJSON);
+            }
+
+            File temporaryFile = new File(this.cacheFile.getAbsolutePath() + ".tmp");
+            Files.writeString(temporaryFile.toPath(), cacheJSON.toString(), StandardCharsets.UTF_8);
+            Files.move(temporaryFile.toPath(), this.cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            this.logger.severe("IOException");
+            return false;
+        }
+    }
+
+    /**
+     * Gets the cached summoner id for the passed in summoner name.
+     *
+     * @param region            The region the summoner account is on
+     * @param apiKeyFingerprint The fingerprint of the api key the account is
+     *                          assigned to
+     * @param summonerName      The summoner name of the account
+     * @return The cached summoner id or null if it is not cached, was resolved
+     *         with a different api key, or has expired
+     */
+    protected synchronized String getSummonerId(String region, String apiKeyFingerprint, String summonerName) {
+        CachedSummonerId cachedSummonerId = this.cachedSummonerIds
+                .get(getKey(region, apiKeyFingerprint, summonerName));
+        if (cachedSummonerId == null
+                || (System.currentTimeMillis() - cachedSummonerId.resolvedAtMillis) >= this.expiryMillis) {
+            return null;
+        }
+        return cachedSummonerId.summonerId;
+    }
+
+    /**
+     * Gets when the passed in summoner id was resolved for the passed in summoner
+     * name.
+     *
+     * @param region            The region the summoner account is on
+     * @param apiKeyFingerprint The fingerprint of the api key the account is
+     *                          assigned to
+     * @param summonerName      The summoner name of the account
+     * @param summonerId        The summoner id of the account
+     * @return When the summoner id was resolved in milliseconds or -1 if it is not
+     *         the summoner id cached for the summoner name
+     */
+    protected synchronized long getResolvedAtMillis(String region, String apiKeyFingerprint, String summonerName,
+            String summonerId) {
+        CachedSummonerId cachedSummonerId = this.cachedSummonerIds
+                .get(getKey(region, apiKeyFingerprint, summonerName));
+        if (cachedSummonerId == null || !cachedSummonerId.summonerId.equals(summonerId)) {
+            return -1;
+        }
+        return cachedSummonerId.resolvedAtMillis;
+    }
+
+    /**
+     * Caches the summoner id resolved for the passed in summoner name.
+     *
+     * @param region            The region the summoner account is on
+     * @param apiKeyFingerprint The fingerprint of the api key the summoner id was
+     *                          resolved with
+     * @param summonerName      The summoner name of the account
+     * @param summonerId        The summoner id resolved for the account
+     */
+    protected synchronized void putSummonerId(String region, String apiKeyFingerprint, String summonerName,
+            String summonerId) {
+        this.cachedSummonerIds.put(getKey(region, apiKeyFingerprint, summonerName),
+                new CachedSummonerId(summonerId, System.currentTimeMillis()));
+    }
+
+    /**
+     * Removes every cached entry for the passed in summoner id so it is resolved
+     * again.
+     *
+     * @param summonerId The summoner id that is no longer valid
+     */
+    protected synchronized void invalidateSummonerId(String summonerId) {
+        this.cachedSummonerIds.values().removeIf(cached -> cached.summonerId.equals(summonerId));
+    }
+
+    /**
+     * Gets the key used in the cache for a summoner name. Riot Games ignores case
+     * and spaces in summoner names so they are ignored in the key as well.
+     *
+     * @param region            The region the summoner account is on
+     * @param apiKeyFingerprint The fingerprint of the api key the account is
+     *                          assigned to
+     * @param summonerName      The summoner name of the account
+     * @return The key for the summoner name
+     */
+    protected static String getKey(String region, String apiKeyFingerprint, String summonerName) {
+        return region + "/" + apiKeyFingerprint + "/" + Player.normalizeSummonerName(summonerName);
+    }
+
+    /**
+     * A summoner id and when it was resolved.
+     */
+    private static class CachedSummonerId {
+
+        private String summonerId;
+        private long resolvedAtMillis;
+
+        private CachedSummonerId(String summonerId, long resolvedAtMillis) {
+            this.summonerId = summonerId;
+            this.resolvedAtMillis = resolvedAtMillis;
+        }
+    }
+
+}
@@ -0,0 +1,397 @@
+/**
+ * The TweetQueue class posts tweets to the Twitter Api from its own thread, waiting out rate limits and errors with backoff, so scanning never waits on Twitter. Tweets that have not been posted yet are saved to a file so they are not lost on a restart.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+class TweetQueue {
+
+    private final long INITIAL_BACKOFF_MILLIS = 1000;
+    // waited past the reset time so the rate limit window has surely rolled over
+    private final long RATE_LIMIT_RESET_PADDING_MILLIS = 1000;
+    // the Twitter error codes of tweets that would be rejected again if retried
+    private final int STATUS_TOO_LONG_ERROR_CODE = 186;
+    private final int DUPLICATE_STATUS_ERROR_CODE = 187;
+
+    private TwitterApiHandler twitterApiHandler;
+    private TweetedGamesStore tweetedGames;
+    private BotMetrics metrics;
+    private Logger logger;
+
+    // tweets in the order they were queued, by game id
+    private LinkedHashMap<Long, PendingTweet> pendingTweets;
+    private File pendingTweetsFile;
+    private ExecutorService workerExecutorService;
+    private int tweetsSent;
+
+    private long SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED;
+    private long MAX_BACKOFF_MILLIS;
+    private long MAX_PENDING_MILLIS;
+
+    /**
+     * TweetQueue Class Constructor.
+     *
+     * @param twitterApiHandler   The TwitterApiHandler used to post the tweets
+     * @param tweetedGames        The TweetedGamesStore the games are recorded in
+     *                            once their tweet is done
+     * @param pendingTweetsFile   The file the tweets not posted yet are saved to or
+     *                            null if they are only kept in memory
+     * @param maxBackoffInSeconds The longest to wait between tries
+     * @param maxPendingInMinutes How long a tweet can wait to be posted before it
+     *                            is dropped, as the game will be over
+     * @param metrics             The BotMetrics the retries are recorded in
+     * @param logger              The Logger object to log the processes
+     */
+    protected TweetQueue(TwitterApiHandler twitterApiHandler, TweetedGamesStore tweetedGames, File pendingTweetsFile,
+            int maxBackoffInSeconds, int maxPendingInMinutes, BotMetrics metrics, Logger logger) {
+        this.twitterApiHandler = twitterApiHandler;
+        this.tweetedGames = tweetedGames;
+        this.pendingTweetsFile = pendingTweetsFile;
+        this.metrics = metrics;
+        this.logger = logger;
+        this.pendingTweets = new LinkedHashMap<>();
+        this.SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED = twitterApiHandler.getSecondsToWaitAfterRateLimitReached();
+        this.MAX_BACKOFF_MILLIS = 1000L * maxBackoffInSeconds;
+        this.MAX_PENDING_MILLIS = 60000L * maxPendingInMinutes;
+    }
+
+    /**
+     * Reads the tweets that were not posted before the last shutdown back in from
+     * the pending tweets file. Tweets of games that were tweeted about after all
+     * are skipped. Must be called after the TweetedGamesStore is loaded.
+     *
+     * @return True if the pending tweets were loaded or there is no file and false
+     *         otherwise
+     */
+    protected synchronized boolean load() {
+        if (this.pendingTweetsFile == null || !this.pendingTweetsFile.exists()) {
+            return true;
+        }
+        try {
+            for (String line : Files.readAllLines(this.pendingTweetsFile.toPath(), StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JSONObject pendingTweetJSON = new JSONObject(line);
+                long gameId = pendingTweetJSON.getLong("gameId");
+                if (!this.tweetedGames.contains(gameId)) {
+                    this.pendingTweets.put(gameId, new PendingTweet(pendingTweetJSON.getString("status"),
+                            pendingTweetJSON.getLong("queuedAt")));
+                }
+            }
+            this.logger.info(this.pendingTweets.size() + " pending tweets loaded from the pending tweets file");
+            return true;
+        } catch (IOException e) {
+            this.logger.severe("IOException");
+            return false;
+        } catch (JSONException e) {
+            this.logger.severe("Invalid pending tweets file.");
+            return false;
+        }
+    }
+
+    /**
+     * Starts posting the queued tweets on a background thread.
+     */
+    protected void start() {
+        this.workerExecutorService = Executors.newSingleThreadExecutor(runnable -> {
+            Thread workerThread = new Thread(runnable, "TweetQueue");
+            workerThread.setDaemon(true);
+            return workerThread;
+        });
+        this.workerExecutorService.execute(this::postTweets);
+    }
+
+    /**
+     * Stops posting tweets. The tweets not posted yet stay in the pending tweets
+     * file for the next run.
+     */
+    protected void stop() {
+        if (this.workerExecutorService != null) {
+            this.workerExecutorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues a tweet about a game unless the game already has a tweet queued or
+     * has been tweeted about.
+     *
+     * @param gameId The id of the game the tweet is about
+     * @param status The message to be tweeted
+     * @return True if the tweet was queued and false otherwise
+     */
+    protected synchronized boolean add(long gameId, String status) {
+        if (contains(gameId) || this.tweetedGames.contains(gameId)) {
+            return false;
+        }
+        this.pendingTweets.put(gameId, new PendingTweet(status, System.currentTimeMillis()));
+        savePendingTweets();
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * Checks if a tweet about the game with the passed in id is waiting to be
+     * posted.
+     *
+     * @param gameId The id of the game to check
+     * @return True if the game has a tweet queued and false otherwise
+     */
+    protected synchronized boolean contains(long gameId) {
+        return this.pendingTweets.containsKey(gameId);
+    }
+
+    /**
+     * Gets how many tweets the TweetQueue has posted.
+     *
+     * @return The amount of tweets posted
+     */
+    protected synchronized int getTweetsSent() {
+        return this.tweetsSent;
+    }
+
+    /**
+     * Waits until every queued tweet is done or the timeout runs out.
+     *
+     * @param timeoutMillis The longest to wait in milliseconds
+     * @return True if there are no tweets left and false otherwise
+     * @throws InterruptedException If the thread was interrupted while waiting
+     */
+    protected synchronized boolean awaitEmpty(long timeoutMillis) throws InterruptedException {
+        long waitUntil = System.currentTimeMillis() + timeoutMillis;
+        while (!this.pendingTweets.isEmpty() && System.currentTimeMillis() < waitUntil) {
+            wait(waitUntil - System.currentTimeMillis());
+        }
+        return this.pendingTweets.isEmpty();
+    }
+
+    /**
+     * The worker thread's loop. Posts the oldest queued tweet, one at a time. Rate
+     * limits wait until the x-rate-limit-reset time Twitter sends, and errors are
+     * retried with a backoff that doubles each try up to MAX_BACKOFF_MILLIS. A
+     * tweet is only dropped if Twitter rejects what it says, like a duplicate
+     * status. When Twitter refuses the credentials the tweets stay queued and are
+     * retried after MAX_BACKOFF_MILLIS, as the credentials have to be fixed first.
+     * An exception while posting a tweet is logged and retried with the same
+     * backoff, so it does not stop the worker.
+     */
+    private void postTweets() {
+        long backoffMillis = INITIAL_BACKOFF_MILLIS;
+        try {
+            while (true) {
+                try {
+                    long gameId;
+                    String status;
+                    synchronized (this) {
+                        while (this.pendingTweets.isEmpty()) {
+                            wait();
+                        }
+                        removeExpiredTweets();
+                        if (this.pendingTweets.isEmpty()) {
+                            continue;
+                        }
+                        gameId = this.pendingTweets.keySet().iterator().next();
+                        status = this.pendingTweets.get(gameId).status;
+                    }
+
+                    HttpResponse<String> response = this.twitterApiHandler.tweet(status);
+
+                    if (response != null && response.statusCode() == 200) {
+                        backoffMillis = INITIAL_BACKOFF_MILLIS;
+                        JSONObject tweet = null;
+                        try {
+                            tweet = new JSONObject(response.body());
+                        } catch (JSONException e) {
+                            // posted but the tweet id is not known
+                        }
+                        finishTweet(gameId, tweet, true);
+                    } else if (isRejectedForContent(response)) {
+                        // LOG
+                        this.logger.warning("Tweet for game " + gameId + " rejected by Twitter " + response.body());
+                        finishTweet(gameId, null, false);
+                    } else {
+                        long waitMillis = backoffMillis;
+                        if (response != null && response.statusCode() == 429) {
+                            waitMillis = Math.max(waitMillis, 1000 * SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED);
+                            Optional<String> rateLimitReset = response.headers().firstValue("x-rate-limit-reset");
+                            if (rateLimitReset.isPresent()) {
+                                try {
+                                    // the reset is given in seconds from epoch
+                                    waitMillis = (1000 * Long.parseLong(rateLimitReset.get().trim()))
+                                            - System.currentTimeMillis() + RATE_LIMIT_RESET_PADDING_MILLIS;
+                                } catch (NumberFormatException e) {
+                                    // keep the backoff
+                                }
+                            }
+                        }
+                        boolean credentialsRefused = response != null
+                                && (response.statusCode() == 401 || response.statusCode() == 403);
+                        if (credentialsRefused) {
+                            waitMillis = MAX_BACKOFF_MILLIS;
+                        }
+                        waitMillis = Math.max(0, Math.min(waitMillis, MAX_BACKOFF_MILLIS));
+                        backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+
+                        this.metrics.recordRetry(BotMetrics.TWITTER_UPDATE);
+                        if (credentialsRefused) {
+                            // LOG
+                            this.logger.severe("Twitter refused the credentials with status "
+                                    + response.statusCode() + " " + response.body() + ". Retrying after "
+                                    + (waitMillis / 1000) + " seconds");
+                        } else {
+                            // LOG
+                            this.logger.warning("Tweet not posted. Retrying after " + (waitMillis / 1000)
+                                    + " seconds");
+                        }
+                        Thread.sleep(waitMillis);
+                    }
+                } catch (RuntimeException e) {
+                    // the worker is the only thread posting tweets, so it keeps going and tries
+                    // again after the backoff
+                    long waitMillis = backoffMillis;
+                    backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+                    // LOG
+                    this.logger.severe("Exception while posting tweet " + e + ". Retrying after "
+                            + (waitMillis / 1000) + " seconds");
+                    Thread.sleep(waitMillis);
+                }
+            }
+        } catch (InterruptedException e) {
+            // stopped
+        }
+    }
+
+    /**
+     * Checks if Twitter rejected a tweet for what it says, like a duplicate status
+     * or a status that is too long, so posting it again would be rejected too.
+     *
+     * @param response The response from the Twitter Api or null if there was none
+     * @return True if the tweet was rejected for its content and false otherwise
+     */
+    private boolean isRejectedForContent(HttpResponse<String> response) {
+        if (response == null || response.statusCode() < 400 || response.statusCode() >= 500
+                || response.statusCode() == 429) {
+            return false;
+        }
+        try {
+            JSONArray errors = new JSONObject(response.body()).optJSONArray("errors");
+            if (errors == null) {
+                return false;
+            }
+            for (int i = 0; i < errors.length(); i++) {
+                JSONObject error = errors.optJSONObject(i);
+                if (error != null && (error.optInt("code") == STATUS_TOO_LONG_ERROR_CODE
+                        || error.optInt("code") == DUPLICATE_STATUS_ERROR_CODE)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (JSONException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Removes a tweet from the queue and records its game as tweeted so it is not
+     * tweeted about again.
+     *
+     * @param gameId The id of the game the tweet was about
+     * @param tweet  The tweet returned from the Twitter Api or null if it is not
+     *               known
+     * @param posted True if the tweet was posted
+     */
+    private synchronized void finishTweet(long gameId, JSONObject tweet, boolean posted) {
+        this.tweetedGames.add(gameId, tweet);
+        this.pendingTweets.remove(gameId);
+        if (posted) {
+            this.tweetsSent++;
+        }
+        savePendingTweets();
+        notifyAll();
+    }
+
+    /**
+     * Drops the queued tweets that have waited longer than MAX_PENDING_MILLIS, as
+     * their games are over. Must be called while holding the TweetQueue's lock.
+     */
+    private void removeExpiredTweets() {
+        long now = System.currentTimeMillis();
+        boolean removedTweets = false;
+        Iterator<Long> gameIdIterator = this.pendingTweets.keySet().iterator();
+        while (gameIdIterator.hasNext()) {
+            long gameId = gameIdIterator.next();
+            if (now - this.pendingTweets.get(gameId).queuedAtMillis > MAX_PENDING_MILLIS) {
+                gameIdIterator.remove();
+                this.tweetedGames.add(gameId, null);
+                removedTweets = true;
+                // LOG
+                this.logger.warning("Tweet for game " + gameId + " dropped after waiting too long to be posted");
+            }
+        }
+        if (removedTweets) {
+            savePendingTweets();
+            notifyAll();
+        }
+    }
+
+    /**
+     * Writes the queued tweets to the pending tweets file, one JSON object per
+     * line. The file is written to a temporary file and moved over the old one so
+     * a crash while writing loses nothing. Must be called while holding the
+     * TweetQueue's lock.
+     */
+    private void savePendingTweets() {
+        if (this.pendingTweetsFile == null) {
+            return;
+        }
+        try {
+            ArrayList<String> lines = new ArrayList<>();
+            for (Long gameId : this.pendingTweets.keySet()) {
+                PendingTweet pendingTweet = this.pendingTweets.get(gameId);
+                lines.add(new JSONObject().put("gameId", gameId.longValue()).put("status", pendingTweet.status)
+                        .put("queuedAt", pendingTweet.queuedAtMillis).toString());
+            }
+            File temporaryFile = new File(this.pendingTweetsFile.getAbsolutePath() + ".tmp");
+            Files.write(temporaryFile.toPath(), lines, StandardCharsets.UTF_8);
+            Files.move(temporaryFile.toPath(), this.pendingTweetsFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            this.logger.severe("IOException");
+        }
+    }
+
+    /**
+     * A tweet waiting to be posted and when it was queued.
+     */
+    private static class PendingTweet {
+
+        private String status;
+        private long queuedAtMillis;
+
+        private PendingTweet(String status, long queuedAtMillis) {
+            this.status = status;
+            this.queuedAtMillis = queuedAtMillis;
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+/**
+ * The TweetRenderer class writes the tweets about SoloQueueGames into a buffer it reuses, using the mention of each Player made when the roster was loaded, and keeps every tweet within Twitter's 280 character limit.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.util.HashMap;
+import java.util.Map.Entry;
+
+class TweetRenderer {
+
+    // the weighted length Twitter allows in a tweet
+    protected static final int MAX_TWEET_WEIGHTED_LENGTH = 280;
+    // Twitter counts every link as this many characters, however long it is
+    private static final int URL_WEIGHTED_LENGTH = 23;
+
+    private static final String BLUE_SIDE_HEADER = "Blue Side: \n";
+    private static final String RED_SIDE_HEADER = "Red Side: \n";
+    private static final String MENTION_INDENT = "    ";
+    private static final String WATCH_HERE = "Watch here: ";
+    private static final String TWITCH_URL = "https://www.twitch.tv/";
+
+    private StringBuilder tweetBuffer;
+
+    /**
+     * TweetRenderer Class Constructor.
+     */
+    protected TweetRenderer() {
+        this.tweetBuffer = new StringBuilder(512);
+    }
+
+    /**
+     * Writes the tweet about a game. A team's players are listed in order until the
+     * next one would go over the limit, and the rest of that team is left out.
+     *
+     * @param gameToTweet       The game to tweet about
+     * @param blueTeamStreamers The streamers on the blue team mapped to their view
+     *                          count
+     * @param redTeamStreamers  The streamers on the red team mapped to their view
+     *                          count
+     * @param gameScore         The gamescore of the game
+     * @return The tweet or null if there is no streamer in the game to link to
+     */
+    protected synchronized String render(SoloQueueGame gameToTweet, HashMap<Player, Integer> blueTeamStreamers,
+            HashMap<Player, Integer> redTeamStreamers, int gameScore) {
+        // getting the heighest viewed streamer
+        Entry<Player, Integer> heighestViewCountStreamer = getHeighestViewCountStreamer(blueTeamStreamers, null);
+        heighestViewCountStreamer = getHeighestViewCountStreamer(redTeamStreamers, heighestViewCountStreamer);
+        if (heighestViewCountStreamer == null) {
+            return null;
+        }
+
+        HashMap<Player, String[]> blueTeamPlayers = gameToTweet.getBlueTeam().getPlayers();
+        HashMap<Player, String[]> redTeamPlayers = gameToTweet.getRedTeam().getPlayers();
+
+        StringBuilder tweet = this.tweetBuffer;
+        tweet.setLength(0);
+        tweet.append('(').append(gameScore).append(")\n");
+
+        // the room left once everything but the mentions is counted
+        int weightedLengthLeft = MAX_TWEET_WEIGHTED_LENGTH - weightedLength(tweet)
+                - weightedLength(BLUE_SIDE_HEADER) - weightedLength(RED_SIDE_HEADER) - weightedLength(WATCH_HERE)
+                - URL_WEIGHTED_LENGTH;
+        if (blueTeamPlayers.isEmpty()) {
+            weightedLengthLeft--;
+        }
+        if (redTeamPlayers.isEmpty()) {
+            weightedLengthLeft--;
+        }
+
+        tweet.append(BLUE_SIDE_HEADER);
+        weightedLengthLeft = appendMentions(tweet, blueTeamPlayers, weightedLengthLeft);
+        tweet.append(RED_SIDE_HEADER);
+        appendMentions(tweet, redTeamPlayers, weightedLengthLeft);
+
+        tweet.append(WATCH_HERE).append(TWITCH_URL).append(heighestViewCountStreamer.getKey().getTwitchName());
+
+        return tweet.toString();
+    }
+
+    /**
+     * Finds the streamer on a team with more viewers than the heighest viewed
+     * streamer found so far.
+     *
+     * @param teamStreamers             The streamers on the team mapped to their
+     *                                  view count
+     * @param heighestViewCountStreamer The heighest viewed streamer found so far or
+     *                                  null if there is none yet
+     * @return The heighest viewed streamer found so far
+     */
+    private Entry<Player, Integer> getHeighestViewCountStreamer(HashMap<Player, Integer> teamStreamers,
+            Entry<Player, Integer> heighestViewCountStreamer) {
+        for (Entry<Player, Integer> entry : teamStreamers.entrySet()) {
+            if (entry.getKey() != null && (heighestViewCountStreamer == null
+                    || entry.getValue() > heighestViewCountStreamer.getValue())) {
+                heighestViewCountStreamer = entry;
+            }
+        }
+        return heighestViewCountStreamer;
+    }
+
+    /**
+     * Adds a line mentioning each player on a team to the tweet, or an empty line
+     * if there are no players on the team.
+     *
+     * @param tweet              The tweet being written
+     * @param players            The players on the team
+     * @param weightedLengthLeft How much room is left for mentions
+     * @return How much room is left for mentions after this team's
+     */
+    private int appendMentions(StringBuilder tweet, HashMap<Player, String[]> players, int weightedLengthLeft) {
+        if (players.isEmpty()) {
+            tweet.append('\n');
+            return weightedLengthLeft;
+        }
+        for (Player player : players.keySet()) {
+            int mentionWeightedLength = player.getTweetMentionWeightedLength() + MENTION_INDENT.length() + 1;
+            if (mentionWeightedLength > weightedLengthLeft) {
+                break;
+            }
+            tweet.append(MENTION_INDENT).append(player.getTweetMention()).append('\n');
+            weightedLengthLeft -= mentionWeightedLength;
+        }
+        return weightedLengthLeft;
+    }
+
+    /**
+     * Counts text the way Twitter does for its character limit. Latin and other
+     * common characters count once and everything else, like CJK characters and
+     * emoji, counts twice.
+     *
+     * @param text The text to count
+     * @return The weighted length of the text
+     */
+    protected static int weightedLength(CharSequence text) {
+        int weightedLength = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int codePoint = Character.codePointAt(text, i);
+            if (Character.isSupplementaryCodePoint(codePoint)) {
+                i++;
+            }
+            if (codePoint <= 4351 || (codePoint >= 8192 && codePoint <= 8205)
+                    || (codePoint >= 8208 && codePoint <= 8223) || (codePoint >= 8242 && codePoint <= 8247)) {
+                weightedLength += 1;
+            } else {
+                weightedLength += 2;
+            }
+        }
+        return weightedLength;
+    }
+
+}
@@ -0,0 +1,193 @@
+/**
+ * The TweetedGamesJournal class appends every tweeted game to a file so the TweetedGamesStore can be rebuilt after a restart.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+class TweetedGamesJournal {
+
+    // game id, tweet id, and time tweeted
+    private final int RECORD_SIZE_IN_BYTES = 3 * Long.BYTES;
+    private final int MINUTES_BETWEEN_COMPACTIONS = 30;
+
+    private File journalFile;
+    private FileChannel journalChannel;
+    private int recordsInJournal;
+    private ScheduledExecutorService compactorExecutorService;
+    private Logger logger;
+
+    /**
+     * TweetedGamesJournal Class Constructor.
+     *
+     * @param journalFile The file the journal is written to
+     * @param logger      The Logger object to log the processes
+     */
+    protected TweetedGamesJournal(File journalFile, Logger logger) {
+        this.journalFile = journalFile;
+        this.recordsInJournal = 0;
+        this.logger = logger;
+    }
+
+    /**
+     * Reads every record in the journal into the passed in TweetedGamesStore and
+     * opens the journal for appending. A record that was only partly written
+     * before a crash is cut off.
+     *
+     * @param tweetedGames The TweetedGamesStore to add the tweeted games to
+     * @return True if the journal was replayed and false otherwise
+     */
+    protected synchronized boolean replay(TweetedGamesStore tweetedGames) {
+        try {
+            if (this.journalFile.exists()) {
+                ByteBuffer journalBuffer = ByteBuffer.wrap(Files.readAllBytes(this.journalFile.toPath()));
+                while (journalBuffer.remaining() >= RECORD_SIZE_IN_BYTES) {
+                    tweetedGames.add(journalBuffer.getLong(), journalBuffer.getLong(), journalBuffer.getLong());
+                    this.recordsInJournal++;
+                }
+            }
+
+            this.journalChannel = FileChannel.open(this.journalFile.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE);
+            this.journalChannel.truncate((long) this.recordsInJournal * RECORD_SIZE_IN_BYTES);
+            this.journalChannel.position(this.journalChannel.size());
+
+            this.logger.info(tweetedGames.size() + " tweeted games loaded from the tweeted games journal");
+            return true;
+        } catch (IOException e) {
+            this.logger.severe("IOException");
+            return false;
+        }
+    }
+
+    /**
+     * Appends a tweeted game to the journal and waits for it to be written to disk.
+     *
+     * @param gameId          The id of the game that was tweeted
+     * @param tweetId         The id of the tweet or -1 if it is not known
+     * @param tweetedAtMillis When the game was tweeted in milliseconds
+     */
+    protected synchronized void append(long gameId, long tweetId, long tweetedAtMillis) {
+        if (this.journalChannel == null) {
+            return;
+        }
+        try {
+            ByteBuffer recordBuffer = ByteBuffer.allocate(RECORD_SIZE_IN_BYTES);
+            recordBuffer.putLong(gameId).putLong(tweetId).putLong(tweetedAtMillis).flip();
+            while (recordBuffer.hasRemaining()) {
+                this.journalChannel.write(recordBuffer);
+            }
+            this.journalChannel.force(false);
+            this.recordsInJournal++;
+        } catch (IOException e) {
+            this.logger.severe("IOException");
+        }
+    }
+
+    /**
+     * Starts compacting the journal in the background every
+     * MINUTES_BETWEEN_COMPACTIONS minutes.
+     *
+     * @param tweetedGames The TweetedGamesStore holding the games that have not
+     *                     expired
+     */
+    protected void startCompaction(TweetedGamesStore tweetedGames) {
+        this.compactorExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread compactorThread = new Thread(runnable, "TweetedGamesJournalCompactor");
+            compactorThread.setDaemon(true);
+            return compactorThread;
+        });
+        this.compactorExecutorService.scheduleWithFixedDelay(() -> compact(tweetedGames),
+                MINUTES_BETWEEN_COMPACTIONS, MINUTES_BETWEEN_COMPACTIONS, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Rewrites the journal with only the games that have not expired, if most of
+     * the journal is expired games. The new journal is written to a temporary file
+     * and moved over the old one so a crash while compacting loses nothing. If a
+     * game is appended while the games that have not expired are being read the
+     * compaction is skipped until next time.
+     *
+     * @param tweetedGames The TweetedGamesStore holding the games that have not
+     *                     expired
+     */
+    protected void compact(TweetedGamesStore tweetedGames) {
+        int recordsBeforeReading;
+        synchronized (this) {
+            recordsBeforeReading = this.recordsInJournal;
+        }
+        // read without holding the journal lock as the store appends while holding
+        // its own lock
+        ArrayList<long[]> liveTweetedGames = tweetedGames.getTweetedGames();
+
+        synchronized (this) {
+            if (this.journalChannel == null || this.recordsInJournal != recordsBeforeReading
+                    || this.recordsInJournal <= 2 * liveTweetedGames.size()) {
+                return;
+            }
+            try {
+                ByteBuffer journalBuffer = ByteBuffer.allocate(liveTweetedGames.size() * RECORD_SIZE_IN_BYTES);
+                for (long[] tweetedGame : liveTweetedGames) {
+                    journalBuffer.putLong(tweetedGame[0]).putLong(tweetedGame[1]).putLong(tweetedGame[2]);
+                }
+                journalBuffer.flip();
+
+                File temporaryFile = new File(this.journalFile.getAbsolutePath() + ".tmp");
+                try (FileChannel temporaryChannel = FileChannel.open(temporaryFile.toPath(),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    while (journalBuffer.hasRemaining()) {
+                        temporaryChannel.write(journalBuffer);
+                    }
+                    temporaryChannel.force(false);
+                }
+
+                this.journalChannel.close();
+                try {
+                    Files.move(temporaryFile.toPath(), this.journalFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                    this.logger.info("Tweeted games journal compacted from " + this.recordsInJournal + " to "
+                            + liveTweetedGames.size() + " games");
+                    this.recordsInJournal = liveTweetedGames.size();
+                } finally {
+                    this.journalChannel = FileChannel.open(this.journalFile.toPath(), StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE);
+                    this.journalChannel.position(this.journalChannel.size());
+                }
+            } catch (IOException e) {
+                this.logger.severe("IOException");
+            }
+        }
+    }
+
+    /**
+     * Stops compacting the journal and closes the journal file.
+     */
+    protected synchronized void close() {
+        if (this.compactorExecutorService != null) {
+            this.compactorExecutorService.shutdownNow();
+        }
+        try {
+            if (this.journalChannel != null) {
+                this.journalChannel.close();
+                this.journalChannel = null;
+            }
+        } catch (IOException e) {
+            this.logger.severe("IOException");
+        }
+    }
+
+}
@@ -0,0 +1,189 @@
+/**
+ * The TweetedGamesStore class remembers which games have been tweeted about so duplicate tweets are not made, forgetting games once they have surely ended.
+ *
+ * @author Hans Von Gruenigen
+ * @version 1.0
+ */
+package com.hansvg.lolprotwitterbot;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import org.json.JSONObject;
+
+class TweetedGamesStore {
+
+    // no solo queue game goes on for this long after being tweeted about
+    private final long MILLIS_UNTIL_GAME_HAS_ENDED = 2 * 3600000L;
+
+    // games in the order they were tweeted, which is also the order they expire in
+    private LinkedHashMap<Long, TweetedGame> tweetedGames;
+    private TweetedGamesJournal journal;
+
+    /**
+     * TweetedGamesStore Class Constructor.
+     * 
+     * @param journal The TweetedGamesJournal that tweeted games are written to or
+     *                null if they are only kept in memory
+     */
+    protected TweetedGamesStore(TweetedGamesJournal journal) {
+        this.tweetedGames = new LinkedHashMap<>();
+        this.journal = journal;
+    }
+
+    /**
+     * Loads the tweeted games from the TweetedGamesJournal and starts compacting
+     * it in the background.
+     * 
+     * @return True if the tweeted games were loaded or there is no journal and
+     *         false otherwise
+     */
+    protected boolean load() {
+        if (this.journal == null) {
+            return true;
+        }
+        if (!this.journal.replay(this)) {
+            return false;
+        }
+        this.journal.startCompaction(this);
+        return true;
+    }
+
+    /**
+     * Closes the TweetedGamesJournal if there is one.
+     */
+    protected void close() {
+        if (this.journal != null) {
+            this.journal.close();
+        }
+    }
+
+    /**
+     * Checks if the game with the passed in id has been tweeted.
+     *
+     * @param gameId The id of the game to check
+     * @return True if the game has been tweeted and false otherwise
+     */
+    protected synchronized boolean contains(long gameId) {
+        removeEndedGames(System.currentTimeMillis());
+        return this.tweetedGames.containsKey(gameId);
+    }
+
+    /**
+     * Records that the game with the passed in id was tweeted now and writes it to
+     * the TweetedGamesJournal.
+     *
+     * @param gameId The id of the game that was tweeted
+     * @param tweet  The tweet returned from the Twitter Api or null if the tweet
+     *               was not posted
+     */
+    protected synchronized void add(long gameId, JSONObject tweet) {
+        long tweetId = -1;
+        if (tweet != null && tweet.has("id")) {
+            tweetId = tweet.getLong("id");
+        }
+        long tweetedAtMillis = System.currentTimeMillis();
+        add(gameId, tweetId, tweetedAtMillis);
+        if (this.journal != null) {
+            this.journal.append(gameId, tweetId, tweetedAtMillis);
+        }
+    }
+
+    /**
+     * Records that the game with the passed in id was tweeted at the passed in
+     * time without writing it to the TweetedGamesJournal.
+     *
+     * @param gameId          The id of the game that was tweeted
+     * @param tweetId         The id of the tweet or -1 if it is not known
+     * @param tweetedAtMillis When the game was tweeted in milliseconds
+     */
+    protected synchronized void add(long gameId, long tweetId, long tweetedAtMillis) {
+        removeEndedGames(System.currentTimeMillis());
+        // removed first so the game moves to the end of the expiry order
+        this.tweetedGames.remove(gameId);
+        this.tweetedGames.put(gameId, new TweetedGame(tweetId, tweetedAtMillis));
+    }
+
+    /**
+     * Records the passed in games that were tweeted before a restart without
+     * writing them to the TweetedGamesJournal. Games that are already remembered
+     * are kept as they are. The remembered games are put back in the order they
+     * were tweeted, as forgetting the ended games relies on that order.
+     *
+     * @param restoredGames ArrayList of arrays holding the game id, tweet id, and
+     *                      time tweeted of each game, in any order
+     */
+    protected synchronized void restore(ArrayList<long[]> restoredGames) {
+        ArrayList<long[]> tweetedGamesInfo = getTweetedGames();
+        for (long[] restoredGame : restoredGames) {
+            if (!this.tweetedGames.containsKey(restoredGame[0])) {
+                tweetedGamesInfo.add(restoredGame);
+            }
+        }
+        tweetedGamesInfo.sort(Comparator.comparingLong(tweetedGameInfo -> tweetedGameInfo[2]));
+        this.tweetedGames.clear();
+        for (long[] tweetedGameInfo : tweetedGamesInfo) {
+            this.tweetedGames.put(tweetedGameInfo[0], new TweetedGame(tweetedGameInfo[1], tweetedGameInfo[2]));
+        }
+        removeEndedGames(System.currentTimeMillis());
+    }
+
+    /**
+     * Getter for the amount of games remembered.
+     *
+     * @return How many tweeted games are remembered
+     */
+    protected synchronized int size() {
+        return this.tweetedGames.size();
+    }
+
+    /**
+     * Gets every remembered game in the order they were tweeted.
+     *
+     * @return ArrayList of arrays holding the game id, tweet id, and time tweeted
+     *         of each game
+     */
+    protected synchronized ArrayList<long[]> getTweetedGames() {
+        removeEndedGames(System.currentTimeMillis());
+        ArrayList<long[]> tweetedGamesInfo = new ArrayList<>();
+        for (Entry<Long, TweetedGame> entry : this.tweetedGames.entrySet()) {
+            tweetedGamesInfo.add(
+                    new long[] { entry.getKey(), entry.getValue().tweetId, entry.getValue().tweetedAtMillis });
+        }
+        return tweetedGamesInfo;
+    }
+
+    /**
+     * Forgets the games that have surely ended. Games are tweeted in order so this
+     * stops at the first game that has not ended.
+     *
+     * @param now The current time in milliseconds
+     */
+    private void removeEndedGames(long now) {
+        Iterator<TweetedGame> tweetedGameIterator = this.tweetedGames.values().iterator();
+        while (tweetedGameIterator.hasNext()) {
+            if (tweetedGameIterator.next().tweetedAtMillis + MILLIS_UNTIL_GAME_HAS_ENDED > now) {
+                return;
+            }
+            tweetedGameIterator.remove();
+        }
+    }
+
+    /**
+     * The information kept about a tweeted game.
+     */
+    private static class TweetedGame {
+
+        private long tweetId;
+        private long tweetedAtMillis;
+
+        private TweetedGame(long tweetId, long tweetedAtMillis) {
+            this.tweetId = tweetId;
+            this.tweetedAtMillis = tweetedAtMillis;
+        }
+    }
+
+}
@@ -16,7 +16,11 @@ import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
 import java.util.logging.Logger;
 
 import org.json.JSONArray;
@@ -27,23 +31,32 @@ class TwitchApiHandler {
     private final int MAX_DISPLAYNAMES_PER_CALL = 100;
 
     private HttpClient httpClient;
+    private BotMetrics metrics;
     private Logger logger;
 
     private int SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED;
     private String TWITCH_CLIENT_ID;
     private String TWITCH_CLIENT_SECRET;
+    private String TWITCH_API_BASE_URL;
+    private String TWITCH_AUTH_BASE_URL;
 
     private String authToken = null;
 
+    // counted down once the twitch user ids loaded in the background are loaded
+    private volatile CountDownLatch twitchUserIdsLoaded = new CountDownLatch(0);
+
     /**
      * TwitchApiHandler class constructor.
      * 
      * @param configs The configs for the twitter bot
      * @param logger  The logger object to log what happens in the program
+     * @param metrics The BotMetrics the calls to the Twitch.tv Api are recorded in
      * @throws Exception
      */
-    protected TwitchApiHandler(Properties configs, Logger logger) throws NumberFormatException, Exception {
+    protected TwitchApiHandler(Properties configs, Logger logger, BotMetrics metrics)
+            throws NumberFormatException, Exception {
         this.httpClient = HttpClient.newHttpClient();
+        this.metrics = metrics;
         this.logger = logger;
 
         this.SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED = Integer
@@ -65,6 +78,9 @@ class TwitchApiHandler {
             this.logger.severe("NULL Twitch client secret in config file.");
             throw new Exception();
         }
+
+        this.TWITCH_API_BASE_URL = configs.getProperty("TWITCH_API_BASE_URL", "https://api.twitch.tv");
+        this.TWITCH_AUTH_BASE_URL = configs.getProperty("TWITCH_AUTH_BASE_URL", "https://id.twitch.tv");
     }
 
     /**
@@ -76,11 +92,11 @@ class TwitchApiHandler {
     protected boolean loadToken() {
         try {
             HttpRequest request = HttpRequest.newBuilder()
-                    .uri(new URI("https://id.twitch.tv/oauth2/token?client_id=" + this.TWITCH_CLIENT_ID
+                    .uri(new URI(this.TWITCH_AUTH_BASE_URL + "/oauth2/token?client_id=" + this.TWITCH_CLIENT_ID
                             + "&client_secret=" + this.TWITCH_CLIENT_SECRET + "&grant_type=client_credentials"))
                     .POST(BodyPublishers.ofString("")).build();
 
-            HttpResponse<String> response = httpClient.send(request, BodyHandlers.ofString());
+            HttpResponse<String> response = send(request, BotMetrics.TWITCH_TOKEN);
 
             if (response.statusCode() == 200) {
                 JSONObject responseJSON = new JSONObject(response.body());
@@ -96,6 +112,7 @@ class TwitchApiHandler {
                 this.logger.warning("Twitch Api Rate Limit reached. Retrying after "
                         + (SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED) + " seconds");
                 Thread.sleep(1000 * SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED);
+                this.metrics.recordRetry(BotMetrics.TWITCH_TOKEN);
                 return this.loadToken();
             } else {
                 // LOG
@@ -125,10 +142,12 @@ class TwitchApiHandler {
      */
     protected boolean revokeToken() {
         try {
-            HttpRequest request = HttpRequest.newBuilder().uri(new URI("https://id.twitch.tv/oauth2/revoke?client_id="
-                    + this.TWITCH_CLIENT_ID + "&token=" + this.authToken)).POST(BodyPublishers.ofString("")).build();
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(new URI(this.TWITCH_AUTH_BASE_URL + "/oauth2/revoke?client_id=" + this.TWITCH_CLIENT_ID
+                            + "&token=" + this.authToken))
+                    .POST(BodyPublishers.ofString("")).build();
 
-            HttpResponse<String> response = httpClient.send(request, BodyHandlers.ofString());
+            HttpResponse<String> response = send(request, BotMetrics.TWITCH_TOKEN);
 
             if (response.statusCode() == 200) {
                 this.authToken = null;
@@ -141,6 +160,7 @@ class TwitchApiHandler {
                 this.logger.warning("Twitch Api Rate Limit reached. Retrying after "
                         + (SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED) + " seconds");
                 Thread.sleep(1000 * SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED);
+                this.metrics.recordRetry(BotMetrics.TWITCH_TOKEN);
                 return this.revokeToken();
             } else {
                 // LOG
@@ -160,6 +180,33 @@ class TwitchApiHandler {
         }
     }
 
+    /**
+     * Tells the TwitchApiHandler that twitch user ids are going to be loaded in
+     * the background, so streams are not looked up before they are loaded.
+     * finishBackgroundTwitchUserIdLoading() has to be called once they are loaded.
+     */
+    protected void startBackgroundTwitchUserIdLoading() {
+        this.twitchUserIdsLoaded = new CountDownLatch(1);
+    }
+
+    /**
+     * Tells the TwitchApiHandler that the twitch user ids loaded in the background
+     * are done loading.
+     */
+    protected void finishBackgroundTwitchUserIdLoading() {
+        this.twitchUserIdsLoaded.countDown();
+    }
+
+    /**
+     * Waits until the twitch user ids loaded in the background are loaded, so a
+     * game found right after startup is not scored without its streamers.
+     * 
+     * @throws InterruptedException If the thread was interrupted while waiting
+     */
+    protected void awaitTwitchUserIds() throws InterruptedException {
+        this.twitchUserIdsLoaded.await();
+    }
+
     /**
      * Goes through each player from the passed in League and if they have a twitch
      * username, their twitch user id is loaded.
@@ -168,8 +215,25 @@ class TwitchApiHandler {
      * @return true if the ids are loaded successfully and false otherwise
      */
     protected boolean loadTwitchUserIds(League league) {
+        return loadTwitchUserIds(league, league.getPlayers());
+    }
+
+    /**
+     * Loads the twitch user ids of the passed in players that have a twitch
+     * username but no twitch user id yet.
+     * 
+     * @param league  The league that holds the players
+     * @param players The players to load ids for
+     * @return true if the ids are loaded successfully and false otherwise
+     */
+    protected boolean loadTwitchUserIds(League league, ArrayList<Player> players) {
         try {
-            ArrayList<Player> playersToLoadIdsFor = getPlayersWithTwtichAccounts(league.getPlayers());
+            ArrayList<Player> playersToLoadIdsFor = new ArrayList<>();
+            for (Player player : getPlayersWithTwtichAccounts(players)) {
+                if (player.getTwitchUserId() == null) {
+                    playersToLoadIdsFor.add(player);
+                }
+            }
 
             ArrayList<ArrayList<Player>> blocksOfPlayers = getBlocksOfPlayers(playersToLoadIdsFor);
 
@@ -180,7 +244,7 @@ class TwitchApiHandler {
                         .uri(new URI(createGetUserURI(blocksOfPlayers.get(currentBlockOfPlayersIndex))))
                         .header("Client-ID", this.TWITCH_CLIENT_ID).header("Authorization", "Bearer " + this.authToken)
                         .build();
-                HttpResponse<String> response = httpClient.send(request, BodyHandlers.ofString());
+                HttpResponse<String> response = send(request, BotMetrics.TWITCH_USERS);
 
                 if (response.statusCode() == 200 || response.statusCode() == 404) {
                     if (response.statusCode() == 200) {
@@ -193,7 +257,8 @@ class TwitchApiHandler {
                                     .getPlayerFromTwitchName(userInfoJSONArray.getJSONObject(i).getString("login"));
 
                             if (currentPlayer != null) {
-                                currentPlayer.setTwitchUserId(userInfoJSONArray.getJSONObject(i).getString("id"));
+                                league.setTwitchUserId(currentPlayer,
+                                        userInfoJSONArray.getJSONObject(i).getString("id"));
                             }
 
                         }
@@ -204,6 +269,7 @@ class TwitchApiHandler {
                             + (SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED) + " seconds");
                     currentBlockOfPlayersIndex--;
                     Thread.sleep(1000 * SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED);
+                    this.metrics.recordRetry(BotMetrics.TWITCH_USERS);
                 } else {
                     // LOG
                     this.logger.warning(
@@ -227,65 +293,132 @@ class TwitchApiHandler {
     }
 
     /**
-     * Gets the stream objects for each of the players in the passed in team.
+     * Gets the stream objects for all of the passed in players that have twitch
+     * user ids, MAX_DISPLAYNAMES_PER_CALL players per call.
      * 
-     * @param team   The team containing the players to scan streams for
-     * @param league The league that the players being scanned for belong to
-     * @return A HashMap with players objects as the keys and an integer
+     * @param players The players to get the streams of
+     * @param league  The league that the players being scanned for belong to
+     * @return A HashMap with the players that are live as the keys and an integer
      *         representing the players view count as the value
      */
-    protected HashMap<Player, Integer> getStreamersOnTeam(SoloQueueTeam team, League league) {
+    protected HashMap<Player, Integer> getLiveStreamers(ArrayList<Player> players, League league) {
+        HashMap<Player, Integer> liveStreamers = new HashMap<>();
+        for (Entry<String, Integer> viewCount : getViewCounts(players).entrySet()) {
+            Player streamer = league.getPlayerFromTwitchId(viewCount.getKey());
+            if (streamer != null) {
+                liveStreamers.put(streamer, viewCount.getValue());
+            }
+        }
+        return liveStreamers;
+    }
+
+    /**
+     * Gets the stream objects for all of the passed in players that have twitch
+     * user ids, MAX_DISPLAYNAMES_PER_CALL players per call. Players that share a
+     * twitch user id, like a player in more than one league, are only looked up
+     * once.
+     * 
+     * @param players The players to get the streams of
+     * @return A HashMap with the twitch user ids that are live as the keys and an
+     *         integer representing the view count as the value
+     */
+    protected HashMap<String, Integer> getViewCounts(ArrayList<Player> players) {
+        HashMap<String, Integer> viewCounts = new HashMap<>();
         try {
+            LinkedHashMap<String, Player> playersToCheck = new LinkedHashMap<>();
+            for (Player player : getPlayersWithTwtichAccounts(players)) {
+                if (player.getTwitchUserId() != null && !player.getTwitchUserId().equals("")) {
+                    playersToCheck.putIfAbsent(player.getTwitchUserId(), player);
+                }
+            }
 
-            HashMap<Player, Integer> streamers = new HashMap<>();
+            ArrayList<ArrayList<Player>> blocksOfPlayers = getBlocksOfPlayers(new ArrayList<>(playersToCheck.values()));
 
-            URI requestURI = new URI(createTeamStreamRequestURI(team));
+            for (int currentBlockOfPlayersIndex = 0; currentBlockOfPlayersIndex < blocksOfPlayers
+                    .size(); currentBlockOfPlayersIndex++) {
 
-            HttpRequest request = HttpRequest.newBuilder().GET().uri(requestURI)
-                    .header("Client-ID", this.TWITCH_CLIENT_ID).header("Authorization", "Bearer " + this.authToken)
-                    .build();
+                HttpRequest request = HttpRequest.newBuilder().GET()
+                        .uri(new URI(createGetStreamsURI(blocksOfPlayers.get(currentBlockOfPlayersIndex))))
+                        .header("Client-ID", this.TWITCH_CLIENT_ID).header("Authorization", "Bearer " + this.authToken)
+                        .build();
 
-            HttpResponse<String> response = httpClient.send(request, BodyHandlers.ofString());
+                HttpResponse<String> response = send(request, BotMetrics.TWITCH_STREAMS);
 
-            if (response.statusCode() == 200 || response.statusCode() == 404) {
                 if (response.statusCode() == 200) {
                     JSONObject responseJSON = new JSONObject(response.body());
                     JSONArray streamsInfoJSONArray = responseJSON.getJSONArray("data");
 
                     for (int i = 0; i < streamsInfoJSONArray.length(); i++) {
-                        streamers.put(
-                                league.getPlayerFromTwitchId(
-                                        streamsInfoJSONArray.getJSONObject(i).getString("user_id")),
+                        viewCounts.put(streamsInfoJSONArray.getJSONObject(i).getString("user_id"),
                                 streamsInfoJSONArray.getJSONObject(i).getInt("viewer_count"));
                     }
-
-                    for (Player player : team.getPlayers().keySet()) {
-                        if (!streamers.containsKey(player)) {
-                            streamers.put(player, 0);
-                        }
-                    }
+                } else if (response.statusCode() == 404) {
+                    // none of the players in this block are live
+                } else if (response.statusCode() == 429) {
+                    // LOG
+                    this.logger.warning("Twitch Api Rate Limit reached. Retrying after "
+                            + (SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED) + " seconds");
+                    currentBlockOfPlayersIndex--;
+                    Thread.sleep(1000 * SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED);
+                    this.metrics.recordRetry(BotMetrics.TWITCH_STREAMS);
+                } else {
+                    // LOG
+                    this.logger.warning(
+                            "Error loading stream information from Twitch Api. Status Code: " + response.statusCode());
                 }
-            } else if (response.statusCode() == 429) {
-                // LOG
-                this.logger.warning("Twitch Api Rate Limit reached. Retrying after "
-                        + (SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED) + " seconds");
-                Thread.sleep(1000 * SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED);
-                return getStreamersOnTeam(team, league);
-            } else {
-                // LOG
-                this.logger.warning(
-                        "Error loading stream information from Twitch Api. Status Code: " + response.statusCode());
             }
-            return streamers;
+            return viewCounts;
         } catch (URISyntaxException e) {
             this.logger.severe("URISyntaxException");
-            return new HashMap<>();
+            return viewCounts;
         } catch (IOException e) {
             this.logger.severe("IOException");
-            return new HashMap<>();
+            return viewCounts;
         } catch (InterruptedException e) {
             this.logger.severe("InterruptedException");
-            return new HashMap<>();
+            return viewCounts;
+        }
+    }
+
+    /**
+     * Gets the view counts for each of the players in the passed in team from the
+     * live streamers loaded by getLiveStreamers() or the LiveStreamerCache.
+     * 
+     * @param team          The team containing the players to get the view counts
+     *                      of
+     * @param liveStreamers HashMap of the live players and their view counts
+     * @return A HashMap with players objects as the keys and an integer
+     *         representing the players view count as the value, which is 0 if
+     *         they are not live
+     */
+    protected HashMap<Player, Integer> getStreamersOnTeam(SoloQueueTeam team, Map<Player, Integer> liveStreamers) {
+        HashMap<Player, Integer> streamers = new HashMap<>();
+        for (Player player : team.getPlayers().keySet()) {
+            streamers.put(player, liveStreamers.getOrDefault(player, 0));
+        }
+        return streamers;
+    }
+
+    /**
+     * Sends a request to the Twitch.tv Api and records how long it took and the
+     * status code returned in the BotMetrics.
+     * 
+     * @param request  The request to send
+     * @param endpoint The name of the endpoint being called
+     * @return The response from the Twitch.tv Api
+     * @throws IOException          If an input or output exception occurred
+     * @throws InterruptedException If the thread was interrupted while waiting on
+     *                              the response
+     */
+    private HttpResponse<String> send(HttpRequest request, String endpoint) throws IOException, InterruptedException {
+        HttpResponse<String> response = null;
+        long sendTime = System.nanoTime();
+        try {
+            response = this.httpClient.send(request, BodyHandlers.ofString());
+            return response;
+        } finally {
+            this.metrics.recordRequest(endpoint, (response != null) ? response.statusCode() : -1,
+                    System.nanoTime() - sendTime);
         }
     }
 
@@ -301,16 +434,12 @@ class TwitchApiHandler {
     private ArrayList<ArrayList<Player>> getBlocksOfPlayers(ArrayList<Player> players) {
         ArrayList<ArrayList<Player>> blocksOfUserNames = new ArrayList<>();
         int numberOfBlocks = (int) Math.ceil((double) players.size() / (double) MAX_DISPLAYNAMES_PER_CALL);
-        int remainderOfNames = players.size() % MAX_DISPLAYNAMES_PER_CALL;
 
         for (int currentBlock = 0; currentBlock < numberOfBlocks; currentBlock++) {
-            if (currentBlock == (numberOfBlocks - 1)) {
-                blocksOfUserNames.add(new ArrayList<>(players.subList(MAX_DISPLAYNAMES_PER_CALL * currentBlock,
-                        (MAX_DISPLAYNAMES_PER_CALL * currentBlock) + remainderOfNames)));
-            } else {
-                blocksOfUserNames.add(new ArrayList<>(players.subList(MAX_DISPLAYNAMES_PER_CALL * currentBlock,
-                        MAX_DISPLAYNAMES_PER_CALL * (currentBlock + 1))));
-            }
+            // the last block is cut short by the end of the list, which is a full block
+            // when the amount of players is a multiple of MAX_DISPLAYNAMES_PER_CALL
+            blocksOfUserNames.add(new ArrayList<>(players.subList(MAX_DISPLAYNAMES_PER_CALL * currentBlock,
+                    Math.min(MAX_DISPLAYNAMES_PER_CALL * (currentBlock + 1), players.size()))));
         }
 
         return blocksOfUserNames;
@@ -343,8 +472,8 @@ class TwitchApiHandler {
      * @param players The players whose twitch names are to be included in the URI
      * @return A string representation of the URI to make the call for the user ids
      */
-    private String createGetUserURI(ArrayList<Player> players) {
-        String uri = "https://api.twitch.tv/helix/users?";
+    protected String createGetUserURI(ArrayList<Player> players) {
+        String uri = this.TWITCH_API_BASE_URL + "/helix/users?";
         for (int i = 0; i < players.size(); i++) {
             uri += "login=" + players.get(i).getTwitchName();
             if (i != (players.size() - 1)) {
@@ -356,25 +485,20 @@ class TwitchApiHandler {
 
     /**
      * Function to make the string that will turn into the URI for the call to load
-     * the user objects for each Player in the passed in team.
+     * the stream objects for each Player in the passed in list.
      * 
-     * @param team The team containing the players whose twitch names are to be
-     *             included in the URI
+     * @param players The players whose twitch user ids are to be included in the
+     *                URI
      * @return A string representation of the URI to make the call for the user
      *         streams
      */
-    private String createTeamStreamRequestURI(SoloQueueTeam team) {
-        String uri = "https://api.twitch.tv/helix/streams?";
-        ArrayList<Player> players = this.getPlayersWithTwtichAccounts(new ArrayList<>(team.getPlayers().keySet()));
-        for (int i = 0; i < players.size(); i++) {
-            if (players.get(i).getTwitchUserId() != null && !players.get(i).getTwitchUserId().equals("")) {
-                uri += "user_id=" + players.get(i).getTwitchUserId();
-                if (i != (players.size() - 1)) {
-                    uri += "&";
-                }
-            }
+    private String createGetStreamsURI(ArrayList<Player> players) {
+        StringBuilder uri = new StringBuilder(this.TWITCH_API_BASE_URL).append("/helix/streams?first=")
+                .append(MAX_DISPLAYNAMES_PER_CALL);
+        for (Player player : players) {
+            uri.append("&user_id=").append(player.getTwitchUserId());
         }
-        return uri;
+        return uri.toString();
     }
 
 }
\ No newline at end of file
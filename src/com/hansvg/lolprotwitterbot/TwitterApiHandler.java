@@ -34,6 +34,7 @@ class TwitterApiHandler {
     private final String oauth_version = "1.0";
 
     private HttpClient httpClient;
+    private BotMetrics metrics;
     private Logger logger;
 
     private int SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED;
@@ -43,15 +44,20 @@ class TwitterApiHandler {
     private String OAUTH_TOKEN;
     private String OAUTH_TOKEN_SECRET;
 
+    private String TWITTER_API_BASE_URL;
+
     /**
      * TwitterApiHandler class constructor.
      * 
      * @param configs The configs for the twitter bot
      * @param logger  The logger object to log what happens in the program
+     * @param metrics The BotMetrics the calls to the Twitter Api are recorded in
      * @throws Exception
      */
-    protected TwitterApiHandler(Properties configs, Logger logger) throws NumberFormatException, Exception {
+    protected TwitterApiHandler(Properties configs, Logger logger, BotMetrics metrics)
+            throws NumberFormatException, Exception {
         this.httpClient = HttpClient.newHttpClient();
+        this.metrics = metrics;
         this.logger = logger;
 
         this.SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED = Integer
@@ -85,16 +91,19 @@ class TwitterApiHandler {
             this.logger.severe("NULL Twitter access token secret in config file.");
             throw new Exception();
         }
+
+        this.TWITTER_API_BASE_URL = configs.getProperty("TWITTER_API_BASE_URL", "https://api.twitter.com");
     }
 
     /**
-     * Method to post a status update on the twitter bot's twitter account
+     * Method to post a status update on the twitter bot's twitter account. Makes a
+     * single attempt, waiting out rate limits and retrying is left to the caller.
      * 
      * @param statusToPost The message to be tweeted
-     * @return A JSONObject of the tweet returned from the twitter api after a
-     *         successful post or null if the tweet was not posted successfully
+     * @return The response from the twitter api or null if the request could not
+     *         be sent
      */
-    protected JSONObject tweet(String statusToPost) {
+    protected HttpResponse<String> tweet(String statusToPost) {
         try {
             String nonce = generateOauthNonce();
             long timestamp = generateOauthTimestamp();
@@ -102,27 +111,30 @@ class TwitterApiHandler {
             String oauthHeader = generateHeaderString(nonce, timestamp, signature);
 
             HttpRequest request = HttpRequest.newBuilder().POST(BodyPublishers.ofString(""))
-                    .uri(new URI(
-                            "https://api.twitter.com/1.1/statuses/update.json?status=" + percentEncode(statusToPost)))
+                    .uri(new URI(this.TWITTER_API_BASE_URL + "/1.1/statuses/update.json?status="
+                            + percentEncode(statusToPost)))
                     .header("authorization", oauthHeader).build();
 
-            HttpResponse<String> response = httpClient.send(request, BodyHandlers.ofString());
+            HttpResponse<String> response = null;
+            long sendTime = System.nanoTime();
+            try {
+                response = httpClient.send(request, BodyHandlers.ofString());
+            } finally {
+                this.metrics.recordRequest(BotMetrics.TWITTER_UPDATE, (response != null) ? response.statusCode() : -1,
+                        System.nanoTime() - sendTime);
+            }
 
             if (response.statusCode() == 200) {
                 // LOG
                 this.logger.info("Successfully posted tweet");
-                return new JSONObject(response.body());
             } else if (response.statusCode() == 429) {
                 // LOG
-                this.logger.warning("Twitter Api Rate Limit reached. Retrying after "
-                        + (SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED) + " seconds");
-                Thread.sleep(1000 * SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED);
-                return tweet(statusToPost);
+                this.logger.warning("Twitter Api Rate Limit reached");
             } else {
                 // LOG
                 this.logger.warning("Error posting tweet to Twitter Api. Status Code: " + response.statusCode());
-                return null;
             }
+            return response;
         } catch (NoSuchAlgorithmException e) {
             // LOG
             this.logger.severe("NoSuchAlgorithmException");
@@ -142,10 +154,21 @@ class TwitterApiHandler {
         } catch (InterruptedException e) {
             // LOG
             this.logger.severe("InterruptedException");
+            Thread.currentThread().interrupt();
             return null;
         }
     }
 
+    /**
+     * Getter for how long to wait after reaching the rate limit when the twitter
+     * api does not say when it resets.
+     * 
+     * @return The amount of seconds to wait
+     */
+    protected int getSecondsToWaitAfterRateLimitReached() {
+        return this.SECONDS_TO_WAIT_AFTER_RATE_LIMIT_REACHED;
+    }
+
     /**
      * Method to generate psudo-random nonce for authentication
      * 
@@ -190,7 +213,7 @@ class TwitterApiHandler {
      * @throws InvalidKeyException      If the key passed into the init function of
      *                                  the Mac class in invalid
      */
-    private String generateSignature(String oauthNonce, long oauthTimestamp, String statusToPost)
+    protected String generateSignature(String oauthNonce, long oauthTimestamp, String statusToPost)
             throws NoSuchAlgorithmException, InvalidKeyException {
         String parameterString = "oauth_consumer_key=" + percentEncode(this.OAUTH_CONSUMER_KEY) + "&oauth_nonce="
                 + percentEncode(oauthNonce) + "&oauth_signature_method=" + percentEncode(this.oauth_signature_method)
@@ -198,8 +221,8 @@ class TwitterApiHandler {
                 + percentEncode(this.OAUTH_TOKEN) + "&oauth_version=" + percentEncode(this.oauth_version) + "&status="
                 + percentEncode(statusToPost);
 
-        String signatureBaseString = "POST&" + percentEncode("https://api.twitter.com/1.1/statuses/update.json") + "&"
-                + percentEncode(parameterString);
+        String signatureBaseString = "POST&" + percentEncode(this.TWITTER_API_BASE_URL + "/1.1/statuses/update.json")
+                + "&" + percentEncode(parameterString);
 
         String signingKey = percentEncode(this.OAUTH_CONSUMER_SECRET) + "&" + percentEncode(this.OAUTH_TOKEN_SECRET);
 